@@ -0,0 +1,76 @@
+package com.github.sharifrahim.rest.rest.foundation.demo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Shared payloads for the JMH benchmarks. "small" resembles a typical
+ * request, "large" a listing response of a few hundred nested records.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * Flat request DTO, as sent by most strategies.
+	 */
+	@Data
+	public static class AccountRequest {
+
+		private String accountNo = "1234567890";
+		private String branchCode = "KL001";
+		private String currency = "MYR";
+		private Integer limit = 50;
+		private String password = "s3cr3t";
+	}
+
+	/**
+	 * Response DTO carrying Provider X's status fields.
+	 */
+	@Data
+	public static class StatusResponse {
+
+		private String statusCode;
+		private String statusMessage;
+		private Map<String, Object> data;
+	}
+
+	/**
+	 * @param size "small" or "large"
+	 * @return a nested map payload containing sensitive keys
+	 */
+	public static Map<String, Object> payload(String size) {
+		int records = "large".equals(size) ? 500 : 3;
+		List<Map<String, Object>> items = new ArrayList<>(records);
+		for (int i = 0; i < records; i++) {
+			Map<String, Object> item = new LinkedHashMap<>();
+			item.put("id", i);
+			item.put("accountNo", "ACC-" + i);
+			item.put("holder", "Account Holder " + i);
+			item.put("balance", 1000.25 + i);
+			item.put("token", "tok-" + i);
+			item.put("tags", List.of("retail", "active"));
+			items.add(item);
+		}
+
+		Map<String, Object> data = new LinkedHashMap<>();
+		data.put("items", items);
+		data.put("total", records);
+
+		Map<String, Object> payload = new LinkedHashMap<>();
+		payload.put("statusCode", "SUCCESS");
+		payload.put("statusMessage", "OK");
+		payload.put("data", data);
+		return payload;
+	}
+}
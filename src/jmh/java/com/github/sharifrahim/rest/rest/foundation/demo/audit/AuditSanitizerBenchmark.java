@@ -0,0 +1,63 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.BenchmarkFixtures;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+
+/**
+ * Audit serialization and masking of request objects ({@code toJson}) and raw
+ * response bodies ({@code sanitizeBody}).
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditSanitizerBenchmark {
+
+	@Param({ "small", "large" })
+	private String size;
+
+	private AuditSanitizer sanitizer;
+	private Map<String, Object> payload;
+	private String body;
+
+	@Setup
+	public void setUp() throws Exception {
+		JsonHelper jsonHelper = new JsonHelper();
+		sanitizer = new AuditSanitizer(jsonHelper, new AuditProperties());
+		payload = BenchmarkFixtures.payload(size);
+		body = jsonHelper.write(payload);
+	}
+
+	@Benchmark
+	public String toJson() {
+		return sanitizer.toJson(payload);
+	}
+
+	@Benchmark
+	public String sanitizeBody() {
+		return sanitizer.sanitizeBody(body);
+	}
+}
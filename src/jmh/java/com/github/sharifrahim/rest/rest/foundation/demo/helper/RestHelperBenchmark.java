@@ -0,0 +1,228 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.BenchmarkFixtures;
+import com.github.sharifrahim.rest.rest.foundation.demo.BenchmarkFixtures.StatusResponse;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditBodyCodec;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditJournal;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditSampler;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditSanitizer;
+import com.github.sharifrahim.rest.rest.foundation.demo.cache.ResponseCache;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CacheProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CoalescingProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RetryProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailPage;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RetryPolicy;
+import com.github.sharifrahim.rest.rest.foundation.demo.service.ApiAuditTrailService;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ProviderXTokenDecoratedStrategy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ProviderXTokenDecoratedStrategyBenchmark;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The {@link RestHelper} hot path: GET query building, response
+ * deserialization with and without envelope capture, and a full
+ * {@code execute} of a Provider X decorated strategy, buffered and streamed,
+ * against an in-process stub {@link RestTemplate}, with synchronous auditing
+ * into a no-op service. The response cache is off so every call goes through
+ * the exchange.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestHelperBenchmark {
+
+	@Param({ "small", "large" })
+	private String size;
+
+	private JsonHelper jsonHelper;
+	private RestHelper restHelper;
+	private ExecutorService executor;
+	private ProviderXTokenDecoratedStrategy<Object, StatusResponse> strategy;
+	private ProviderXTokenDecoratedStrategy<Object, StatusResponse> streamingStrategy;
+	private HttpEntity<BenchmarkFixtures.AccountRequest> queryEntity;
+	private String responseBody;
+
+	@Setup
+	public void setUp() throws Exception {
+		jsonHelper = new JsonHelper();
+		responseBody = jsonHelper.write(BenchmarkFixtures.payload(size));
+		byte[] responseBytes = responseBody.getBytes(StandardCharsets.UTF_8);
+
+		// Every request is answered in memory with the same canned response
+		RestTemplate stub = new RestTemplate((uri, method) -> {
+			MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+			MockClientHttpResponse response = new MockClientHttpResponse(responseBytes, HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			request.setResponse(response);
+			return request;
+		});
+
+		AuditProperties auditProperties = new AuditProperties();
+		RestMetrics metrics = new RestMetrics(new SimpleMeterRegistry(), new MetricsProperties());
+		ApiAuditTrailWriter auditWriter = new ApiAuditTrailWriter(new NoopAuditService(),
+				new AuditSanitizer(jsonHelper, auditProperties), new AuditBodyCodec(auditProperties),
+				new AuditSampler(auditProperties), new AuditJournal(auditProperties),
+				auditProperties, metrics);
+		CacheProperties cacheProperties = new CacheProperties();
+		cacheProperties.setEnabled(false);
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+
+		restHelper = new RestHelper(stub, auditWriter, jsonHelper, executor, executor,
+				new ResponseCache(cacheProperties), new RequestCoalescer(), new CoalescingProperties(),
+				new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+				new ConcurrencyLimiterRegistry(new ConcurrencyLimitProperties()),
+				new RateLimiterRegistry(new RateLimitProperties()),
+				new RetryPolicy(new RetryProperties()), metrics,
+				new StreamingResponseReader(jsonHelper, new RestClientProperties()));
+		ResponseEnvelope.Fields envelopeFields = new ResponseEnvelope.Fields("/statusCode", "statusCode",
+				"/statusMessage", "statusMessage");
+		strategy = new ProviderXTokenDecoratedStrategy<>(new ProviderXTokenDecoratedStrategyBenchmark.NoopStrategy(),
+				() -> "token", "http://stub.local", envelopeFields, jsonHelper);
+		streamingStrategy = new ProviderXTokenDecoratedStrategy<>(
+				new ProviderXTokenDecoratedStrategyBenchmark.NoopStrategy() {
+					@Override
+					public boolean isStreaming() {
+						return true;
+					}
+				}, () -> "token", "http://stub.local", envelopeFields, jsonHelper);
+		queryEntity = new HttpEntity<>(new BenchmarkFixtures.AccountRequest());
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public String appendQueryParamsFromBody() {
+		return restHelper.appendQueryParamsFromBody("http://stub.local/accounts", queryEntity);
+	}
+
+	@Benchmark
+	public StatusResponse deserialize() throws Exception {
+		return jsonHelper.read(responseBody, StatusResponse.class);
+	}
+
+	@Benchmark
+	public ResponseEnvelope deserializeCapturingEnvelope() throws Exception {
+		try (EnvelopeCapturingParser parser = new EnvelopeCapturingParser(
+				jsonHelper.getMapper().createParser(responseBody), strategy.getEnvelopeFields())) {
+			jsonHelper.readerFor(StatusResponse.class).readValue(parser);
+			return parser.getEnvelope();
+		}
+	}
+
+	@Benchmark
+	public StatusResponse execute() throws Exception {
+		return restHelper.execute(strategy);
+	}
+
+	@Benchmark
+	public StatusResponse executeStreaming() throws Exception {
+		return restHelper.execute(streamingStrategy);
+	}
+
+	// Discards audit rows so the benchmark measures building them, not a database
+	static class NoopAuditService implements ApiAuditTrailService {
+
+		@Override
+		public ApiAuditTrail save(ApiAuditTrail auditTrail) {
+			return auditTrail;
+		}
+
+		@Override
+		public List<ApiAuditTrail> saveAll(List<ApiAuditTrail> auditTrails) {
+			return auditTrails;
+		}
+
+		@Override
+		public int saveAllAbsent(List<ApiAuditTrail> auditTrails) {
+			return auditTrails.size();
+		}
+
+		@Override
+		public Optional<ApiAuditTrail> findById(Long id) {
+			return Optional.empty();
+		}
+
+		@Override
+		public AuditTrailPage findPage(AuditTrailFilter filter, AuditTrailCursor after, int limit) {
+			return new AuditTrailPage(List.of(), null);
+		}
+
+		@Override
+		public long forEach(AuditTrailFilter filter, Consumer<ApiAuditTrail> action) {
+			return 0;
+		}
+
+		@Override
+		public long exportNdjson(AuditTrailFilter filter, OutputStream out) {
+			return 0;
+		}
+
+		@Override
+		public Optional<ApiAuditTrail> findByCorrelationId(String correlationId) {
+			return Optional.empty();
+		}
+
+		@Override
+		public ApiAuditTrail update(ApiAuditTrail auditTrail) {
+			return auditTrail;
+		}
+
+		@Override
+		public void deleteById(Long id) {
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.sharifrahim.rest.rest.foundation.demo.BenchmarkFixtures;
+import com.github.sharifrahim.rest.rest.foundation.demo.BenchmarkFixtures.StatusResponse;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+
+/**
+ * Status extraction in {@link ProviderXTokenDecoratedStrategy}: the recursive
+ * key search alone, {@code processResult} including the tree conversion it
+ * falls back to, and {@code processResult} with the envelope captured during
+ * deserialization.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProviderXTokenDecoratedStrategyBenchmark {
+
+	@Param({ "small", "large" })
+	private String size;
+
+	private ProviderXTokenDecoratedStrategy<Object, StatusResponse> strategy;
+	private JsonNode tree;
+	private StatusResponse response;
+	private ResponseEnvelope envelope;
+
+	@Setup
+	public void setUp() throws Exception {
+		JsonHelper jsonHelper = new JsonHelper();
+		strategy = new ProviderXTokenDecoratedStrategy<>(new NoopStrategy(), () -> "token", "http://stub",
+				new ResponseEnvelope.Fields("/statusCode", "statusCode", "/statusMessage", "statusMessage"),
+				jsonHelper);
+		tree = jsonHelper.valueToTree(BenchmarkFixtures.payload(size));
+		response = jsonHelper.read(jsonHelper.write(BenchmarkFixtures.payload(size)), StatusResponse.class);
+		envelope = new ResponseEnvelope(response.getStatusCode(), response.getStatusMessage());
+	}
+
+	// Worst case: the key is absent, so the whole tree is walked
+	@Benchmark
+	public String findFirstMatchingKey() {
+		return strategy.findFirstMatchingKey(tree, "errorDetail");
+	}
+
+	@Benchmark
+	public StatusResponse processResult() throws Exception {
+		strategy.processResult(response);
+		return response;
+	}
+
+	@Benchmark
+	public StatusResponse processResultWithEnvelope() throws Exception {
+		strategy.processResult(response, envelope);
+		return response;
+	}
+
+	// Accepts any response; only the decorator's own work is measured
+	public static class NoopStrategy implements RestRequestStrategy<Object, StatusResponse> {
+
+		@Override
+		public String getUrl() {
+			return "/status";
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return HttpMethod.POST;
+		}
+
+		@Override
+		public HttpEntity<Object> buildRequestEntity() {
+			return new HttpEntity<>(new BenchmarkFixtures.AccountRequest());
+		}
+
+		@Override
+		public Class<StatusResponse> getResponseType() {
+			return StatusResponse.class;
+		}
+
+		@Override
+		public void processResult(StatusResponse response) {
+		}
+
+		@Override
+		public boolean isIdempotent() {
+			return false;
+		}
+	}
+}
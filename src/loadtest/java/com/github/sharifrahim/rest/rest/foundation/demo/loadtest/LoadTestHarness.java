@@ -0,0 +1,226 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.RestFoundationDemoApplication;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.ProviderXRestHelper;
+import com.github.sharifrahim.rest.rest.foundation.demo.repository.ApiAuditTrailRepository;
+
+/**
+ * End-to-end load test: starts a {@link StubProviderServer}, boots the
+ * application against it with an in-memory H2 audit database, and drives
+ * {@link ProviderXRestHelper#execute} with the configured concurrency and
+ * arrival model. Reports throughput, latency percentiles, audit queue depth
+ * and how long the audit trail took to catch up after the run.
+ *
+ * In closed-loop mode each caller issues its next call when the previous one
+ * returns. In open-loop mode calls are started at a fixed rate regardless of
+ * how many are outstanding, and latency is measured from each call's intended
+ * start, so a stalled client cannot hide queueing delay (coordinated
+ * omission).
+ *
+ * Run with {@code mvn -Ploadtest test-compile exec:exec
+ * -Dloadtest.args="threads=200 mode=open rate=2000"}; see
+ * {@link LoadTestOptions} for all options.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class LoadTestHarness {
+
+	// Highest latency the histogram tracks with full precision
+	private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+	private final LoadTestOptions options;
+	private final ProviderXRestHelper helper;
+	private final ApiAuditTrailWriter auditWriter;
+	private final LoadTestStrategy strategy = new LoadTestStrategy();
+
+	private final Recorder recorder = new Recorder(MAX_TRACKED_NANOS, 3);
+	private final LongAdder succeeded = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final AtomicInteger maxAuditQueue = new AtomicInteger();
+
+	private volatile boolean running = true;
+
+	LoadTestHarness(LoadTestOptions options, ProviderXRestHelper helper, ApiAuditTrailWriter auditWriter) {
+		this.options = options;
+		this.helper = helper;
+		this.auditWriter = auditWriter;
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+
+		try (StubProviderServer stub = new StubProviderServer(options);
+				ConfigurableApplicationContext context = start(options, stub)) {
+			ApiAuditTrailRepository repository = context.getBean(ApiAuditTrailRepository.class);
+			ApiAuditTrailWriter auditWriter = context.getBean(ApiAuditTrailWriter.class);
+			LoadTestHarness harness = new LoadTestHarness(options, context.getBean(ProviderXRestHelper.class),
+					auditWriter);
+
+			System.out.printf("Warming up for %s ...%n", options.getWarmup());
+			harness.run(options.getWarmup().toNanos());
+			harness.reset();
+			long rowsBefore = repository.count();
+			long stubRequestsBefore = stub.getRequestCount();
+
+			System.out.printf("Measuring for %s (%s loop, %d %s threads%s) ...%n", options.getDuration(),
+					options.getMode(), options.getThreads(), options.isVirtualThreads() ? "virtual" : "platform",
+					"open".equals(options.getMode()) ? ", " + options.getRate() + "/s" : "");
+			long start = System.nanoTime();
+			harness.run(options.getDuration().toNanos());
+			long elapsed = System.nanoTime() - start;
+
+			long drainStart = System.nanoTime();
+			long rows = harness.awaitAuditDrained(repository, options.getDrainTimeout().toNanos());
+			long drainNanos = System.nanoTime() - drainStart;
+
+			harness.report(elapsed, rows - rowsBefore, drainNanos, stub.getRequestCount() - stubRequestsBefore);
+		}
+	}
+
+	// Boots the application with Provider X pointing at the stub
+	private static ConfigurableApplicationContext start(LoadTestOptions options, StubProviderServer stub) {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("rest.client.providers.PROVIDER_X.base-url", stub.getBaseUrl());
+		properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+		properties.put("logging.level.com.github.sharifrahim", "WARN");
+		properties.putAll(options.getProperties());
+
+		// Passed as command line arguments so they win over application.properties
+		String[] args = properties.entrySet().stream()
+				.map(e -> "--" + e.getKey() + "=" + e.getValue())
+				.toArray(String[]::new);
+		return new SpringApplicationBuilder(RestFoundationDemoApplication.class)
+				.web(WebApplicationType.NONE)
+				.run(args);
+	}
+
+	// Applies load for the given time, returning once every started call has finished
+	void run(long durationNanos) throws InterruptedException {
+		running = true;
+		ExecutorService callers = options.isVirtualThreads() ? Executors.newVirtualThreadPerTaskExecutor()
+				: Executors.newFixedThreadPool(options.getThreads());
+		Thread monitor = Thread.ofPlatform().daemon().start(this::monitorAuditQueue);
+		long deadline = System.nanoTime() + durationNanos;
+
+		try {
+			if ("open".equals(options.getMode())) {
+				openLoop(callers, deadline);
+			} else {
+				closedLoop(callers, deadline);
+			}
+		} finally {
+			callers.shutdown();
+			callers.awaitTermination(1, TimeUnit.MINUTES);
+			running = false;
+			monitor.join();
+		}
+	}
+
+	// Fixed number of callers, each waiting for its own response
+	private void closedLoop(ExecutorService callers, long deadline) {
+		for (int i = 0; i < options.getThreads(); i++) {
+			callers.submit(() -> {
+				while (System.nanoTime() < deadline) {
+					call(System.nanoTime());
+				}
+			});
+		}
+	}
+
+	// Calls started on a fixed schedule, whether or not earlier ones returned
+	private void openLoop(ExecutorService callers, long deadline) {
+		long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.getRate());
+		long next = System.nanoTime();
+		while (next < deadline) {
+			long now = System.nanoTime();
+			if (next > now) {
+				LockSupport.parkNanos(next - now);
+			}
+			long intended = next;
+			callers.submit(() -> call(intended));
+			next += interval;
+		}
+	}
+
+	private void call(long intendedStart) {
+		try {
+			helper.execute(strategy);
+			succeeded.increment();
+		} catch (Exception e) {
+			failed.increment();
+		}
+		recorder.recordValue(Math.min(System.nanoTime() - intendedStart, MAX_TRACKED_NANOS));
+	}
+
+	private void monitorAuditQueue() {
+		while (running) {
+			maxAuditQueue.accumulateAndGet(auditWriter.getQueueSize(), Math::max);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+		}
+	}
+
+	private void reset() {
+		recorder.reset();
+		succeeded.reset();
+		failed.reset();
+		maxAuditQueue.set(0);
+	}
+
+	// Waits until the audit queue is empty and the row count has settled
+	private long awaitAuditDrained(ApiAuditTrailRepository repository, long timeoutNanos) {
+		long deadline = System.nanoTime() + timeoutNanos;
+		long previous = -1;
+		while (System.nanoTime() < deadline) {
+			long rows = repository.count();
+			if (auditWriter.getQueueSize() == 0 && rows == previous) {
+				return rows;
+			}
+			previous = rows;
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+		}
+		return repository.count();
+	}
+
+	private void report(long elapsedNanos, long auditRows, long drainNanos, long stubRequests) {
+		Histogram latency = recorder.getIntervalHistogram();
+		long calls = succeeded.sum() + failed.sum();
+		double seconds = elapsedNanos / 1e9;
+
+		System.out.println();
+		System.out.println("=== Load test results ===");
+		System.out.printf("Calls              %d (%d ok, %d failed)%n", calls, succeeded.sum(), failed.sum());
+		System.out.printf("Throughput         %.1f calls/s%n", calls / seconds);
+		System.out.printf("Stub requests      %d%n", stubRequests);
+		System.out.println("Latency (ms)");
+		for (double percentile : new double[] { 50, 90, 99, 99.9, 99.99 }) {
+			System.out.printf("  p%-8s        %.2f%n", percentile, latency.getValueAtPercentile(percentile) / 1e6);
+		}
+		System.out.printf("  max              %.2f%n", latency.getMaxValue() / 1e6);
+		System.out.println("Audit");
+		System.out.printf("  rows written     %d%n", auditRows);
+		System.out.printf("  max queue depth  %d%n", maxAuditQueue.get());
+		System.out.printf("  drain after run  %d ms%n", TimeUnit.NANOSECONDS.toMillis(drainNanos));
+		System.out.printf("  dropped / failed %d / %d%n", auditWriter.getDroppedCount(), auditWriter.getFailedCount());
+		System.out.printf("  sampled out      %d%n", auditWriter.getSampledOutCount());
+		System.out.printf("  spilled          %d%n", auditWriter.getSpilledCount());
+	}
+}
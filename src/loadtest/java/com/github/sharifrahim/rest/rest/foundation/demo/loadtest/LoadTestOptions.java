@@ -0,0 +1,102 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import lombok.Data;
+
+/**
+ * Options of a load test run, parsed from {@code key=value} arguments. Keys
+ * starting with {@code rest.}, {@code spring.} or {@code logging.} are passed
+ * to the application context unchanged, so pool and audit writer settings can
+ * be varied per run.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+public class LoadTestOptions {
+
+	// Number of concurrent callers (closed loop) or executor threads (open loop)
+	private int threads = 64;
+
+	// Run callers on virtual threads instead of platform threads
+	private boolean virtualThreads = true;
+
+	// "closed": each caller waits for its response; "open": calls arrive at a fixed rate
+	private String mode = "closed";
+
+	// Arrival rate per second in open-loop mode
+	private int rate = 500;
+
+	// Load before measuring starts
+	private Duration warmup = Duration.ofSeconds(5);
+
+	// Measured load
+	private Duration duration = Duration.ofSeconds(30);
+
+	// Median stub latency
+	private Duration latencyMedian = Duration.ofMillis(20);
+
+	// 99th percentile stub latency (log-normal between median and this)
+	private Duration latencyP99 = Duration.ofMillis(100);
+
+	// Fraction (0..1) of stub responses that fail with 503
+	private double errorRate = 0.0;
+
+	// Approximate size of each stub response body
+	private int payloadBytes = 512;
+
+	// Longest wait for the audit trail to catch up after the run
+	private Duration drainTimeout = Duration.ofSeconds(60);
+
+	// Application properties passed through to the context
+	private Map<String, String> properties = new LinkedHashMap<>();
+
+	/**
+	 * Parses {@code key=value} arguments; keys are the field names above.
+	 *
+	 * @param args the command line arguments
+	 * @return the options
+	 */
+	public static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			String stripped = arg.startsWith("--") ? arg.substring(2) : arg;
+			int eq = stripped.indexOf('=');
+			if (eq < 0) {
+				throw new IllegalArgumentException("Expected key=value, got: " + arg);
+			}
+			String key = stripped.substring(0, eq);
+			String value = stripped.substring(eq + 1);
+
+			if (key.startsWith("rest.") || key.startsWith("spring.") || key.startsWith("logging.")) {
+				options.properties.put(key, value);
+				continue;
+			}
+			switch (key) {
+			case "threads" -> options.threads = Integer.parseInt(value);
+			case "virtualThreads" -> options.virtualThreads = Boolean.parseBoolean(value);
+			case "mode" -> options.mode = value;
+			case "rate" -> options.rate = Integer.parseInt(value);
+			case "warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+			case "duration" -> options.duration = DurationStyle.detectAndParse(value);
+			case "latencyMedian" -> options.latencyMedian = DurationStyle.detectAndParse(value);
+			case "latencyP99" -> options.latencyP99 = DurationStyle.detectAndParse(value);
+			case "errorRate" -> options.errorRate = Double.parseDouble(value);
+			case "payloadBytes" -> options.payloadBytes = Integer.parseInt(value);
+			case "drainTimeout" -> options.drainTimeout = DurationStyle.detectAndParse(value);
+			default -> throw new IllegalArgumentException("Unknown option: " + key);
+			}
+		}
+		if (!"closed".equals(options.mode) && !"open".equals(options.mode)) {
+			throw new IllegalArgumentException("mode must be closed or open, got: " + options.mode);
+		}
+		return options;
+	}
+}
@@ -0,0 +1,75 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import lombok.Data;
+
+/**
+ * Strategy used by the load test: a POST to the stub's {@code /load}
+ * endpoint with a small account payload. Each call uses a different account
+ * number, so neither the response cache nor coalescing hide any load.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class LoadTestStrategy implements RestRequestStrategy<LoadTestStrategy.LoadRequest, LoadTestStrategy.LoadResponse> {
+
+	/**
+	 * Request payload.
+	 */
+	@Data
+	public static class LoadRequest {
+
+		private String accountNo;
+		private long amount;
+	}
+
+	/**
+	 * Response payload, including Provider X's status fields.
+	 */
+	@Data
+	public static class LoadResponse {
+
+		private String statusCode;
+		private String statusMessage;
+		private String accountHolderName;
+		private Boolean isActive;
+		private String padding;
+	}
+
+	@Override
+	public String getUrl() {
+		return "/load";
+	}
+
+	@Override
+	public HttpMethod getMethod() {
+		return HttpMethod.POST;
+	}
+
+	@Override
+	public HttpEntity<LoadRequest> buildRequestEntity() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LoadRequest request = new LoadRequest();
+		request.setAccountNo(Long.toString(random.nextLong(1_000_000_000L, 9_999_999_999L)));
+		request.setAmount(random.nextLong(1, 100_000));
+		return new HttpEntity<>(request);
+	}
+
+	@Override
+	public Class<LoadResponse> getResponseType() {
+		return LoadResponse.class;
+	}
+
+	@Override
+	public void processResult(LoadResponse response) {
+		// Status is validated by the Provider X decorator
+	}
+}
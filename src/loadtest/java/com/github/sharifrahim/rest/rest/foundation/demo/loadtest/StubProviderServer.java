@@ -0,0 +1,109 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded stand-in for Provider X, built on the JDK HTTP server with one
+ * virtual thread per request. Every request to {@code /load} is answered after
+ * a log-normally distributed delay (given median and 99th percentile), either
+ * with a 503 (at the configured error rate) or with a {@code SUCCESS} body of
+ * roughly the configured size.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Slf4j
+public class StubProviderServer implements AutoCloseable {
+
+	// z-score of the 99th percentile of a standard normal distribution
+	private static final double Z_99 = 2.326;
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final double medianNanos;
+	private final double sigma;
+	private final double errorRate;
+	private final byte[] successBody;
+	private final byte[] errorBody = "{\"statusCode\":\"UNAVAILABLE\"}".getBytes(StandardCharsets.UTF_8);
+	private final LongAdder requests = new LongAdder();
+
+	public StubProviderServer(LoadTestOptions options) throws IOException {
+		this.medianNanos = options.getLatencyMedian().toNanos();
+		long p99Nanos = Math.max(options.getLatencyP99().toNanos(), options.getLatencyMedian().toNanos());
+		this.sigma = medianNanos <= 0 ? 0 : Math.log(p99Nanos / medianNanos) / Z_99;
+		this.errorRate = options.getErrorRate();
+		this.successBody = successBody(options.getPayloadBytes());
+
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+		this.server.setExecutor(executor);
+		this.server.createContext("/load", this::handle);
+		this.server.start();
+		log.info("Stub Provider X listening on {}", getBaseUrl());
+	}
+
+	/**
+	 * @return the base URL to configure for Provider X
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * @return the number of requests received
+	 */
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.increment();
+		try (exchange; InputStream in = exchange.getRequestBody()) {
+			in.transferTo(OutputStream.nullOutputStream());
+
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long delay = (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+			if (delay > 0) {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			}
+
+			boolean fail = random.nextDouble() < errorRate;
+			byte[] body = fail ? errorBody : successBody;
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+			exchange.getResponseBody().write(body);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Response with Provider X's status fields, padded to about the requested size
+	private static byte[] successBody(int size) {
+		String prefix = "{\"statusCode\":\"SUCCESS\",\"statusMessage\":\"OK\",\"accountHolderName\":\"Load Test\","
+				+ "\"isActive\":true,\"padding\":\"";
+		String suffix = "\"}";
+		int padding = Math.max(0, size - prefix.length() - suffix.length());
+		return (prefix + "x".repeat(padding) + suffix).getBytes(StandardCharsets.UTF_8);
+	}
+}
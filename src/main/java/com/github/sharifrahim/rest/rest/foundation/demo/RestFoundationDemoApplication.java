@@ -2,6 +2,8 @@ package com.github.sharifrahim.rest.rest.foundation.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +16,8 @@ import lombok.extern.slf4j.Slf4j;
  *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableJpaAuditing
 @RequiredArgsConstructor
 @Slf4j
 public class RestFoundationDemoApplication {
@@ -0,0 +1,386 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.Phase;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.service.ApiAuditTrailService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists {@link AuditRecord}s as {@link ApiAuditTrail} rows.
+ *
+ * In {@link AuditProperties.Mode#SYNC} mode records are serialized and saved on
+ * the caller's thread. In {@link AuditProperties.Mode#ASYNC} mode they are put
+ * on a bounded queue and background writers serialize, sanitize and flush them
+ * in batches, either when a batch is full or when the flush interval elapses.
+ * When the queue is full the configured {@link AuditProperties.OverflowPolicy}
+ * applies.
+ *
+ * With the {@link AuditJournal} enabled, batches that fail because the
+ * database is unavailable are spilled to the journal instead of being lost,
+ * as are records that find the queue full under
+ * {@link AuditProperties.OverflowPolicy#SPILL}. The
+ * {@link AuditJournalReplayer} moves them into the table later. A batch
+ * failing for any other reason is saved row by row, so only the rows the
+ * database rejects are lost; they are logged and counted as failed.
+ *
+ * Before a record is queued, {@link AuditSampler} decides whether it is kept
+ * in full, stripped of headers and bodies, or not persisted at all. Every
+ * decision is counted in {@code rest.audit.detail}, so sampled-out calls still
+ * show up in the aggregates.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiAuditTrailWriter {
+
+	private final ApiAuditTrailService auditService;
+	private final AuditSanitizer sanitizer;
+	private final AuditBodyCodec codec;
+	private final AuditSampler sampler;
+	private final AuditJournal journal;
+	private final AuditProperties properties;
+	private final RestMetrics metrics;
+
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder sampledOut = new LongAdder();
+	private final LongAdder spilled = new LongAdder();
+
+	private BlockingQueue<AuditRecord> queue;
+	private ExecutorService writers;
+	private volatile boolean running;
+
+	/**
+	 * Starts the background writers when running in asynchronous mode.
+	 */
+	@PostConstruct
+	void start() {
+		if (properties.getMode() != AuditProperties.Mode.ASYNC) {
+			log.info("Audit write-behind disabled, records are persisted synchronously.");
+			return;
+		}
+
+		queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+		AtomicInteger threadCount = new AtomicInteger();
+		writers = Executors.newFixedThreadPool(properties.getWriterThreads(), r -> {
+			Thread t = new Thread(r, "audit-writer-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		running = true;
+		for (int i = 0; i < properties.getWriterThreads(); i++) {
+			writers.submit(this::drainLoop);
+		}
+		log.info("Audit write-behind started with {} writer(s), queue capacity {}, batch size {}",
+				properties.getWriterThreads(), properties.getQueueCapacity(), properties.getBatchSize());
+	}
+
+	/**
+	 * Stops accepting new work and flushes whatever is still queued.
+	 */
+	@PreDestroy
+	void stop() throws InterruptedException {
+		if (writers == null) {
+			return;
+		}
+		running = false;
+		writers.shutdown();
+		if (!writers.awaitTermination(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+			log.warn("Audit writers did not finish in time, {} record(s) left unwritten", queue.size());
+			writers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Hands an audit record over for persistence.
+	 *
+	 * @param record the raw audit capture
+	 */
+	public void submit(AuditRecord record) {
+		submit(record, null);
+	}
+
+	/**
+	 * Hands an audit record over for persistence without blocking the caller:
+	 * whatever {@link #submit(AuditRecord)} would do on the caller's thread
+	 * (writing synchronously, waiting for queue space, spilling to the journal)
+	 * runs on {@code blockingWork} instead. Used from event-loop threads.
+	 *
+	 * @param record       the raw audit capture
+	 * @param blockingWork executor for blocking work, or null to run it inline
+	 */
+	public void submit(AuditRecord record, Executor blockingWork) {
+		AuditProperties.Detail detail = sampler.detailFor(record, queueFill());
+		metrics.recordAuditDetail(record.getProvider(), record.getStrategy(), record.getMethod(), record.getStatus(),
+				detail.name());
+		if (detail == AuditProperties.Detail.NONE) {
+			sampledOut.increment();
+			return;
+		}
+		if (detail == AuditProperties.Detail.METADATA) {
+			record.setRequestHeaders(null);
+			record.setRequestBody(null);
+			record.setResponseHeaders(null);
+			record.setResponseBody(null);
+		}
+
+		if (queue == null) {
+			run(blockingWork, () -> write(List.of(record)));
+			return;
+		}
+
+		switch (properties.getOverflowPolicy()) {
+		case BLOCK:
+			if (!queue.offer(record)) {
+				run(blockingWork, () -> put(record));
+			}
+			break;
+		case DROP:
+			if (!queue.offer(record)) {
+				dropped.increment();
+				log.debug("Audit queue full, dropped record for URL [{}]", record.getUrl());
+			}
+			break;
+		case SPILL:
+			if (!queue.offer(record)) {
+				run(blockingWork, () -> spill(List.of(toAuditTrail(record))));
+			}
+			break;
+		case SYNC_FALLBACK:
+		default:
+			if (!queue.offer(record)) {
+				run(blockingWork, () -> write(List.of(record)));
+			}
+		}
+	}
+
+	// Waits for space in the queue
+	private void put(AuditRecord record) {
+		try {
+			queue.put(record);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			dropped.increment();
+			log.warn("Interrupted while queueing audit record for URL [{}]", record.getUrl());
+		}
+	}
+
+	private static void run(Executor executor, Runnable work) {
+		if (executor == null) {
+			work.run();
+		} else {
+			executor.execute(work);
+		}
+	}
+
+	/**
+	 * @return the number of records discarded because the queue was full
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * @return the number of records not persisted because of audit sampling
+	 */
+	public long getSampledOutCount() {
+		return sampledOut.sum();
+	}
+
+	/**
+	 * @return the number of records written to the journal instead of the
+	 *         database
+	 */
+	public long getSpilledCount() {
+		return spilled.sum();
+	}
+
+	/**
+	 * @return the number of records that could not be persisted
+	 */
+	public long getFailedCount() {
+		return failed.sum();
+	}
+
+	/**
+	 * @return the number of records waiting to be written
+	 */
+	public int getQueueSize() {
+		return queue == null ? 0 : queue.size();
+	}
+
+	// Share of the write-behind queue in use, 0 when writing synchronously
+	private double queueFill() {
+		return queue == null ? 0 : (double) queue.size() / properties.getQueueCapacity();
+	}
+
+	// Collects records into size/time bounded batches until stopped and drained
+	private void drainLoop() {
+		int batchSize = properties.getBatchSize();
+		long flushNanos = properties.getFlushInterval().toNanos();
+		List<AuditRecord> batch = new ArrayList<>(batchSize);
+
+		while (running || !queue.isEmpty()) {
+			try {
+				AuditRecord first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+
+				long deadline = System.nanoTime() + flushNanos;
+				while (batch.size() < batchSize) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() >= batchSize || remaining <= 0) {
+						break;
+					}
+					AuditRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				queue.drainTo(batch);
+				write(batch);
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	// Serializes and persists a batch of records, spilling it if the database is
+	// unavailable
+	private void write(List<AuditRecord> records) {
+		if (records.isEmpty()) {
+			return;
+		}
+		List<ApiAuditTrail> rows = new ArrayList<>(records.size());
+		long persistStart = 0;
+		try {
+			for (AuditRecord record : records) {
+				long sanitizeStart = System.nanoTime();
+				rows.add(toAuditTrail(record));
+				metrics.record(Phase.SANITIZE, record.getProvider(), record.getStrategy(), record.getMethod(),
+						record.getStatus(), System.nanoTime() - sanitizeStart);
+			}
+			persistStart = System.nanoTime();
+			auditService.saveAll(rows);
+			metrics.recordAuditPersist(rows.size(), true, System.nanoTime() - persistStart);
+			log.debug("Flushed {} audit record(s)", rows.size());
+		} catch (Exception e) {
+			if (persistStart == 0) {
+				failed.add(records.size());
+				log.error("Failed to serialize {} audit record(s)", records.size(), e);
+				return;
+			}
+			metrics.recordAuditPersist(records.size(), false, System.nanoTime() - persistStart);
+			if (DatabaseFailures.isTransient(e)) {
+				spillOrFail(rows, e);
+			} else {
+				log.warn("Failed to persist {} audit record(s) as a batch, saving them one by one: {}",
+						records.size(), e.getMessage());
+				saveEach(rows);
+			}
+		}
+	}
+
+	// Saves rows one at a time, so a row the database rejects does not take the
+	// others with it. Once the database turns out to be unavailable, the rest
+	// are spilled
+	private void saveEach(List<ApiAuditTrail> rows) {
+		for (int i = 0; i < rows.size(); i++) {
+			ApiAuditTrail row = rows.get(i);
+			// Drop the ID the failed batch assigned, so the row is inserted anew
+			row.setId(null);
+			try {
+				auditService.save(row);
+			} catch (Exception e) {
+				if (DatabaseFailures.isTransient(e)) {
+					spillOrFail(rows.subList(i, rows.size()), e);
+					return;
+				}
+				failed.increment();
+				log.error("Audit row {} for URL [{}] rejected by the database, dropped: {}", row.getCorrelationId(),
+						row.getUrl(), e.getMessage());
+			}
+		}
+	}
+
+	// Keeps rows the unavailable database could not take in the journal when
+	// there is one
+	private void spillOrFail(List<ApiAuditTrail> rows, Exception e) {
+		if (journal.isEnabled()) {
+			log.warn("Failed to persist {} audit record(s), spilling to journal: {}", rows.size(), e.getMessage());
+			spill(rows);
+		} else {
+			failed.add(rows.size());
+			log.error("Failed to persist {} audit record(s)", rows.size(), e);
+		}
+	}
+
+	// Appends rows to the journal, counting those it cannot take as dropped
+	private void spill(List<ApiAuditTrail> rows) {
+		for (ApiAuditTrail row : rows) {
+			if (journal.append(row)) {
+				spilled.increment();
+			} else {
+				dropped.increment();
+			}
+		}
+	}
+
+	// Converts the raw capture into its persisted, sanitized form
+	private ApiAuditTrail toAuditTrail(AuditRecord record) {
+		ApiAuditTrail audit = new ApiAuditTrail();
+		audit.setCorrelationId(record.getCorrelationId());
+		audit.setParentCorrelationId(record.getParentCorrelationId());
+		audit.setTimestamp(record.getTimestamp());
+		audit.setMethod(record.getMethod());
+		audit.setUrl(record.getUrl());
+		if (record.getRequestHeaders() != null) {
+			audit.setRequestHeaders(sanitizer.toJson(record.getRequestHeaders()));
+		}
+		audit.setResponseStatus(record.getResponseStatus());
+		// A missing request body stays null rather than becoming the text "null"
+		codec.encode(audit, record.getRequestBody() == null ? null : sanitizer.toJsonBody(record.getRequestBody()),
+				record.getResponseBodyLength() == null ? sanitizer.sanitizeBodyCapped(record.getResponseBody())
+						: sanitizer.sanitizeBodyPrefix(record.getResponseBody(), record.getResponseBodyLength()));
+		if (record.getResponseHeaders() != null) {
+			audit.setResponseHeaders(sanitizer.toJson(record.getResponseHeaders()));
+		}
+		audit.setDurationMs(record.getDurationMs());
+		audit.setStatus(record.getStatus());
+		audit.setErrorMessage(record.getErrorMessage());
+		return audit;
+	}
+}
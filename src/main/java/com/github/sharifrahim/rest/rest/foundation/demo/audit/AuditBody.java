@@ -0,0 +1,36 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import lombok.Value;
+
+/**
+ * A sanitized body ready to be stored. When the body exceeded the sanitizer's
+ * size cap, {@link #getText()} holds only its beginning and the length and
+ * SHA-256 of the full sanitized body are kept alongside.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class AuditBody {
+
+	// Sanitized text, possibly truncated
+	String text;
+
+	// Length in characters of the full sanitized body (in bytes as received for
+	// partly captured streamed responses), null unless truncated
+	Long originalLength;
+
+	// SHA-256 (hex) of the full sanitized body in UTF-8, null unless truncated or
+	// for partly captured streamed responses
+	String sha256;
+
+	static AuditBody of(String text) {
+		return new AuditBody(text, null, null);
+	}
+
+	public boolean isTruncated() {
+		return originalLength != null;
+	}
+}
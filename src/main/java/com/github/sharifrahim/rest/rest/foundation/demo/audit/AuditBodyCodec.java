@@ -0,0 +1,150 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides how sanitized request and response bodies are stored on an
+ * {@link ApiAuditTrail}, and restores them when rows are read back.
+ *
+ * With {@link AuditProperties.Storage.Compression#DEFLATE}, bodies of at least
+ * {@code compress-threshold} characters are deflated into the binary
+ * {@code *_body_compressed} columns and their text columns are left empty,
+ * unless compression would not make them smaller. Truncated bodies always
+ * record their full length and SHA-256.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class AuditBodyCodec {
+
+	private final boolean compress;
+	private final int threshold;
+	private final int level;
+
+	public AuditBodyCodec(AuditProperties properties) {
+		AuditProperties.Storage storage = properties.getStorage();
+		this.compress = storage.getCompression() == AuditProperties.Storage.Compression.DEFLATE;
+		this.threshold = storage.getCompressThreshold();
+		this.level = storage.getCompressionLevel();
+	}
+
+	/**
+	 * Stores sanitized bodies on a row about to be persisted.
+	 *
+	 * @param audit        the row
+	 * @param requestBody  the sanitized request body, or null
+	 * @param responseBody the sanitized response body, or null
+	 */
+	public void encode(ApiAuditTrail audit, AuditBody requestBody, AuditBody responseBody) {
+		if (requestBody != null) {
+			byte[] compressed = compress(requestBody.getText());
+			if (compressed != null) {
+				audit.setRequestBodyCompressed(compressed);
+			} else {
+				audit.setRequestBody(requestBody.getText());
+			}
+			audit.setRequestBodyOriginalLength(requestBody.getOriginalLength());
+			audit.setRequestBodySha256(requestBody.getSha256());
+		}
+		if (responseBody != null) {
+			byte[] compressed = compress(responseBody.getText());
+			if (compressed != null) {
+				audit.setResponseBodyCompressed(compressed);
+			} else {
+				audit.setResponseBody(responseBody.getText());
+			}
+			audit.setResponseBodyOriginalLength(responseBody.getOriginalLength());
+			audit.setResponseBodySha256(responseBody.getSha256());
+		}
+	}
+
+	/**
+	 * Inflates compressed bodies of a row read from the database back into its
+	 * text fields and clears the compressed ones, so callers only ever see text.
+	 *
+	 * @param audit the row, may be null
+	 * @return the same row
+	 */
+	public ApiAuditTrail decode(ApiAuditTrail audit) {
+		if (audit == null) {
+			return null;
+		}
+		if (audit.getRequestBodyCompressed() != null) {
+			String text = decompress(audit.getId(), audit.getRequestBodyCompressed());
+			if (text != null) {
+				audit.setRequestBody(text);
+				audit.setRequestBodyCompressed(null);
+			}
+		}
+		if (audit.getResponseBodyCompressed() != null) {
+			String text = decompress(audit.getId(), audit.getResponseBodyCompressed());
+			if (text != null) {
+				audit.setResponseBody(text);
+				audit.setResponseBodyCompressed(null);
+			}
+		}
+		return audit;
+	}
+
+	// Deflates the text, or returns null if it should be stored as is
+	byte[] compress(String text) {
+		if (!compress || text == null || text.length() < threshold) {
+			return null;
+		}
+		byte[] input = text.getBytes(StandardCharsets.UTF_8);
+		Deflater deflater = new Deflater(level);
+		try {
+			deflater.setInput(input);
+			deflater.finish();
+			ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+				if (out.size() >= input.length) {
+					return null;
+				}
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	// Inflates a stored body, or returns null if it is corrupt
+	String decompress(Long id, byte[] compressed) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+			ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+			byte[] buffer = new byte[8192];
+			while (!inflater.finished()) {
+				int n = inflater.inflate(buffer);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new DataFormatException("Unexpected end of compressed data");
+				}
+				out.write(buffer, 0, n);
+			}
+			return out.toString(StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			log.warn("Cannot decompress audit body of ApiAuditTrail {}: {}", id, e.getMessage());
+			return null;
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -0,0 +1,332 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only, segmented journal of sanitized audit rows the database could
+ * not take in time. Rows are appended to a memory-mapped segment file; when a
+ * row does not fit, the segment is flushed, trimmed to its used size and
+ * sealed, and a new one is started. The journal never grows beyond
+ * {@code max-size}: appends that would need more space are refused.
+ *
+ * Each entry is {@code [length][CRC32C][payload]}. The length is written last,
+ * so a crash mid-append leaves a zero length that ends the segment, and the
+ * checksum catches anything else that was torn or corrupted. Reading a segment
+ * stops at the first entry that fails either check.
+ *
+ * {@link AuditJournalReplayer} drains sealed segments oldest first and
+ * deletes them once their rows are in the database. Segments left over from a
+ * previous run are picked up on startup.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class AuditJournal implements MeterBinder {
+
+	static final String SUFFIX = ".seg";
+	private static final int HEADER_BYTES = 8;
+
+	private final boolean enabled;
+	private final Path directory;
+	private final int segmentSize;
+	private final long maxSize;
+
+	private final LongAdder appended = new LongAdder();
+	private final LongAdder refused = new LongAdder();
+	private final LongAdder corrupt = new LongAdder();
+
+	// Guarded by this
+	private final Deque<Path> sealed = new ArrayDeque<>();
+	private long sizeBytes;
+	private long nextSequence;
+	private Path activePath;
+	private MappedByteBuffer active;
+	private long activeEntries;
+
+	public AuditJournal(AuditProperties properties) {
+		AuditProperties.Journal journal = properties.getJournal();
+		this.enabled = journal.isEnabled();
+		this.directory = Paths.get(journal.getDirectory());
+		this.segmentSize = (int) Math.min(Integer.MAX_VALUE, journal.getSegmentSize().toBytes());
+		this.maxSize = journal.getMaxSize().toBytes();
+		if (enabled) {
+			recover();
+		}
+	}
+
+	/**
+	 * @return whether spilling to the journal is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Appends a sanitized row.
+	 *
+	 * @param row the row to journal
+	 * @return false if the journal is disabled, full or failing
+	 */
+	public boolean append(ApiAuditTrail row) {
+		if (!enabled) {
+			return false;
+		}
+		byte[] payload = JournalEntryCodec.encode(row);
+		int needed = HEADER_BYTES + payload.length;
+		if (needed > segmentSize) {
+			log.warn("Audit row {} of {} bytes exceeds the journal segment size", row.getCorrelationId(), needed);
+			refused.increment();
+			return false;
+		}
+
+		CRC32C crc = new CRC32C();
+		crc.update(payload);
+		synchronized (this) {
+			try {
+				if ((active == null || active.remaining() < needed) && !startSegment()) {
+					refused.increment();
+					return false;
+				}
+				int position = active.position();
+				active.putInt(position + 4, (int) crc.getValue());
+				active.put(position + HEADER_BYTES, payload);
+				active.putInt(position, payload.length);
+				active.position(position + needed);
+				activeEntries++;
+				appended.increment();
+				return true;
+			} catch (IOException e) {
+				log.error("Cannot write to audit journal in {}", directory, e);
+				refused.increment();
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the sealed segments, oldest first. If there are none, the active
+	 * segment is sealed first when it holds any rows.
+	 *
+	 * @return the segments ready to be replayed
+	 */
+	public synchronized List<Path> segmentsToReplay() {
+		if (sealed.isEmpty() && activeEntries > 0) {
+			try {
+				seal();
+			} catch (IOException e) {
+				log.error("Cannot seal audit journal segment {}", activePath, e);
+			}
+		}
+		return new ArrayList<>(sealed);
+	}
+
+	/**
+	 * Reads every intact row of a sealed segment, in append order.
+	 *
+	 * @param segment the segment
+	 * @param action  called once per row
+	 * @throws IOException if the segment cannot be read
+	 */
+	public void read(Path segment, Consumer<ApiAuditTrail> action) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		CRC32C crc = new CRC32C();
+		while (buffer.remaining() >= HEADER_BYTES) {
+			int position = buffer.position();
+			int length = buffer.getInt(position);
+			if (length == 0) {
+				return;
+			}
+			if (length < 0 || length > buffer.remaining() - HEADER_BYTES) {
+				log.warn("Audit journal segment {} is corrupt at offset {}, skipping the rest", segment, position);
+				corrupt.increment();
+				return;
+			}
+			ByteBuffer payload = buffer.slice(position + HEADER_BYTES, length);
+			crc.reset();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+				log.warn("Audit journal entry in {} at offset {} fails its checksum, skipping the rest", segment,
+						position);
+				corrupt.increment();
+				return;
+			}
+			ApiAuditTrail row;
+			try {
+				row = JournalEntryCodec.decode(payload);
+			} catch (RuntimeException e) {
+				log.warn("Cannot decode audit journal entry in {} at offset {}, skipping it", segment, position, e);
+				corrupt.increment();
+				buffer.position(position + HEADER_BYTES + length);
+				continue;
+			}
+			action.accept(row);
+			buffer.position(position + HEADER_BYTES + length);
+		}
+	}
+
+	/**
+	 * Deletes a segment whose rows have all been replayed.
+	 *
+	 * @param segment the segment
+	 * @throws IOException if it cannot be deleted
+	 */
+	public synchronized void delete(Path segment) throws IOException {
+		long size = Files.size(segment);
+		Files.delete(segment);
+		sealed.remove(segment);
+		sizeBytes -= size;
+	}
+
+	/**
+	 * @return the disk space currently taken by the journal
+	 */
+	public synchronized long getSizeBytes() {
+		return sizeBytes;
+	}
+
+	/**
+	 * @return the number of rows appended since startup
+	 */
+	public long getAppendedCount() {
+		return appended.sum();
+	}
+
+	/**
+	 * @return the number of rows refused because the journal was full or failing
+	 */
+	public long getRefusedCount() {
+		return refused.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("rest.audit.journal.size", this, AuditJournal::getSizeBytes)
+				.baseUnit("bytes")
+				.description("Disk space used by the audit journal")
+				.register(registry);
+		FunctionCounter.builder("rest.audit.journal.appended", appended, LongAdder::sum)
+				.description("Audit rows spilled to the journal")
+				.register(registry);
+		FunctionCounter.builder("rest.audit.journal.refused", refused, LongAdder::sum)
+				.description("Audit rows lost because the journal was full or failing")
+				.register(registry);
+		FunctionCounter.builder("rest.audit.journal.corrupt", corrupt, LongAdder::sum)
+				.description("Torn or corrupt journal entries skipped on replay")
+				.register(registry);
+	}
+
+	/**
+	 * Flushes and trims the active segment so it is replayed on the next start.
+	 */
+	@PreDestroy
+	synchronized void close() {
+		if (active != null) {
+			try {
+				seal();
+			} catch (IOException e) {
+				log.error("Cannot seal audit journal segment {}", activePath, e);
+			}
+		}
+	}
+
+	// Finds segments left behind by a previous run
+	private void recover() {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).sorted().forEach(f -> {
+				try {
+					sizeBytes += Files.size(f);
+					sealed.add(f);
+					nextSequence = Math.max(nextSequence, sequenceOf(f) + 1);
+				} catch (IOException | NumberFormatException e) {
+					log.warn("Ignoring unreadable audit journal file {}", f, e);
+				}
+			});
+		} catch (IOException e) {
+			log.error("Cannot list audit journal directory {}", directory, e);
+		}
+		if (!sealed.isEmpty()) {
+			log.info("Audit journal holds {} segment(s) ({} bytes) from a previous run", sealed.size(), sizeBytes);
+		}
+	}
+
+	// Seals the active segment and maps a new one, unless that would exceed the size cap
+	private boolean startSegment() throws IOException {
+		if (active != null) {
+			seal();
+		}
+		if (sizeBytes + segmentSize > maxSize) {
+			return false;
+		}
+		Files.createDirectories(directory);
+		Path path = directory.resolve(String.format("%020d%s", nextSequence++, SUFFIX));
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		activePath = path;
+		activeEntries = 0;
+		sizeBytes += segmentSize;
+		log.debug("Started audit journal segment {}", path);
+		return true;
+	}
+
+	// Forces the active segment to disk and trims its unused tail
+	private void seal() throws IOException {
+		int used = active.position();
+		active.force();
+		active = null;
+		// Best effort: platforms that refuse to truncate mapped files keep the tail
+		try (FileChannel channel = FileChannel.open(activePath, StandardOpenOption.WRITE)) {
+			channel.truncate(used);
+			sizeBytes -= segmentSize - used;
+		} catch (IOException e) {
+			log.debug("Cannot trim audit journal segment {}: {}", activePath, e.getMessage());
+		}
+		sealed.add(activePath);
+		activePath = null;
+		activeEntries = 0;
+	}
+
+	private static long sequenceOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+	}
+}
@@ -0,0 +1,158 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+import com.github.sharifrahim.rest.rest.foundation.demo.service.ApiAuditTrailService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves rows from the {@link AuditJournal} into {@code api_audit_trail_tbl}
+ * on a background thread every {@code replay-interval}.
+ *
+ * Segments are replayed oldest first in batches of {@code batch-size} and
+ * deleted once all their rows are stored. Rows already in the table (matched
+ * by correlation ID) are skipped, so a segment interrupted half way, by a
+ * database failure or a restart, can simply be replayed again. When the
+ * database is unavailable the round ends, and the next one starts over from
+ * the same segment. A batch failing for any other reason is saved row by row,
+ * and the rows the database rejects are quarantined: logged and left out, so
+ * they cannot hold up the segments behind them.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class AuditJournalReplayer {
+
+	private final AuditJournal journal;
+	private final ApiAuditTrailService auditService;
+	private final AuditProperties properties;
+
+	private final LongAdder replayed = new LongAdder();
+	private final LongAdder quarantined = new LongAdder();
+	private ScheduledExecutorService scheduler;
+
+	public AuditJournalReplayer(AuditJournal journal, ApiAuditTrailService auditService, AuditProperties properties) {
+		this.journal = journal;
+		this.auditService = auditService;
+		this.properties = properties;
+	}
+
+	/**
+	 * Schedules replay rounds when the journal is enabled.
+	 */
+	@PostConstruct
+	void start() {
+		if (!journal.isEnabled()) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "audit-journal-replayer");
+			t.setDaemon(true);
+			return t;
+		});
+		long interval = properties.getJournal().getReplayInterval().toMillis();
+		scheduler.scheduleWithFixedDelay(this::replay, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Runs one replay round.
+	 *
+	 * @return the number of rows stored during the round
+	 */
+	public long replay() {
+		long stored = 0;
+		for (Path segment : journal.segmentsToReplay()) {
+			try {
+				List<ApiAuditTrail> batch = new ArrayList<>(properties.getBatchSize());
+				long[] segmentStored = { 0 };
+				journal.read(segment, row -> {
+					batch.add(row);
+					if (batch.size() >= properties.getBatchSize()) {
+						segmentStored[0] += save(batch);
+						batch.clear();
+					}
+				});
+				if (!batch.isEmpty()) {
+					segmentStored[0] += save(batch);
+				}
+				journal.delete(segment);
+				stored += segmentStored[0];
+				replayed.add(segmentStored[0]);
+				log.info("Replayed audit journal segment {} ({} row(s) stored)", segment.getFileName(),
+						segmentStored[0]);
+			} catch (Exception e) {
+				log.warn("Audit journal replay paused at segment {}: {}", segment.getFileName(), e.getMessage());
+				break;
+			}
+		}
+		return stored;
+	}
+
+	// Saves a batch, falling back to one row at a time unless the database is
+	// unavailable. Throws to pause the round
+	private int save(List<ApiAuditTrail> batch) {
+		try {
+			return auditService.saveAllAbsent(batch);
+		} catch (RuntimeException e) {
+			if (DatabaseFailures.isTransient(e)) {
+				throw e;
+			}
+			log.warn("Failed to replay {} audit row(s) as a batch, saving them one by one: {}", batch.size(),
+					e.getMessage());
+		}
+		int stored = 0;
+		for (ApiAuditTrail row : batch) {
+			// Drop the ID the failed batch assigned, so the row is inserted anew
+			row.setId(null);
+			try {
+				stored += auditService.saveAllAbsent(List.of(row));
+			} catch (RuntimeException e) {
+				if (DatabaseFailures.isTransient(e)) {
+					throw e;
+				}
+				quarantined.increment();
+				log.error("Quarantined journaled audit row {} for URL [{}], rejected by the database: {}",
+						row.getCorrelationId(), row.getUrl(), e.getMessage());
+			}
+		}
+		return stored;
+	}
+
+	/**
+	 * @return the number of journaled rows the database rejected since startup
+	 */
+	public long getQuarantinedCount() {
+		return quarantined.sum();
+	}
+
+	/**
+	 * @return the number of journaled rows stored since startup
+	 */
+	public long getReplayedCount() {
+		return replayed.sum();
+	}
+}
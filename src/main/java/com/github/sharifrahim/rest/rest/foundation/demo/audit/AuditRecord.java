@@ -0,0 +1,74 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.time.ZonedDateTime;
+
+import org.springframework.http.HttpHeaders;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Raw, unserialized capture of a single REST call. Built on the caller's
+ * thread by {@link com.github.sharifrahim.rest.rest.foundation.demo.helper.RestHelper}
+ * and converted into an
+ * {@link com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail}
+ * by {@link ApiAuditTrailWriter}, so that serialization and sanitization can
+ * happen off the hot path.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+public class AuditRecord {
+
+	// Unique ID used for correlating logs across services
+	private String correlationId;
+
+	// Correlation ID of the related entry this one depends on
+	private String parentCorrelationId;
+
+	// Timestamp of the API call
+	private ZonedDateTime timestamp;
+
+	// HTTP method (GET, POST, etc.)
+	private String method;
+
+	// Full URL of the API call
+	private String url;
+
+	// Request headers as sent
+	private HttpHeaders requestHeaders;
+
+	// Request body as sent
+	private Object requestBody;
+
+	// HTTP response status code
+	private Integer responseStatus;
+
+	// Raw response body, only its leading part for streamed responses
+	private String responseBody;
+
+	// Full size in bytes of a streamed response body that was only partly captured
+	private Long responseBodyLength;
+
+	// Response headers as received
+	private HttpHeaders responseHeaders;
+
+	// Duration of the API call in milliseconds
+	private Integer durationMs;
+
+	// Status of the operation (e.g., SUCCESS, FAILED)
+	private String status;
+
+	// Any error message encountered during the API call
+	private String errorMessage;
+
+	// Target provider, used to tag metrics (not persisted)
+	private Provider provider;
+
+	// Strategy name, used to tag metrics (not persisted)
+	private String strategy;
+}
@@ -0,0 +1,75 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties.Detail;
+
+/**
+ * Decides how much of each call is persisted, based on its outcome, duration
+ * and the {@link AuditProperties.Rule} of its strategy or provider.
+ *
+ * Failed calls and calls slower than the rule's threshold are kept at the
+ * failure detail (full by default). Successful calls get the success detail,
+ * except for a random one in {@code fullSampleOneIn} which is kept in full.
+ * While the write-behind queue backs up, successful calls are degraded by one
+ * level from {@code degradeAt} and dropped entirely from {@code shedAt}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+public class AuditSampler {
+
+	// Audit statuses of calls that delivered a response to the caller. HEDGED
+	// attempts count only when they did not fail themselves
+	private static final Set<String> SUCCESS_STATUSES = Set.of("SUCCESS", "CACHE_HIT", "COALESCED", "HEDGED");
+
+	private final AuditProperties.Sampling properties;
+
+	public AuditSampler(AuditProperties properties) {
+		this.properties = properties.getSampling();
+	}
+
+	/**
+	 * @param record    the call's audit record
+	 * @param queueFill how full the write-behind queue is (0..1)
+	 * @return the detail to persist the call with
+	 */
+	public Detail detailFor(AuditRecord record, double queueFill) {
+		if (!properties.isEnabled()) {
+			return Detail.FULL;
+		}
+		AuditProperties.Rule rule = properties.ruleFor(record.getProvider(), record.getStrategy());
+
+		if (isFailure(record) || isSlow(record, rule)) {
+			return rule.getFailure();
+		}
+		if (queueFill >= properties.getShedAt()) {
+			return Detail.NONE;
+		}
+		if (queueFill >= properties.getDegradeAt()) {
+			return rule.getSuccess() == Detail.FULL ? Detail.METADATA : Detail.NONE;
+		}
+		int oneIn = rule.getFullSampleOneIn();
+		if (oneIn > 1 && ThreadLocalRandom.current().nextInt(oneIn) == 0) {
+			return Detail.FULL;
+		}
+		return rule.getSuccess();
+	}
+
+	private static boolean isFailure(AuditRecord record) {
+		return !SUCCESS_STATUSES.contains(record.getStatus())
+				|| "HEDGED".equals(record.getStatus()) && record.getErrorMessage() != null;
+	}
+
+	private boolean isSlow(AuditRecord record, AuditProperties.Rule rule) {
+		return rule.getSlowCallThreshold() != null && record.getDurationMs() != null
+				&& record.getDurationMs() >= rule.getSlowCallThreshold().toMillis();
+	}
+}
@@ -0,0 +1,231 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializes request/response data for the audit trail, masking sensitive
+ * data before the result is persisted.
+ *
+ * Payloads are copied once as a Jackson token stream into the output. Values
+ * of sensitive keys are replaced at any depth and string values matching the
+ * configured patterns are masked. Output past the configured size cap is not
+ * kept, only counted and hashed, so truncated bodies still record their full
+ * size and SHA-256. No intermediate maps or trees are built.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class AuditSanitizer {
+
+	static final String TRUNCATED_MARKER = "...[truncated]";
+
+	private final JsonHelper jsonHelper;
+	private final JsonFactory factory;
+	private final CaseInsensitiveKeySet sensitiveKeys;
+	private final List<Pattern> valuePatterns;
+	private final String mask;
+	private final int maxChars;
+
+	public AuditSanitizer(JsonHelper jsonHelper, AuditProperties properties) {
+		AuditProperties.Sanitizer config = properties.getSanitizer();
+		this.jsonHelper = jsonHelper;
+		this.factory = jsonHelper.getMapper().getFactory();
+		this.sensitiveKeys = new CaseInsensitiveKeySet(config.getSensitiveKeys());
+		this.valuePatterns = config.getValuePatterns().stream().map(Pattern::compile).collect(Collectors.toList());
+		this.mask = config.getMask();
+		this.maxChars = config.getMaxChars();
+	}
+
+	/**
+	 * Serializes and sanitizes an object (headers, DTO or map) to JSON.
+	 *
+	 * @param o the object to serialize
+	 * @return the sanitized JSON, or {@code "{}"} if serialization fails
+	 */
+	public String toJson(Object o) {
+		return toJsonBody(o).getText();
+	}
+
+	/**
+	 * Serializes and sanitizes an object like {@link #toJson(Object)}, keeping
+	 * the full size and hash if the result had to be truncated.
+	 *
+	 * @param o the object to serialize
+	 * @return the sanitized body
+	 */
+	public AuditBody toJsonBody(Object o) {
+		if (o == null) {
+			return AuditBody.of("null");
+		}
+		try {
+			TokenBuffer buffer = new TokenBuffer(jsonHelper.getMapper(), false);
+			jsonHelper.writerFor(o.getClass()).writeValue(buffer, o);
+			try (JsonParser parser = buffer.asParser()) {
+				return copyMasked(parser, false);
+			}
+		} catch (Exception e) {
+			log.warn("Failed to convert object to JSON", e);
+			return AuditBody.of("{}");
+		}
+	}
+
+	/**
+	 * Sanitizes a raw response body. JSON is masked as it is parsed; anything
+	 * else only has value patterns applied. The result is capped in size.
+	 *
+	 * @param body the raw response body
+	 * @return the sanitized body
+	 */
+	public String sanitizeBody(String body) {
+		AuditBody sanitized = sanitizeBodyCapped(body);
+		return sanitized == null ? null : sanitized.getText();
+	}
+
+	/**
+	 * Sanitizes a raw response body like {@link #sanitizeBody(String)}, keeping
+	 * the full size and hash if the result had to be truncated.
+	 *
+	 * @param body the raw response body
+	 * @return the sanitized body, or null if there was none
+	 */
+	public AuditBody sanitizeBodyCapped(String body) {
+		if (body == null) {
+			return null;
+		}
+		if (startsLikeJson(body)) {
+			try (JsonParser parser = factory.createParser(body)) {
+				return copyMasked(parser, false);
+			} catch (IOException e) {
+				log.debug("Response body is not valid JSON, storing as text: {}", e.getMessage());
+			}
+		}
+		return cap(maskValue(body));
+	}
+
+	/**
+	 * Sanitizes the leading part of a streamed response body, which may end in
+	 * the middle of a JSON value. Tokens are masked up to the last complete one;
+	 * a value cut short is left out rather than stored unmasked.
+	 *
+	 * @param prefix         the captured leading part of the body
+	 * @param originalLength the full size of the body in bytes
+	 * @return the sanitized, truncated body
+	 */
+	public AuditBody sanitizeBodyPrefix(String prefix, long originalLength) {
+		AuditBody kept = null;
+		if (startsLikeJson(prefix)) {
+			try (JsonParser parser = factory.createParser(prefix)) {
+				kept = copyMasked(parser, true);
+			} catch (IOException e) {
+				log.debug("Response body prefix is not valid JSON, storing as text: {}", e.getMessage());
+			}
+		}
+		if (kept == null) {
+			kept = cap(maskValue(prefix));
+		}
+		String text = kept.isTruncated() ? kept.getText() : kept.getText() + TRUNCATED_MARKER;
+		return new AuditBody(text, originalLength, null);
+	}
+
+	// Copies every token from the parser to a generator, masking on the way. A
+	// partial document stops quietly at the first token it cuts short.
+	private AuditBody copyMasked(JsonParser parser, boolean partial) throws IOException {
+		CappedWriter out = new CappedWriter(maxChars);
+
+		try (JsonGenerator gen = factory.createGenerator(out)) {
+			if (partial) {
+				gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+			}
+			try {
+				copyMaskedTokens(parser, gen);
+			} catch (JsonEOFException e) {
+				if (!partial) {
+					throw e;
+				}
+			}
+		}
+
+		return out.toBody();
+	}
+
+	private void copyMaskedTokens(JsonParser parser, JsonGenerator gen) throws IOException {
+		JsonToken token;
+		while ((token = parser.nextToken()) != null) {
+			if (token == JsonToken.FIELD_NAME) {
+				String name = parser.currentName();
+				gen.writeFieldName(name);
+				if (sensitiveKeys.contains(name)) {
+					writeMask(parser.nextToken(), gen);
+					parser.skipChildren();
+				}
+			} else if (token == JsonToken.VALUE_STRING && !valuePatterns.isEmpty()) {
+				gen.writeString(maskValue(parser.getText()));
+			} else {
+				gen.copyCurrentEvent(parser);
+			}
+		}
+	}
+
+	// Replaces a value, keeping arrays (e.g. header values) array-shaped
+	private void writeMask(JsonToken value, JsonGenerator gen) throws IOException {
+		if (value == JsonToken.START_ARRAY) {
+			gen.writeStartArray();
+			gen.writeString(mask);
+			gen.writeEndArray();
+		} else {
+			gen.writeString(mask);
+		}
+	}
+
+	// Applies configured value patterns; allocates only when something matches
+	private String maskValue(String value) {
+		String result = value;
+		for (Pattern pattern : valuePatterns) {
+			Matcher matcher = pattern.matcher(result);
+			if (matcher.find()) {
+				result = matcher.replaceAll(mask);
+			}
+		}
+		return result;
+	}
+
+	private AuditBody cap(String value) {
+		if (value.length() <= maxChars) {
+			return AuditBody.of(value);
+		}
+		CappedWriter out = new CappedWriter(maxChars);
+		out.write(value, 0, value.length());
+		return out.toBody();
+	}
+
+	private boolean startsLikeJson(String body) {
+		for (int i = 0; i < body.length(); i++) {
+			char c = body.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				return c == '{' || c == '[';
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,150 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Writer keeping only the first {@code maxChars} characters written to it.
+ * Once that is exceeded it keeps counting and hashes everything written (as
+ * UTF-8, in a single pass) so the full size and SHA-256 of the output are
+ * known without holding it. Output that stays within the cap is never hashed.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+final class CappedWriter extends Writer {
+
+	private final int maxChars;
+	private final StringBuilder text;
+	private long length;
+
+	// Created when the cap is first exceeded
+	private MessageDigest digest;
+	private final byte[] utf8 = new byte[4096];
+	private int utf8Length;
+
+	// High surrogate held back until its pair arrives in the next chunk
+	private char pendingHigh;
+
+	CappedWriter(int maxChars) {
+		this.maxChars = maxChars;
+		this.text = new StringBuilder(Math.min(maxChars, 1024));
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) {
+		int kept = Math.max(0, Math.min(len, maxChars - text.length()));
+		text.append(cbuf, off, kept);
+		length += len;
+		if (kept == len) {
+			return;
+		}
+		if (digest == null) {
+			digest = sha256();
+			hash(text, 0, text.length());
+		}
+		hash(CharBuffer.wrap(cbuf, off + kept, len - kept), 0, len - kept);
+	}
+
+	@Override
+	public void write(String str, int off, int len) {
+		int kept = Math.max(0, Math.min(len, maxChars - text.length()));
+		text.append(str, off, off + kept);
+		length += len;
+		if (kept == len) {
+			return;
+		}
+		if (digest == null) {
+			digest = sha256();
+			hash(text, 0, text.length());
+		}
+		hash(str, off + kept, off + len);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * @return the kept text, marked and accompanied by size and hash if the cap
+	 *         was exceeded
+	 */
+	AuditBody toBody() {
+		if (digest == null) {
+			return AuditBody.of(text.toString());
+		}
+		if (pendingHigh != 0) {
+			put((byte) '?');
+			pendingHigh = 0;
+		}
+		digest.update(utf8, 0, utf8Length);
+		utf8Length = 0;
+		return new AuditBody(text + AuditSanitizer.TRUNCATED_MARKER, length, HexFormat.of().formatHex(digest.digest()));
+	}
+
+	// UTF-8 encodes into the digest; unpaired surrogates become '?' like String.getBytes
+	private void hash(CharSequence chars, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = chars.charAt(i);
+			if (pendingHigh != 0) {
+				char high = pendingHigh;
+				pendingHigh = 0;
+				if (Character.isLowSurrogate(c)) {
+					putCodePoint(Character.toCodePoint(high, c));
+					continue;
+				}
+				put((byte) '?');
+			}
+			if (Character.isHighSurrogate(c)) {
+				pendingHigh = c;
+			} else if (Character.isLowSurrogate(c)) {
+				put((byte) '?');
+			} else {
+				putCodePoint(c);
+			}
+		}
+	}
+
+	private void putCodePoint(int cp) {
+		if (cp < 0x80) {
+			put((byte) cp);
+		} else if (cp < 0x800) {
+			put((byte) (0xC0 | (cp >> 6)));
+			put((byte) (0x80 | (cp & 0x3F)));
+		} else if (cp < 0x10000) {
+			put((byte) (0xE0 | (cp >> 12)));
+			put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+			put((byte) (0x80 | (cp & 0x3F)));
+		} else {
+			put((byte) (0xF0 | (cp >> 18)));
+			put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+			put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+			put((byte) (0x80 | (cp & 0x3F)));
+		}
+	}
+
+	private void put(byte b) {
+		if (utf8Length == utf8.length) {
+			digest.update(utf8, 0, utf8Length);
+			utf8Length = 0;
+		}
+		utf8[utf8Length++] = b;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable set of keys with case-insensitive, allocation-free lookup. Hashes
+ * are computed over lower-cased characters, so probing does not need to build a
+ * lower-cased copy of the key being checked.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+final class CaseInsensitiveKeySet {
+
+	private final String[][] buckets;
+	private final int mask;
+
+	CaseInsensitiveKeySet(Collection<String> keys) {
+		int size = Integer.highestOneBit(Math.max(1, keys.size()) * 4 - 1) << 1;
+		List<List<String>> staging = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			staging.add(new ArrayList<>(1));
+		}
+
+		mask = size - 1;
+		for (String key : keys) {
+			String lower = key.toLowerCase(Locale.ROOT);
+			List<String> bucket = staging.get(hash(lower) & mask);
+			if (!bucket.contains(lower)) {
+				bucket.add(lower);
+			}
+		}
+
+		buckets = new String[size][];
+		for (int i = 0; i < size; i++) {
+			List<String> bucket = staging.get(i);
+			buckets[i] = bucket.isEmpty() ? null : bucket.toArray(new String[0]);
+		}
+	}
+
+	/**
+	 * @param key the key to look up
+	 * @return true if the set contains the key, ignoring case
+	 */
+	boolean contains(String key) {
+		if (key == null) {
+			return false;
+		}
+		String[] bucket = buckets[hash(key) & mask];
+		if (bucket == null) {
+			return false;
+		}
+		for (String candidate : bucket) {
+			if (candidate.length() == key.length() && candidate.regionMatches(true, 0, key, 0, key.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Hash over lower-cased characters, spread so the low bits are usable
+	private static int hash(String key) {
+		int h = 0;
+		for (int i = 0; i < key.length(); i++) {
+			h = 31 * h + Character.toLowerCase(key.charAt(i));
+		}
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Tells failures worth waiting out (the database is down, unreachable or
+ * briefly overloaded) from failures of the rows themselves, such as a
+ * constraint violation or an oversized column, which fail again however often
+ * they are retried.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+final class DatabaseFailures {
+
+	private DatabaseFailures() {
+	}
+
+	/**
+	 * @param e a failure to persist audit rows
+	 * @return true if the same rows may well be stored once the database
+	 *         recovers
+	 */
+	static boolean isTransient(Throwable e) {
+		for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+			if (t instanceof TransientDataAccessException || t instanceof RecoverableDataAccessException
+					|| t instanceof DataAccessResourceFailureException
+					|| t instanceof CannotCreateTransactionException || t instanceof SQLTransientException
+					|| t instanceof SQLRecoverableException || t instanceof SQLNonTransientConnectionException) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
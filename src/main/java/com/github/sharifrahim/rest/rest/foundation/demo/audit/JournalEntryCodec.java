@@ -0,0 +1,131 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+/**
+ * Binary form of a sanitized {@link ApiAuditTrail} as stored in the
+ * {@link AuditJournal}. Fields are written in a fixed order, strings and byte
+ * arrays as a length (-1 for null) followed by their bytes, so no Jackson
+ * modules or reflection are involved.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+final class JournalEntryCodec {
+
+	private static final byte VERSION = 1;
+
+	private JournalEntryCodec() {
+	}
+
+	static byte[] encode(ApiAuditTrail row) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(VERSION);
+			writeString(out, row.getCorrelationId());
+			writeString(out, row.getParentCorrelationId());
+			writeString(out, row.getTimestamp() == null ? null : row.getTimestamp().toString());
+			writeString(out, row.getMethod());
+			writeString(out, row.getUrl());
+			writeString(out, row.getRequestHeaders());
+			writeString(out, row.getRequestBody());
+			writeBytes(out, row.getRequestBodyCompressed());
+			writeLong(out, row.getRequestBodyOriginalLength());
+			writeString(out, row.getRequestBodySha256());
+			writeLong(out, row.getResponseStatus() == null ? null : row.getResponseStatus().longValue());
+			writeString(out, row.getResponseBody());
+			writeBytes(out, row.getResponseBodyCompressed());
+			writeLong(out, row.getResponseBodyOriginalLength());
+			writeString(out, row.getResponseBodySha256());
+			writeString(out, row.getResponseHeaders());
+			writeLong(out, row.getDurationMs() == null ? null : row.getDurationMs().longValue());
+			writeString(out, row.getStatus());
+			writeString(out, row.getErrorMessage());
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			// Writing to memory does not fail
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static ApiAuditTrail decode(ByteBuffer in) {
+		byte version = in.get();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported journal entry version " + version);
+		}
+		ApiAuditTrail row = new ApiAuditTrail();
+		row.setCorrelationId(readString(in));
+		row.setParentCorrelationId(readString(in));
+		String timestamp = readString(in);
+		row.setTimestamp(timestamp == null ? null : ZonedDateTime.parse(timestamp));
+		row.setMethod(readString(in));
+		row.setUrl(readString(in));
+		row.setRequestHeaders(readString(in));
+		row.setRequestBody(readString(in));
+		row.setRequestBodyCompressed(readBytes(in));
+		row.setRequestBodyOriginalLength(readLong(in));
+		row.setRequestBodySha256(readString(in));
+		Long status = readLong(in);
+		row.setResponseStatus(status == null ? null : status.intValue());
+		row.setResponseBody(readString(in));
+		row.setResponseBodyCompressed(readBytes(in));
+		row.setResponseBodyOriginalLength(readLong(in));
+		row.setResponseBodySha256(readString(in));
+		row.setResponseHeaders(readString(in));
+		Long duration = readLong(in);
+		row.setDurationMs(duration == null ? null : duration.intValue());
+		row.setStatus(readString(in));
+		row.setErrorMessage(readString(in));
+		return row;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(value.length);
+			out.write(value);
+		}
+	}
+
+	private static void writeLong(DataOutputStream out, Long value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeLong(value);
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = readBytes(in);
+		return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static byte[] readBytes(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return bytes;
+	}
+
+	private static Long readLong(ByteBuffer in) {
+		return in.get() != 0 ? in.getLong() : null;
+	}
+}
@@ -0,0 +1,213 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CacheProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, size-aware LRU cache of raw response bodies for strategies that
+ * declare a cache TTL.
+ *
+ * Entries are keyed by the request key built in
+ * {@link com.github.sharifrahim.rest.rest.foundation.demo.helper.RestHelper}
+ * (HTTP method, full URL including the provider's base URL, response type and
+ * canonical JSON of the request body). Raw bodies rather than
+ * deserialized objects are cached, so callers never share mutable DTOs. The
+ * least recently used entries are evicted once either the entry or byte limit
+ * is exceeded; expired entries are dropped when they are looked up.
+ *
+ * Published metrics:
+ * <ul>
+ * <li>{@code rest.cache.hits} and {@code rest.cache.misses} (lookups)</li>
+ * <li>{@code rest.cache.evictions} (entries dropped for the entry or byte
+ * limit) and {@code rest.cache.expirations} (expired entries dropped)</li>
+ * <li>{@code rest.cache.size} and {@code rest.cache.bytes} (current
+ * contents)</li>
+ * </ul>
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class ResponseCache implements MeterBinder {
+
+	private final CacheProperties properties;
+
+	// Access-ordered, so iteration starts at the least recently used entry
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	public ResponseCache(CacheProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * @return true if caching is switched on
+	 */
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	/**
+	 * Returns the cached body for a key, if present and not expired.
+	 *
+	 * @param key the cache key
+	 * @return the cached response body, or null
+	 */
+	public String get(String key) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+			if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+				remove(key, entry);
+				expirations.increment();
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			return entry.body;
+		}
+	}
+
+	/**
+	 * Caches a response body.
+	 *
+	 * @param key  the cache key
+	 * @param body the raw response body
+	 * @param ttl  how long the body stays valid
+	 */
+	public void put(String key, String body, Duration ttl) {
+		long size = sizeOf(key, body);
+		if (size > properties.getMaxBytes()) {
+			log.debug("Response for [{}] too large to cache ({} bytes)", key, size);
+			return;
+		}
+
+		Entry entry = new Entry(body, size, System.nanoTime() + ttl.toNanos());
+		synchronized (entries) {
+			Entry previous = entries.put(key, entry);
+			if (previous != null) {
+				bytes -= previous.size;
+			}
+			bytes += size;
+			evictIfNeeded();
+		}
+	}
+
+	/**
+	 * Removes every cached response.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			bytes = 0;
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getExpirationCount() {
+		return expirations.sum();
+	}
+
+	public int getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public long getBytes() {
+		synchronized (entries) {
+			return bytes;
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("rest.cache.hits", this, ResponseCache::getHitCount)
+				.description("Lookups served from the response cache")
+				.register(registry);
+		FunctionCounter.builder("rest.cache.misses", this, ResponseCache::getMissCount)
+				.description("Lookups not found in the response cache, or expired")
+				.register(registry);
+		FunctionCounter.builder("rest.cache.evictions", this, ResponseCache::getEvictionCount)
+				.description("Entries evicted to respect the entry or byte limit")
+				.register(registry);
+		FunctionCounter.builder("rest.cache.expirations", this, ResponseCache::getExpirationCount)
+				.description("Expired entries dropped on lookup")
+				.register(registry);
+		Gauge.builder("rest.cache.size", this, ResponseCache::getSize)
+				.description("Cached responses")
+				.register(registry);
+		Gauge.builder("rest.cache.bytes", this, ResponseCache::getBytes)
+				.description("Approximate size of the cached responses, in bytes")
+				.register(registry);
+	}
+
+	// Drops least recently used entries until both limits are respected
+	private void evictIfNeeded() {
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while ((entries.size() > properties.getMaxEntries() || bytes > properties.getMaxBytes()) && it.hasNext()) {
+			Entry eldest = it.next().getValue();
+			it.remove();
+			bytes -= eldest.size;
+			evictions.increment();
+		}
+	}
+
+	private void remove(String key, Entry entry) {
+		entries.remove(key);
+		bytes -= entry.size;
+	}
+
+	// Approximate heap footprint of the cached strings
+	private static long sizeOf(String key, String body) {
+		return 2L * (key.length() + (body == null ? 0 : body.length()));
+	}
+
+	private static final class Entry {
+
+		private final String body;
+		private final long size;
+		private final long expiresAtNanos;
+
+		private Entry(String body, long size, long expiresAtNanos) {
+			this.body = body;
+			this.size = size;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+}
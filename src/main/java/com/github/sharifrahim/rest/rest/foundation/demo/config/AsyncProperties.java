@@ -0,0 +1,25 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for the executor behind the asynchronous REST helpers, bound
+ * from {@code rest.async.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.async")
+public class AsyncProperties {
+
+	// Run each asynchronous call on its own virtual thread
+	private boolean virtualThreads = true;
+
+	// Size of the platform thread pool used when virtual threads are disabled
+	private int poolSize = 50;
+}
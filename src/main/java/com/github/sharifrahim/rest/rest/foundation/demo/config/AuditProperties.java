@@ -0,0 +1,241 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Configuration for the API audit trail pipeline, bound from
+ * {@code rest.audit.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.audit")
+public class AuditProperties {
+
+	/**
+	 * How audit records are persisted.
+	 */
+	public enum Mode {
+		// Persist on the caller's thread (original behaviour)
+		SYNC,
+		// Queue records and persist them in batches on background writers
+		ASYNC
+	}
+
+	/**
+	 * What to do when the write-behind queue is full.
+	 */
+	public enum OverflowPolicy {
+		// Wait for space in the queue
+		BLOCK,
+		// Discard the record and count it
+		DROP,
+		// Persist the record on the caller's thread
+		SYNC_FALLBACK,
+		// Append the record to the disk journal, replayed once the database catches up
+		SPILL
+	}
+
+	/**
+	 * How much of a call is persisted.
+	 */
+	public enum Detail {
+		// Headers and bodies included
+		FULL,
+		// Everything except headers and bodies
+		METADATA,
+		// Nothing; the call only shows up in metrics
+		NONE
+	}
+
+	// Persistence mode
+	private Mode mode = Mode.SYNC;
+
+	// Maximum number of records waiting to be written
+	private int queueCapacity = 10_000;
+
+	// Maximum number of rows per JDBC batch
+	private int batchSize = 50;
+
+	// Maximum time a record waits for its batch to fill up
+	private Duration flushInterval = Duration.ofMillis(200);
+
+	// Number of background writer threads
+	private int writerThreads = 1;
+
+	// Behaviour when the queue is full
+	private OverflowPolicy overflowPolicy = OverflowPolicy.SYNC_FALLBACK;
+
+	// Maximum time to wait for queued records to be flushed on shutdown
+	private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+	// Masking applied to headers and bodies before they are persisted
+	private Sanitizer sanitizer = new Sanitizer();
+
+	// How request and response bodies are stored
+	private Storage storage = new Storage();
+
+	// Which calls are persisted and in how much detail
+	private Sampling sampling = new Sampling();
+
+	// Local journal holding records the database could not take in time
+	private Journal journal = new Journal();
+
+	// Limits applied when reading the audit trail back
+	private Query query = new Query();
+
+	/**
+	 * Settings for {@code AuditSanitizer}.
+	 */
+	@Data
+	public static class Sanitizer {
+
+		// Keys whose values are masked at any depth, matched case-insensitively
+		private List<String> sensitiveKeys = new ArrayList<>(
+				List.of("password", "token", "secret", "authorization", "apiKey"));
+
+		// Regular expressions masked inside any string value (e.g. card numbers)
+		private List<String> valuePatterns = new ArrayList<>();
+
+		// Replacement written in place of masked values
+		private String mask = "***";
+
+		// Maximum number of characters stored per serialized field
+		private int maxChars = 64 * 1024;
+	}
+
+	/**
+	 * Settings for {@code AuditBodyCodec}.
+	 */
+	@Data
+	public static class Storage {
+
+		/**
+		 * Encoding of large bodies.
+		 */
+		public enum Compression {
+			// Store every body as text
+			NONE,
+			// Deflate large bodies into a binary column
+			DEFLATE
+		}
+
+		// Encoding applied to bodies at or above the threshold
+		private Compression compression = Compression.NONE;
+
+		// Bodies shorter than this many characters are always stored as text
+		private int compressThreshold = 2048;
+
+		// Deflate level, 1 (fastest) to 9 (smallest)
+		private int compressionLevel = 6;
+	}
+
+	/**
+	 * Settings for {@code AuditSampler}. Strategies without an entry under
+	 * {@code strategies} use their provider's entry under {@code providers},
+	 * and failing that {@code defaults}.
+	 */
+	@Data
+	public static class Sampling {
+
+		// Master switch; when off every call is persisted in full
+		private boolean enabled = false;
+
+		// Rule used by strategies and providers without their own entry
+		private Rule defaults = new Rule();
+
+		// Provider specific rules
+		private Map<Provider, Rule> providers = new EnumMap<>(Provider.class);
+
+		// Strategy specific rules, keyed by strategy name
+		private Map<String, Rule> strategies = new HashMap<>();
+
+		// Queue fill ratio (0..1) from which successful calls drop one detail level
+		private double degradeAt = 0.5;
+
+		// Queue fill ratio (0..1) from which successful calls are not persisted
+		private double shedAt = 0.9;
+
+		/**
+		 * @param provider the call's provider, may be null
+		 * @param strategy the call's strategy name, may be null
+		 * @return the most specific rule for the call
+		 */
+		public Rule ruleFor(Provider provider, String strategy) {
+			Rule rule = strategy == null ? null : strategies.get(strategy);
+			if (rule == null && provider != null) {
+				rule = providers.get(provider);
+			}
+			return rule == null ? defaults : rule;
+		}
+	}
+
+	/**
+	 * Audit detail for one group of calls.
+	 */
+	@Data
+	public static class Rule {
+
+		// Detail persisted for successful calls
+		private Detail success = Detail.FULL;
+
+		// One in this many successful calls is persisted in full anyway (0 or 1 disables)
+		private int fullSampleOneIn = 0;
+
+		// Detail persisted for failed, rejected and retried calls
+		private Detail failure = Detail.FULL;
+
+		// Calls taking at least this long are persisted in full (unset disables)
+		private Duration slowCallThreshold;
+	}
+
+	/**
+	 * Settings for {@code AuditJournal} and {@code AuditJournalReplayer}.
+	 */
+	@Data
+	public static class Journal {
+
+		// Spill records to the journal instead of losing them
+		private boolean enabled = false;
+
+		// Directory holding the journal segments
+		private String directory = "audit-journal";
+
+		// Size of each memory-mapped segment file
+		private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+		// Disk space the journal may use; records are dropped beyond it
+		private DataSize maxSize = DataSize.ofGigabytes(1);
+
+		// How often the replayer tries to move journaled records to the database
+		private Duration replayInterval = Duration.ofSeconds(5);
+	}
+
+	/**
+	 * Settings for audit trail queries.
+	 */
+	@Data
+	public static class Query {
+
+		// Largest page returned by a single keyset page request
+		private int maxPageSize = 500;
+
+		// Rows fetched per database round trip when streaming
+		private int fetchSize = 500;
+	}
+}
@@ -0,0 +1,28 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for the response cache used by cacheable strategies, bound
+ * from {@code rest.cache.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.cache")
+public class CacheProperties {
+
+	// Master switch; when off, cache TTLs declared by strategies are ignored
+	private boolean enabled = true;
+
+	// Maximum number of cached responses
+	private int maxEntries = 10_000;
+
+	// Maximum total size of cached response bodies, in bytes
+	private long maxBytes = 64L * 1024 * 1024;
+}
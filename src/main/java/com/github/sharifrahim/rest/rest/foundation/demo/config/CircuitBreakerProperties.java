@@ -0,0 +1,71 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Configuration for the per-provider circuit breakers, bound from
+ * {@code rest.circuit-breaker.*} in {@code application.properties}.
+ * Providers without an entry under {@code providers} use {@code defaults}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.circuit-breaker")
+public class CircuitBreakerProperties {
+
+	// Master switch for circuit breaking
+	private boolean enabled = true;
+
+	// Settings used by providers without their own entry
+	private Settings defaults = new Settings();
+
+	// Provider specific settings
+	private Map<Provider, Settings> providers = new EnumMap<>(Provider.class);
+
+	/**
+	 * Settings for a single circuit breaker.
+	 */
+	@Data
+	public static class Settings {
+
+		// Number of most recent calls the failure and slow-call rates are computed over
+		private int windowSize = 100;
+
+		// Minimum number of recorded calls before the rates are evaluated
+		private int minimumCalls = 20;
+
+		// Failure percentage at or above which the circuit opens
+		private int failureRateThreshold = 50;
+
+		// Slow-call percentage at or above which the circuit opens
+		private int slowCallRateThreshold = 80;
+
+		// Calls taking at least this long count as slow
+		private Duration slowCallDuration = Duration.ofSeconds(5);
+
+		// How long the circuit stays open before probing
+		private Duration openDuration = Duration.ofSeconds(30);
+
+		// Number of probe calls allowed while half-open
+		private int halfOpenCalls = 5;
+	}
+
+	/**
+	 * @param provider the provider enum
+	 * @return the provider's settings, or the defaults
+	 */
+	public Settings settingsFor(Provider provider) {
+		return providers.getOrDefault(provider, defaults);
+	}
+}
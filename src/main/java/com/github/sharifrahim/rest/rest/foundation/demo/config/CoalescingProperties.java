@@ -0,0 +1,28 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for coalescing identical in-flight requests, bound from
+ * {@code rest.coalescing.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.coalescing")
+public class CoalescingProperties {
+
+	// Coalesce identical in-flight requests of idempotent strategies
+	private boolean enabled = true;
+
+	// Longest a caller waits for an identical request, at least the exchange's
+	// connection request, connect and read timeouts together
+	private Duration maxWait = Duration.ofSeconds(13);
+}
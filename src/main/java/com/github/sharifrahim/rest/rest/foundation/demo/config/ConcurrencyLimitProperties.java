@@ -0,0 +1,74 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Configuration for the per-provider adaptive concurrency limiters, bound from
+ * {@code rest.concurrency-limit.*} in {@code application.properties}.
+ * Providers without an entry under {@code providers} use {@code defaults}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+	// Master switch for adaptive concurrency limiting
+	private boolean enabled = true;
+
+	// Settings used by providers without their own entry
+	private Settings defaults = new Settings();
+
+	// Provider specific settings
+	private Map<Provider, Settings> providers = new EnumMap<>(Provider.class);
+
+	/**
+	 * Settings for a single concurrency limiter.
+	 */
+	@Data
+	public static class Settings {
+
+		// Limit used until enough latency samples have been observed
+		private int initialLimit = 20;
+
+		// Lower bound of the adaptive limit
+		private int minLimit = 2;
+
+		// Upper bound of the adaptive limit
+		private int maxLimit = 200;
+
+		// How long a call may wait for a free slot before it is rejected (0 rejects at once)
+		private Duration maxQueueWait = Duration.ofMillis(50);
+
+		// Latency increase over the baseline tolerated before the limit shrinks
+		private double rttTolerance = 1.5;
+
+		// Weight given to each new limit estimate (0..1)
+		private double smoothing = 0.2;
+
+		// Number of samples the long-term (baseline) latency average spans
+		private int baselineWindow = 600;
+
+		// Factor the limit is multiplied by when the provider signals overload
+		private double backoffRatio = 0.9;
+	}
+
+	/**
+	 * @param provider the provider enum
+	 * @return the provider's settings, or the defaults
+	 */
+	public Settings settingsFor(Provider provider) {
+		return providers.getOrDefault(provider, defaults);
+	}
+}
@@ -0,0 +1,31 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for the REST pipeline metrics, bound from
+ * {@code rest.metrics.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.metrics")
+public class MetricsProperties {
+
+	// Master switch for the per-phase timers and payload counters
+	private boolean enabled = true;
+
+	// Client-side percentiles published for every timer
+	private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99, 0.999));
+
+	// Publish histogram buckets as well, for server-side percentile aggregation
+	private boolean percentileHistogram = false;
+}
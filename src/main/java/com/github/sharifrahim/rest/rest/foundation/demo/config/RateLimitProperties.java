@@ -0,0 +1,65 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Configuration for the outbound token-bucket rate limiters, bound from
+ * {@code rest.rate-limit.*} in {@code application.properties}. Providers
+ * without an entry under {@code providers} use {@code defaults}; entries under
+ * {@code strategies}, keyed by strategy name, add a further limit for that
+ * strategy alone. A rate of 0 means no limit.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.rate-limit")
+public class RateLimitProperties {
+
+	// Master switch for outbound rate limiting
+	private boolean enabled = true;
+
+	// Settings used by providers without their own entry
+	private Settings defaults = new Settings();
+
+	// Provider specific settings
+	private Map<Provider, Settings> providers = new EnumMap<>(Provider.class);
+
+	// Strategy specific settings, applied on top of the provider's
+	private Map<String, Settings> strategies = new HashMap<>();
+
+	/**
+	 * Settings for a single rate limiter.
+	 */
+	@Data
+	public static class Settings {
+
+		// Sustained request rate allowed (0 for no limit)
+		private double permitsPerSecond = 0;
+
+		// Requests that may be sent back to back after an idle period
+		private int burst = 1;
+
+		// How long a call may wait for a permit before it is rejected (0 rejects at once)
+		private Duration maxWait = Duration.ZERO;
+	}
+
+	/**
+	 * @param provider the provider enum
+	 * @return the provider's settings, or the defaults
+	 */
+	public Settings settingsFor(Provider provider) {
+		return providers.getOrDefault(provider, defaults);
+	}
+}
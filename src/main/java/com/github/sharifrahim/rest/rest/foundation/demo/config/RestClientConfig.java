@@ -0,0 +1,192 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.RequestCancellation;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Builds the {@code plainRestTemplate} used by
+ * {@link com.github.sharifrahim.rest.rest.foundation.demo.helper.RestHelper}.
+ *
+ * By default requests go through a pooled Apache HttpClient with per-provider
+ * connection limits, keep-alive and idle eviction. When
+ * {@code rest.client.http2=true} the JDK {@link HttpClient} is used instead,
+ * which negotiates HTTP/2 and multiplexes requests over a single connection
+ * per host (pool limits do not apply in that mode).
+ *
+ * Providers on the {@link RestClientProperties.Engine#REACTIVE reactive engine}
+ * go through {@code reactiveWebClient} instead: Reactor Netty on a small event
+ * loop, with its own connection pool sized and timed out like the blocking
+ * one.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Configuration
+@Slf4j
+public class RestClientConfig {
+
+	/**
+	 * Pooled connection manager shared by every outbound call.
+	 */
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager restConnectionManager(RestClientProperties properties) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(properties.getMaxTotal())
+				.setMaxConnPerRoute(properties.getMaxPerRoute())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+						.setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+						.setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+						.build())
+				.build();
+
+		properties.getProviders().forEach((provider, providerProperties) -> {
+			HttpRoute route = toRoute(provider, providerProperties.getBaseUrl());
+			connectionManager.setMaxPerRoute(route, providerProperties.getMaxConnections());
+			log.info("Connection pool for {} ({}) limited to {} connections", provider, route.getTargetHost(),
+					providerProperties.getMaxConnections());
+		});
+
+		return connectionManager;
+	}
+
+	/**
+	 * Apache HttpClient on top of the pooled connection manager.
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient restHttpClient(PoolingHttpClientConnectionManager restConnectionManager,
+			RestClientProperties properties) {
+		return HttpClients.custom()
+				.setConnectionManager(restConnectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+						.setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+						.setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+						.build())
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.of(properties.getIdleEviction()))
+				.build();
+	}
+
+	/**
+	 * Request factory selected by {@code rest.client.http2}.
+	 */
+	@Bean
+	public ClientHttpRequestFactory restRequestFactory(CloseableHttpClient restHttpClient,
+			RestClientProperties properties) {
+		if (properties.isHttp2()) {
+			log.info("Using JDK HTTP/2 client for outbound REST calls");
+			HttpClient httpClient = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_2)
+					.connectTimeout(properties.getConnectTimeout())
+					.build();
+			JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+			factory.setReadTimeout(properties.getReadTimeout());
+			return factory;
+		}
+
+		log.info("Using pooled HttpClient for outbound REST calls (max total {}, default per route {})",
+				properties.getMaxTotal(), properties.getMaxPerRoute());
+		return new HttpComponentsClientHttpRequestFactory(restHttpClient) {
+
+			// Lets a cancelled hedged attempt abort its request and free the
+			// pooled connection, which interrupting its thread does not do
+			@Override
+			protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+				ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+				if (request instanceof Cancellable cancellable) {
+					RequestCancellation.onRequest(cancellable::cancel);
+				}
+				return request;
+			}
+		};
+	}
+
+	/**
+	 * RestTemplate injected into {@code RestHelper}.
+	 */
+	@Bean
+	public RestTemplate plainRestTemplate(ClientHttpRequestFactory restRequestFactory) {
+		return new RestTemplate(restRequestFactory);
+	}
+
+	/**
+	 * Reactor Netty connection pool for the reactive engine, with the same
+	 * per-provider limits as the blocking pool.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider reactiveConnectionProvider(RestClientProperties properties) {
+		ConnectionProvider.Builder builder = ConnectionProvider.builder("rest")
+				.maxConnections(properties.getMaxPerRoute())
+				.pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+				.maxIdleTime(properties.getIdleEviction())
+				.evictInBackground(properties.getIdleEviction());
+
+		properties.getProviders().forEach((provider, providerProperties) -> {
+			HttpHost target = toRoute(provider, providerProperties.getBaseUrl()).getTargetHost();
+			builder.forRemoteHost(InetSocketAddress.createUnresolved(target.getHostName(), target.getPort()),
+					spec -> spec.maxConnections(providerProperties.getMaxConnections()));
+		});
+		return builder.build();
+	}
+
+	/**
+	 * WebClient injected into {@code ReactiveRestHelper}.
+	 */
+	@Bean
+	public WebClient reactiveWebClient(WebClient.Builder builder, ConnectionProvider reactiveConnectionProvider,
+			RestClientProperties properties) {
+		reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient
+				.create(reactiveConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+				.responseTimeout(properties.getReadTimeout());
+		return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+	}
+
+	// Builds the pool route for a provider's base URL, matching how the client
+	// normalizes targets (explicit port, secure flag for https)
+	private HttpRoute toRoute(Provider provider, String baseUrl) {
+		try {
+			HttpHost host = HttpHost.create(baseUrl);
+			int port = DefaultSchemePortResolver.INSTANCE.resolve(host);
+			HttpHost target = new HttpHost(host.getSchemeName(), host.getHostName(), port);
+			return new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException("Invalid base URL for " + provider + ": " + baseUrl, e);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.Data;
+
+/**
+ * Configuration for the outbound HTTP client behind the
+ * {@code plainRestTemplate} bean, bound from {@code rest.client.*} in
+ * {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.client")
+public class RestClientProperties {
+
+	/**
+	 * Execution engine used for a provider's calls.
+	 */
+	public enum Engine {
+		// RestTemplate on the restExecutor, one blocked thread per call in flight
+		BLOCKING,
+		// WebClient on the Reactor Netty event loop
+		REACTIVE
+	}
+
+	// Time allowed to establish a TCP/TLS connection
+	private Duration connectTimeout = Duration.ofSeconds(2);
+
+	// Time allowed between response packets (socket timeout)
+	private Duration readTimeout = Duration.ofSeconds(10);
+
+	// Time allowed to lease a connection from the pool
+	private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+	// Maximum number of pooled connections across all providers
+	private int maxTotal = 200;
+
+	// Maximum number of pooled connections for hosts without a provider entry
+	private int maxPerRoute = 20;
+
+	// Keep-alive applied when the server does not send a Keep-Alive header
+	private Duration keepAlive = Duration.ofSeconds(30);
+
+	// Idle connections older than this are evicted by a background thread
+	private Duration idleEviction = Duration.ofSeconds(60);
+
+	// Pooled connections idle for longer than this are re-validated before use
+	private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+	// Use the JDK HTTP/2 client instead of the pooled HTTP/1.1 client
+	private boolean http2 = false;
+
+	// Provider specific settings
+	private Map<Provider, ProviderProperties> providers = new EnumMap<>(Provider.class);
+
+	// Settings for strategies that stream their responses
+	private Streaming streaming = new Streaming();
+
+	/**
+	 * Settings for a single provider.
+	 */
+	@Data
+	public static class ProviderProperties {
+
+		// Base URL (scheme, host and optional port) of the provider's API
+		private String baseUrl;
+
+		// Maximum number of pooled connections to the provider
+		private int maxConnections = 20;
+
+		// Maximum number of calls in flight at once during bulk execution
+		private int bulkConcurrency = 16;
+
+		// JSON pointer to the envelope status code, searched for by name if unset
+		private String statusCodePointer;
+
+		// JSON pointer to the envelope status message, searched for by name if unset
+		private String statusMessagePointer;
+
+		// Engine executing the provider's calls
+		private Engine engine = Engine.BLOCKING;
+	}
+
+	/**
+	 * Settings for {@code StreamingResponseReader}.
+	 */
+	@Data
+	public static class Streaming {
+
+		// Leading part of a streamed response body kept for the audit trail
+		private DataSize auditCapture = DataSize.ofKilobytes(64);
+
+		// Larger responses are spooled to a temp file first
+		private DataSize spoolThreshold = DataSize.ofMegabytes(8);
+
+		// Directory for spooled responses, the system temp directory if unset
+		private String spoolDirectory;
+
+		// Leading elements of an element-streamed response kept for the audit trail
+		private int elementSample = 3;
+	}
+
+	/**
+	 * Returns the settings for a provider.
+	 *
+	 * @param provider the provider enum
+	 * @return the provider settings
+	 * @throws IllegalStateException if the provider is not configured
+	 */
+	public ProviderProperties getProvider(Provider provider) {
+		ProviderProperties properties = providers.get(provider);
+		if (properties == null) {
+			throw new IllegalStateException("No rest.client.providers entry configured for " + provider);
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,61 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provides the {@code restExecutor} used by {@code executeAsync} in the REST
+ * helpers, and the {@code hedgeExecutor} running the attempts of hedged calls.
+ * Both default to virtual threads, so blocking provider round trips do not tie
+ * up platform threads.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Configuration
+@Slf4j
+public class RestExecutorConfig {
+
+	/**
+	 * Executor for asynchronous REST calls.
+	 */
+	@Bean(destroyMethod = "close")
+	public ExecutorService restExecutor(AsyncProperties properties) {
+		if (properties.isVirtualThreads()) {
+			log.info("Asynchronous REST calls run on virtual threads");
+			return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rest-vt-", 0).factory());
+		}
+
+		log.info("Asynchronous REST calls run on a pool of {} platform threads", properties.getPoolSize());
+		AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newFixedThreadPool(properties.getPoolSize(), r -> {
+			Thread t = new Thread(r, "rest-async-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Executor for the attempts of hedged calls. It is separate from the
+	 * {@code restExecutor}, whose tasks block on these attempts, so a full
+	 * {@code restExecutor} pool cannot starve them. It does not bound them
+	 * itself: {@code RestHelper} caps the running attempts at
+	 * {@code rest.retry.hedge.max-concurrent} and sends further calls without
+	 * hedging.
+	 */
+	@Bean(destroyMethod = "close")
+	public ExecutorService hedgeExecutor(AsyncProperties properties) {
+		if (properties.isVirtualThreads()) {
+			return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rest-hedge-vt-", 0).factory());
+		}
+		return Executors.newCachedThreadPool(Thread.ofPlatform().name("rest-hedge-", 0).daemon().factory());
+	}
+}
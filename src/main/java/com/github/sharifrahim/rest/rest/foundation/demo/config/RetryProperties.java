@@ -0,0 +1,75 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for retries and hedged requests of idempotent calls, bound
+ * from {@code rest.retry.*} in {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.retry")
+public class RetryProperties {
+
+	// Master switch for retries and hedging
+	private boolean enabled = true;
+
+	// Total attempts per call, including the first one
+	private int maxAttempts = 3;
+
+	// Backoff ceiling before the first retry; doubles per retry, with full jitter
+	private Duration initialBackoff = Duration.ofMillis(50);
+
+	// Upper bound for the backoff ceiling
+	private Duration maxBackoff = Duration.ofSeconds(1);
+
+	// Retry budget shared by all providers
+	private Budget budget = new Budget();
+
+	// Hedged requests
+	private Hedge hedge = new Hedge();
+
+	/**
+	 * Retry budget settings. Every first attempt earns {@code ratio} of a token;
+	 * every retry or hedge spends a whole one.
+	 */
+	@Data
+	public static class Budget {
+
+		// Retries allowed per first attempt, e.g. 0.1 adds at most 10% extra load
+		private double ratio = 0.1;
+
+		// Maximum (and initial) number of tokens, bounding retry bursts
+		private int capacity = 50;
+	}
+
+	/**
+	 * Hedged request settings.
+	 */
+	@Data
+	public static class Hedge {
+
+		// Send a second request when the first is slower than the latency percentile
+		private boolean enabled = true;
+
+		// Latency percentile (0..1) of recent calls after which a hedge is sent
+		private double percentile = 0.95;
+
+		// Lower bound for the hedge delay
+		private Duration minDelay = Duration.ofMillis(20);
+
+		// Number of latency samples needed before hedging starts
+		private int minSamples = 50;
+
+		// Attempts of hedged calls running at once; calls beyond it are sent unhedged
+		private int maxConcurrent = 256;
+	}
+}
@@ -0,0 +1,33 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Configuration for token caching, bound from {@code rest.token.*} in
+ * {@code application.properties}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Data
+@ConfigurationProperties(prefix = "rest.token")
+public class TokenProperties {
+
+	// Lifetime assumed for tokens whose expiry is not reported
+	private Duration defaultTtl = Duration.ofMinutes(5);
+
+	// How long before expiry a background refresh is started
+	private Duration refreshAhead = Duration.ofSeconds(30);
+
+	// Minimum delay before a token fetch is retried after a failure
+	private Duration refreshRetryDelay = Duration.ofSeconds(1);
+
+	// Maximum time a caller waits for an in-flight token fetch
+	private Duration fetchTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,36 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.dto;
+
+import java.time.ZonedDateTime;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+import lombok.Value;
+
+/**
+ * Position in the audit trail for keyset pagination: the timestamp and ID of
+ * the last row of a page. The next page starts right after it, so paging
+ * costs the same at any depth and is not thrown off by rows inserted in the
+ * meantime.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class AuditTrailCursor {
+
+	// Timestamp of the last row seen
+	ZonedDateTime timestamp;
+
+	// ID of the last row seen, breaking ties between equal timestamps
+	Long id;
+
+	/**
+	 * @param row the last row of a page
+	 * @return a cursor positioned after that row
+	 */
+	public static AuditTrailCursor after(ApiAuditTrail row) {
+		return new AuditTrailCursor(row.getTimestamp(), row.getId());
+	}
+}
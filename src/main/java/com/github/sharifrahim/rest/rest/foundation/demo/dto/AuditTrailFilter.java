@@ -0,0 +1,38 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.dto;
+
+import java.time.ZonedDateTime;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Criteria for querying the API audit trail. Every field is optional; unset
+ * fields do not restrict the result.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+@Builder
+public class AuditTrailFilter {
+
+	// Matches everything
+	public static final AuditTrailFilter ALL = AuditTrailFilter.builder().build();
+
+	// Audit status (e.g. SUCCESS, FAILED)
+	String status;
+
+	// HTTP method (GET, POST, etc.)
+	String method;
+
+	// Leading part of the URL, matched literally
+	String urlPrefix;
+
+	// Earliest call timestamp, inclusive
+	ZonedDateTime from;
+
+	// Latest call timestamp, exclusive
+	ZonedDateTime to;
+}
@@ -0,0 +1,29 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.dto;
+
+import java.util.List;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+import lombok.Value;
+
+/**
+ * One page of audit trail rows, newest first.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class AuditTrailPage {
+
+	// Rows of this page, ordered by timestamp then ID, descending
+	List<ApiAuditTrail> items;
+
+	// Cursor for the following page, or null if this is the last one
+	AuditTrailCursor nextCursor;
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
@@ -0,0 +1,73 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.dto;
+
+import java.util.List;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import lombok.Value;
+
+/**
+ * Outcome of a bulk execution. Holds one {@link ItemResult} per submitted
+ * strategy, in submission order, plus batch level throughput figures.
+ *
+ * @param <RES> the response type
+ * 
+ *              Author: Sharif
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class BatchResult<RES> {
+
+	// Per-item outcomes, in the order the strategies were submitted
+	List<ItemResult<RES>> items;
+
+	// Wall-clock time for the whole batch in milliseconds
+	long elapsedMs;
+
+	/**
+	 * @return the number of items that completed successfully
+	 */
+	public long getSuccessCount() {
+		return items.stream().filter(ItemResult::isSuccess).count();
+	}
+
+	/**
+	 * @return the number of items that failed
+	 */
+	public long getFailureCount() {
+		return items.size() - getSuccessCount();
+	}
+
+	/**
+	 * @return completed items per second over the whole batch
+	 */
+	public double getThroughputPerSecond() {
+		return elapsedMs == 0 ? items.size() : items.size() * 1000.0 / elapsedMs;
+	}
+
+	/**
+	 * Outcome of a single strategy within a batch.
+	 *
+	 * @param <RES> the response type
+	 */
+	@Value
+	public static class ItemResult<RES> {
+
+		// The strategy that was executed
+		RestRequestStrategy<?, RES> strategy;
+
+		// The response, or null if the call failed
+		RES response;
+
+		// The failure, or null if the call succeeded
+		Throwable error;
+
+		// Time spent on this item in milliseconds, excluding queueing
+		long durationMs;
+
+		public boolean isSuccess() {
+			return error == null;
+		}
+	}
+}
@@ -3,18 +3,24 @@ package com.github.sharifrahim.rest.rest.foundation.demo.entity;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -35,7 +41,11 @@ import lombok.extern.slf4j.Slf4j;
  *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
  */
 @Entity
-@Table(name = "api_audit_trail_tbl")
+@EntityListeners(AuditingEntityListener.class)
+@Table(name = "api_audit_trail_tbl", indexes = {
+		@Index(name = "api_audit_trail_correlation_id_idx", columnList = "correlation_id"),
+		// Matches the (timestamp, id) keyset order used to page through the trail
+		@Index(name = "api_audit_trail_timestamp_idx", columnList = "timestamp, id") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,15 +53,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ApiAuditTrail {
 
-	// Primary key for the audit trail entry
+	// Primary key for the audit trail entry. A pooled sequence (rather than
+	// IDENTITY) lets Hibernate batch inserts from the audit writers.
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "api_audit_trail_seq")
+	@SequenceGenerator(name = "api_audit_trail_seq", sequenceName = "api_audit_trail_seq", allocationSize = 50)
 	private Long id;
 
 	// Unique ID used for correlating logs across services
 	@Column(name = "correlation_id")
 	private String correlationId;
 
+	// Correlation ID of the related entry this one depends on, e.g. the call
+	// whose response was shared with this one
+	@Column(name = "parent_correlation_id")
+	private String parentCorrelationId;
+
 	// Timestamp of the API call
 	@Column(name = "timestamp")
 	private ZonedDateTime timestamp;
@@ -71,6 +88,20 @@ public class ApiAuditTrail {
 	@Column(name = "request_body", columnDefinition = "TEXT")
 	private String requestBody;
 
+	// Deflated request body, stored instead of requestBody when it is large and
+	// compression is enabled
+	@JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+	@Column(name = "request_body_compressed")
+	private byte[] requestBodyCompressed;
+
+	// Length in characters of the full request body, set when it was truncated
+	@Column(name = "request_body_original_length")
+	private Long requestBodyOriginalLength;
+
+	// SHA-256 (hex) of the full request body, set when it was truncated
+	@Column(name = "request_body_sha256", length = 64)
+	private String requestBodySha256;
+
 	// HTTP response status code
 	@Column(name = "response_status")
 	private Integer responseStatus;
@@ -79,6 +110,20 @@ public class ApiAuditTrail {
 	@Column(name = "response_body", columnDefinition = "TEXT")
 	private String responseBody;
 
+	// Deflated response body, stored instead of responseBody when it is large
+	// and compression is enabled
+	@JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+	@Column(name = "response_body_compressed")
+	private byte[] responseBodyCompressed;
+
+	// Length in characters of the full response body, set when it was truncated
+	@Column(name = "response_body_original_length")
+	private Long responseBodyOriginalLength;
+
+	// SHA-256 (hex) of the full response body, set when it was truncated
+	@Column(name = "response_body_sha256", length = 64)
+	private String responseBodySha256;
+
 	// Response headers as a serialized string
 	@Column(name = "response_headers", columnDefinition = "TEXT")
 	private String responseHeaders;
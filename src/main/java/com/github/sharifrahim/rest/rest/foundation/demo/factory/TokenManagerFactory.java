@@ -2,14 +2,19 @@ package com.github.sharifrahim.rest.rest.foundation.demo.factory;
 
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.springframework.stereotype.Component;
 
+import com.github.sharifrahim.rest.rest.foundation.demo.config.TokenProperties;
 import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.manager.CachingTokenManager;
 import com.github.sharifrahim.rest.rest.foundation.demo.manager.ProviderXTokenManager;
 import com.github.sharifrahim.rest.rest.foundation.demo.manager.TokenManager;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -19,7 +24,8 @@ import lombok.extern.slf4j.Slf4j;
  * {@link Provider} enum.
  * 
  * This enables a plug-and-play strategy for handling token logic for each
- * provider.
+ * provider. Registered managers are wrapped in a {@link CachingTokenManager} so
+ * tokens are reused until shortly before they expire.
  * 
  * Author: Sharif
  * 
@@ -34,6 +40,11 @@ public class TokenManagerFactory {
 	// Map to store TokenManager implementations per provider
 	private final Map<Provider, TokenManager> managers = new EnumMap<>(Provider.class);
 
+	private final TokenProperties tokenProperties;
+
+	// Times proactive refreshes for all cached managers; fetches run elsewhere
+	private ScheduledExecutorService refreshScheduler;
+
 	/**
 	 * Initializes the TokenManager implementations after the bean is constructed.
 	 */
@@ -41,13 +52,32 @@ public class TokenManagerFactory {
 	private void init() {
 		log.info("Initializing TokenManagerFactory...");
 
+		refreshScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "token-refresh");
+			t.setDaemon(true);
+			return t;
+		});
+
 		// Register Provider X's token manager
-		managers.put(Provider.PROVIDER_X, new ProviderXTokenManager());
+		managers.put(Provider.PROVIDER_X, cached(new ProviderXTokenManager()));
 
 		// TODO: Add additional providers here as needed
 		log.info("TokenManagerFactory initialized with providers: {}", managers.keySet());
 	}
 
+	/**
+	 * Stops the token refresh scheduler.
+	 */
+	@PreDestroy
+	private void shutdown() {
+		refreshScheduler.shutdownNow();
+	}
+
+	// Wraps a manager so its tokens are cached and refreshed ahead of expiry
+	private TokenManager cached(TokenManager manager) {
+		return new CachingTokenManager(manager, tokenProperties, refreshScheduler);
+	}
+
 	/**
 	 * Returns the TokenManager implementation for the given provider.
 	 *
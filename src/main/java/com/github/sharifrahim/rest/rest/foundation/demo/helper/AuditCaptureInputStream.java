@@ -0,0 +1,105 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Tee over a response stream: everything read passes through unchanged while
+ * the first {@code limit} bytes are copied aside for the audit trail and the
+ * total is counted. Memory use is bounded by the limit, whatever the size of
+ * the body.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+class AuditCaptureInputStream extends FilterInputStream {
+
+	private final int limit;
+	private byte[] captured;
+	private int capturedLength;
+	private long count;
+
+	AuditCaptureInputStream(InputStream in, int limit) {
+		super(in);
+		this.limit = limit;
+		this.captured = new byte[Math.min(limit, 8192)];
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		if (b >= 0) {
+			capture(new byte[] { (byte) b }, 0, 1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = in.read(b, off, len);
+		if (n > 0) {
+			capture(b, off, n);
+		}
+		return n;
+	}
+
+	// Skipped bytes are read, so the captured prefix has no gaps
+	@Override
+	public long skip(long n) throws IOException {
+		byte[] scratch = new byte[(int) Math.min(n, 8192)];
+		long skipped = 0;
+		while (skipped < n) {
+			int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+			if (read < 0) {
+				break;
+			}
+			skipped += read;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * @return the number of bytes read so far
+	 */
+	long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return whether more was read than could be captured
+	 */
+	boolean isTruncated() {
+		return count > capturedLength;
+	}
+
+	/**
+	 * @param charset the body's character set
+	 * @return the captured bytes as text
+	 */
+	String capturedText(Charset charset) {
+		return new String(captured, 0, capturedLength, charset);
+	}
+
+	private void capture(byte[] b, int off, int len) {
+		count += len;
+		int kept = Math.min(len, limit - capturedLength);
+		if (kept <= 0) {
+			return;
+		}
+		if (capturedLength + kept > captured.length) {
+			captured = Arrays.copyOf(captured, Math.min(limit, Math.max(captured.length * 2, capturedLength + kept)));
+		}
+		System.arraycopy(b, off, captured, capturedLength, kept);
+		capturedLength += kept;
+	}
+}
@@ -0,0 +1,117 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.BatchResult;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.BatchResult.ItemResult;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs many strategies for a provider in parallel on the {@code restExecutor},
+ * never allowing more than the provider's {@code bulk-concurrency} calls in
+ * flight at once. Submission blocks while the limit is reached, so very large
+ * batches do not pile up as queued tasks.
+ *
+ * Failures are recorded per item and never abort the rest of the batch.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class BulkExecutor {
+
+	private final RestHelper restHelper;
+	private final Map<Provider, Semaphore> permits = new EnumMap<>(Provider.class);
+
+	public BulkExecutor(RestHelper restHelper, RestClientProperties properties) {
+		this.restHelper = restHelper;
+		properties.getProviders().forEach((provider, providerProperties) -> permits.put(provider,
+				new Semaphore(providerProperties.getBulkConcurrency())));
+	}
+
+	/**
+	 * A single call within a batch.
+	 *
+	 * @param <REQ> the request type
+	 * @param <RES> the response type
+	 */
+	@FunctionalInterface
+	public interface Call<REQ, RES> {
+		RES execute(RestRequestStrategy<REQ, RES> strategy) throws Exception;
+	}
+
+	/**
+	 * Executes every strategy through {@code call}, bounded by the provider's
+	 * concurrency cap, and waits for all of them to finish.
+	 *
+	 * @param provider   the provider whose cap applies
+	 * @param strategies the strategies to execute
+	 * @param call       how to execute a single strategy
+	 * @param <REQ>      the request type
+	 * @param <RES>      the response type
+	 * @return per-item results and batch throughput
+	 * @throws InterruptedException if interrupted while waiting for a permit
+	 */
+	@SuppressWarnings("unchecked")
+	public <REQ, RES> BatchResult<RES> executeAll(Provider provider,
+			Collection<? extends RestRequestStrategy<REQ, RES>> strategies, Call<REQ, RES> call)
+			throws InterruptedException {
+		Semaphore semaphore = permits.get(provider);
+		if (semaphore == null) {
+			throw new IllegalStateException("No rest.client.providers entry configured for " + provider);
+		}
+
+		long start = System.nanoTime();
+		ItemResult<RES>[] results = new ItemResult[strategies.size()];
+		List<CompletableFuture<?>> futures = new ArrayList<>(strategies.size());
+
+		int index = 0;
+		for (RestRequestStrategy<REQ, RES> strategy : strategies) {
+			int slot = index++;
+			semaphore.acquire();
+			long itemStart = System.nanoTime();
+			CompletableFuture<RES> future;
+			try {
+				future = restHelper.supplyAsync(() -> call.execute(strategy));
+			} catch (RuntimeException e) {
+				// Not submitted, e.g. the executor is shutting down
+				semaphore.release();
+				results[slot] = new ItemResult<>(strategy, null, e, 0);
+				continue;
+			}
+			futures.add(future.handle((response, error) -> {
+				semaphore.release();
+				long durationMs = (System.nanoTime() - itemStart) / 1_000_000;
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+						: error;
+				results[slot] = new ItemResult<>(strategy, response, cause, durationMs);
+				return null;
+			}));
+		}
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+		BatchResult<RES> batch = new BatchResult<>(Arrays.asList(results), (System.nanoTime() - start) / 1_000_000);
+		log.info("Batch of {} for {} finished in {} ms: {} succeeded, {} failed, {} req/s", strategies.size(), provider,
+				batch.getElapsedMs(), batch.getSuccessCount(), batch.getFailureCount(),
+				String.format("%.1f", batch.getThroughputPerSecond()));
+		return batch;
+	}
+}
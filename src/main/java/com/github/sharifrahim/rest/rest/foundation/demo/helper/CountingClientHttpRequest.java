@@ -0,0 +1,108 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Wraps a {@link ClientHttpRequest} and reports how many body bytes were
+ * written to it. Streaming requests keep streaming; the body is counted as it
+ * passes through rather than buffered.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+class CountingClientHttpRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+	private final ClientHttpRequest delegate;
+	private final LongConsumer bytesWritten;
+
+	CountingClientHttpRequest(ClientHttpRequest delegate, LongConsumer bytesWritten) {
+		this.delegate = delegate;
+		this.bytesWritten = bytesWritten;
+	}
+
+	@Override
+	public OutputStream getBody() throws IOException {
+		return new CountingOutputStream(delegate.getBody());
+	}
+
+	@Override
+	public void setBody(Body body) {
+		if (delegate instanceof StreamingHttpOutputMessage streaming) {
+			streaming.setBody(new Body() {
+				@Override
+				public void writeTo(OutputStream out) throws IOException {
+					body.writeTo(new CountingOutputStream(out));
+				}
+
+				@Override
+				public boolean repeatable() {
+					return body.repeatable();
+				}
+			});
+		} else {
+			try {
+				body.writeTo(getBody());
+			} catch (IOException e) {
+				throw new IllegalStateException("Failed to write request body", e);
+			}
+		}
+	}
+
+	@Override
+	public ClientHttpResponse execute() throws IOException {
+		return delegate.execute();
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return delegate.getHeaders();
+	}
+
+	@Override
+	public HttpMethod getMethod() {
+		return delegate.getMethod();
+	}
+
+	@Override
+	public URI getURI() {
+		return delegate.getURI();
+	}
+
+	@Override
+	public Map<String, Object> getAttributes() {
+		return delegate.getAttributes();
+	}
+
+	// Reports bytes as they are written; close and flush pass straight through
+	private class CountingOutputStream extends FilterOutputStream {
+
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			bytesWritten.accept(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			bytesWritten.accept(len);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+/**
+ * Parser wrapper that picks the envelope status out of the token stream while
+ * Jackson deserializes the response, so the status costs no extra pass over
+ * the document.
+ *
+ * Every scalar token is checked against the declared JSON pointers, comparing
+ * the parsing context chain in place, and against the fallback keys until a
+ * value is found. A pointer match wins over a key match wherever either
+ * appears. Subtrees the deserializer skips (ignored properties) are still read
+ * token by token while anything is left to capture.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+final class EnvelopeCapturingParser extends JsonParserDelegate {
+
+	private final Target statusCode;
+	private final Target statusMessage;
+
+	EnvelopeCapturingParser(JsonParser parser, ResponseEnvelope.Fields fields) {
+		super(parser);
+		this.statusCode = new Target(fields.getStatusCodePointer(), fields.getStatusCodeKey());
+		this.statusMessage = new Target(fields.getStatusMessagePointer(), fields.getStatusMessageKey());
+	}
+
+	/**
+	 * @return the envelope captured from the tokens read so far
+	 */
+	ResponseEnvelope getEnvelope() {
+		return new ResponseEnvelope(statusCode.value(), statusMessage.value());
+	}
+
+	@Override
+	public JsonToken nextToken() throws IOException {
+		JsonToken token = delegate.nextToken();
+		if (token != null && token.isScalarValue() && !(statusCode.done && statusMessage.done)) {
+			JsonStreamContext context = delegate.getParsingContext();
+			statusCode.observe(context, delegate, token);
+			statusMessage.observe(context, delegate, token);
+		}
+		return token;
+	}
+
+	@Override
+	public JsonToken nextValue() throws IOException {
+		JsonToken token = nextToken();
+		return token == JsonToken.FIELD_NAME ? nextToken() : token;
+	}
+
+	@Override
+	public JsonParser skipChildren() throws IOException {
+		if (statusCode.done && statusMessage.done) {
+			delegate.skipChildren();
+			return this;
+		}
+		JsonToken token = delegate.currentToken();
+		if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+			return this;
+		}
+		int open = 1;
+		while (open > 0 && (token = nextToken()) != null) {
+			if (token.isStructStart()) {
+				open++;
+			} else if (token.isStructEnd()) {
+				open--;
+			}
+		}
+		return this;
+	}
+
+	// One envelope field: its pointer as context segments plus the fallback key
+	private static final class Target {
+
+		private final String[] names;
+		private final int[] indexes;
+		private final String key;
+
+		private boolean pointerMatched;
+		private String pointerValue;
+		private boolean keyMatched;
+		private String keyValue;
+		private boolean done;
+
+		private Target(String pointer, String key) {
+			if (pointer == null || pointer.isEmpty()) {
+				this.names = null;
+				this.indexes = null;
+			} else {
+				List<JsonPointer> segments = new ArrayList<>();
+				for (JsonPointer p = JsonPointer.compile(pointer); !p.matches(); p = p.tail()) {
+					segments.add(p);
+				}
+				this.names = new String[segments.size()];
+				this.indexes = new int[segments.size()];
+				for (int i = 0; i < names.length; i++) {
+					names[i] = segments.get(i).getMatchingProperty();
+					indexes[i] = segments.get(i).getMatchingIndex();
+				}
+			}
+			this.key = key;
+			this.done = names == null && key == null;
+		}
+
+		private void observe(JsonStreamContext context, JsonParser parser, JsonToken token) throws IOException {
+			if (done) {
+				return;
+			}
+			if (names != null && matchesPointer(context)) {
+				pointerValue = text(parser, token);
+				pointerMatched = true;
+				done = true;
+				return;
+			}
+			if (!keyMatched && key != null && context.inObject() && key.equalsIgnoreCase(context.getCurrentName())) {
+				keyValue = text(parser, token);
+				keyMatched = true;
+				done = names == null;
+			}
+		}
+
+		// Walks from the value's context up to the root, last segment first
+		private boolean matchesPointer(JsonStreamContext context) {
+			if (context.getNestingDepth() != names.length) {
+				return false;
+			}
+			for (int i = names.length - 1; i >= 0; i--, context = context.getParent()) {
+				if (context.inObject()) {
+					if (!names[i].equals(context.getCurrentName())) {
+						return false;
+					}
+				} else if (!context.inArray() || indexes[i] != context.getCurrentIndex()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private String value() {
+			return pointerMatched ? pointerValue : keyValue;
+		}
+
+		private static String text(JsonParser parser, JsonToken token) throws IOException {
+			return token == JsonToken.VALUE_NULL ? null : parser.getText();
+		}
+	}
+}
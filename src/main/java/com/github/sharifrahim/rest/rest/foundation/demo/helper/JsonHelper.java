@@ -0,0 +1,157 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared Jackson access point for the REST pipeline. Holds a single
+ * {@link ObjectMapper} and caches one {@link ObjectReader}/{@link ObjectWriter}
+ * per type, so DTO introspection happens once per class rather than once per
+ * call.
+ *
+ * The mapper uses Jackson's default settings, matching the per-call mappers it
+ * replaces.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class JsonHelper {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final ObjectWriter writer = mapper.writer();
+
+	// Sorted properties and map keys, so equal values always produce equal text
+	private final ObjectWriter canonicalWriter = JsonMapper.builder()
+			.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.build()
+			.writer();
+
+	private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+	private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the cached reader for a type.
+	 *
+	 * @param type the target type
+	 * @return a reader bound to the type
+	 */
+	public ObjectReader readerFor(Class<?> type) {
+		return readers.computeIfAbsent(type, t -> {
+			log.debug("Creating ObjectReader for {}", t.getName());
+			return mapper.readerFor(t);
+		});
+	}
+
+	/**
+	 * Returns the cached writer for a type.
+	 *
+	 * @param type the source type
+	 * @return a writer bound to the type
+	 */
+	public ObjectWriter writerFor(Class<?> type) {
+		return writers.computeIfAbsent(type, t -> {
+			log.debug("Creating ObjectWriter for {}", t.getName());
+			return mapper.writerFor(t);
+		});
+	}
+
+	/**
+	 * Deserializes JSON text straight into the target type without building an
+	 * intermediate tree.
+	 *
+	 * @param content the JSON text
+	 * @param type    the target type
+	 * @param <T>     the target type
+	 * @return the deserialized value
+	 * @throws IOException if the content cannot be parsed or mapped
+	 */
+	public <T> T read(String content, Class<T> type) throws IOException {
+		return readerFor(type).readValue(content);
+	}
+
+	/**
+	 * Deserializes a JSON stream straight into the target type without buffering
+	 * it as text first.
+	 *
+	 * @param content the JSON stream
+	 * @param type    the target type
+	 * @param <T>     the target type
+	 * @return the deserialized value
+	 * @throws IOException if the content cannot be parsed or mapped
+	 */
+	public <T> T read(InputStream content, Class<T> type) throws IOException {
+		return readerFor(type).readValue(content);
+	}
+
+	/**
+	 * Serializes a value to JSON text.
+	 *
+	 * @param value the value to serialize
+	 * @return the JSON text
+	 * @throws JsonProcessingException if serialization fails
+	 */
+	public String write(Object value) throws JsonProcessingException {
+		return value == null ? writer.writeValueAsString(null) : writerFor(value.getClass()).writeValueAsString(value);
+	}
+
+	/**
+	 * Serializes a value to JSON text with properties and map keys in sorted
+	 * order, suitable for use in cache or coalescing keys.
+	 *
+	 * @param value the value to serialize
+	 * @return the canonical JSON text
+	 * @throws JsonProcessingException if serialization fails
+	 */
+	public String writeCanonical(Object value) throws JsonProcessingException {
+		return canonicalWriter.writeValueAsString(value);
+	}
+
+	/**
+	 * Converts a value into a JSON tree.
+	 *
+	 * @param value the value to convert
+	 * @return the tree representation
+	 */
+	public JsonNode valueToTree(Object value) {
+		return mapper.valueToTree(value);
+	}
+
+	/**
+	 * Converts a value into another type via Jackson.
+	 *
+	 * @param value the value to convert
+	 * @param type  the target type
+	 * @param <T>   the target type
+	 * @return the converted value
+	 */
+	public <T> T convertValue(Object value, Class<T> type) {
+		return mapper.convertValue(value, type);
+	}
+
+	/**
+	 * @return the shared mapper, for callers needing lower level access
+	 */
+	public ObjectMapper getMapper() {
+		return mapper;
+	}
+}
@@ -1,19 +1,41 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.helper;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
 import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.BatchResult;
 import com.github.sharifrahim.rest.rest.foundation.demo.factory.TokenManagerFactory;
+import com.github.sharifrahim.rest.rest.foundation.demo.manager.TokenManager;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementStreamingStrategy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementSummary;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ProviderXTokenDecoratedElementStrategy;
 import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ProviderXTokenDecoratedStrategy;
 import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Helper class for executing REST requests specific to Provider X. This class
  * decorates the provided {@link RestRequestStrategy} with Provider X's token
- * and base URL before execution.
+ * and base URL before execution. If the provider rejects the token with a 401,
+ * the token is invalidated and the request is retried once with a fresh one.
+ *
+ * Calls run on the engine selected by the provider's {@code engine} setting:
+ * {@link RestHelper} by default, or {@link ReactiveRestHelper} when set to
+ * {@code REACTIVE}. Either is reachable through the blocking, future and
+ * {@link Mono} methods alike. Element-streaming calls always use the blocking
+ * engine.
  * 
  * Author: Sharif
  * 
@@ -26,7 +48,11 @@ import lombok.extern.slf4j.Slf4j;
 public class ProviderXRestHelper {
 
 	private final RestHelper restHelper;
+	private final ReactiveRestHelper reactiveRestHelper;
 	private final TokenManagerFactory tokenManagerFactory;
+	private final RestClientProperties clientProperties;
+	private final JsonHelper jsonHelper;
+	private final BulkExecutor bulkExecutor;
 
 	/**
 	 * Executes a decorated REST request strategy for Provider X.
@@ -34,18 +60,177 @@ public class ProviderXRestHelper {
 	 * @param strategy the original REST request strategy
 	 * @param <REQ>    the request type
 	 * @param <RES>    the response type
-	 * @throws Exception if the underlying execution fails
+	 * @return the deserialized response
+	 * @throws IllegalStateException if called on a non-blocking thread, such as
+	 *                               an event loop, with the reactive engine
+	 * @throws Exception             if the underlying execution fails
+	 */
+	public <REQ, RES> RES execute(RestRequestStrategy<REQ, RES> strategy) throws Exception {
+		if (isReactive()) {
+			// Waiting on an event loop thread could hang it, as the call itself
+			// may need that thread to complete
+			if (Schedulers.isInNonBlockingThread()) {
+				throw new IllegalStateException("execute() would block non-blocking thread "
+						+ Thread.currentThread().getName() + ", use executeReactive() instead");
+			}
+			// Not block(): it wraps checked exceptions
+			CompletableFuture<RES> result = executeReactive(strategy).toFuture();
+			try {
+				return result.get();
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			} catch (InterruptedException e) {
+				result.cancel(true);
+				throw e;
+			}
+		}
+		return executeBlocking(strategy);
+	}
+
+	/**
+	 * Executes a decorated REST request strategy for Provider X on the engine
+	 * selected by its {@code engine} setting, as a {@link Mono}. On the blocking
+	 * engine the call runs on the {@code restExecutor}; on the reactive engine
+	 * the token, the exchange and the audit hand-off never block.
+	 *
+	 * @param strategy the original REST request strategy
+	 * @param <REQ>    the request type
+	 * @param <RES>    the response type
+	 * @return a mono emitting the deserialized response
 	 */
-	public <REQ, RES> void execute(RestRequestStrategy<REQ, RES> strategy) throws Exception {
+	public <REQ, RES> Mono<RES> executeReactive(RestRequestStrategy<REQ, RES> strategy) {
+		if (!isReactive()) {
+			return Mono.fromFuture(() -> restHelper.supplyAsync(() -> executeBlocking(strategy)));
+		}
+		log.debug("Executing Provider X strategy reactively with decoration.");
+
+		TokenManager tokenManager = tokenManagerFactory.getManager(Provider.PROVIDER_X);
+		RestClientProperties.ProviderProperties providerProperties = clientProperties.getProvider(Provider.PROVIDER_X);
+		RestRequestStrategy<REQ, RES> decorated = new ProviderXTokenDecoratedStrategy<>(strategy, tokenManager,
+				providerProperties.getBaseUrl(), ProviderXTokenDecoratedStrategy.envelopeFields(providerProperties),
+				jsonHelper);
+		return reactiveRestHelper.execute(decorated)
+				.onErrorResume(ProviderXRestHelper::isUnauthorized, ex -> {
+					log.warn("Provider X rejected the token, retrying once with a fresh token.");
+					tokenManager.invalidate();
+					return reactiveRestHelper.execute(decorated);
+				});
+	}
+
+	/**
+	 * Executes many strategies for Provider X with at most the provider's
+	 * {@code bulk-concurrency} in flight, emitting the responses in completion
+	 * order. The first failure ends the flux.
+	 *
+	 * @param strategies the original REST request strategies
+	 * @param <REQ>      the request type
+	 * @param <RES>      the response type
+	 * @return a flux of the deserialized responses
+	 */
+	public <REQ, RES> Flux<RES> executeAllReactive(Collection<? extends RestRequestStrategy<REQ, RES>> strategies) {
+		int concurrency = clientProperties.getProvider(Provider.PROVIDER_X).getBulkConcurrency();
+		return Flux.fromIterable(strategies).flatMap(this::executeReactive, concurrency);
+	}
+
+	private <REQ, RES> RES executeBlocking(RestRequestStrategy<REQ, RES> strategy) throws Exception {
 		log.debug("Executing Provider X strategy with decoration.");
 
 		// Decorate the strategy with Provider X token manager and base URL
-		RestRequestStrategy<REQ, RES> decorated = new ProviderXTokenDecoratedStrategy<>(strategy,
-				tokenManagerFactory.getManager(Provider.PROVIDER_X), "www.providerx.com");
+		TokenManager tokenManager = tokenManagerFactory.getManager(Provider.PROVIDER_X);
+		RestClientProperties.ProviderProperties providerProperties = clientProperties.getProvider(Provider.PROVIDER_X);
+		RestRequestStrategy<REQ, RES> decorated = new ProviderXTokenDecoratedStrategy<>(strategy, tokenManager,
+				providerProperties.getBaseUrl(), ProviderXTokenDecoratedStrategy.envelopeFields(providerProperties),
+				jsonHelper);
+		return executeDecorated(decorated, tokenManager);
+	}
+
+	/**
+	 * Executes a decorated element-streaming strategy for Provider X, handing the
+	 * elements of the response to the strategy as they are read.
+	 *
+	 * @param strategy the original element-streaming strategy
+	 * @param <REQ>    the request type
+	 * @param <E>      the element type
+	 * @return the number of elements delivered
+	 * @throws Exception if the underlying execution fails
+	 */
+	public <REQ, E> ElementSummary executeElements(ElementStreamingStrategy<REQ, E> strategy) throws Exception {
+		log.debug("Executing Provider X element-streaming strategy with decoration.");
+
+		TokenManager tokenManager = tokenManagerFactory.getManager(Provider.PROVIDER_X);
+		RestClientProperties.ProviderProperties providerProperties = clientProperties.getProvider(Provider.PROVIDER_X);
+		ElementStreamingStrategy<REQ, E> decorated = new ProviderXTokenDecoratedElementStrategy<>(strategy,
+				tokenManager, providerProperties.getBaseUrl(),
+				ProviderXTokenDecoratedStrategy.envelopeFields(providerProperties), jsonHelper);
+		return executeDecorated(decorated, tokenManager);
+	}
 
+	// A 401 arrives before any of the body, so retrying it never repeats elements
+	private <REQ, RES> RES executeDecorated(RestRequestStrategy<REQ, RES> decorated, TokenManager tokenManager)
+			throws Exception {
 		// Execute the decorated strategy using the shared RestHelper
-		restHelper.execute(decorated);
+		RES result;
+		try {
+			result = restHelper.execute(decorated);
+		} catch (HttpClientErrorException.Unauthorized ex) {
+			log.warn("Provider X rejected the token, retrying once with a fresh token.");
+			tokenManager.invalidate();
+			result = restHelper.execute(decorated);
+		}
 
 		log.debug("Execution for Provider X completed.");
+		return result;
+	}
+
+	/**
+	 * Executes a decorated REST request strategy for Provider X without blocking
+	 * the caller.
+	 *
+	 * @param strategy the original REST request strategy
+	 * @param <REQ>    the request type
+	 * @param <RES>    the response type
+	 * @return a future completed with the deserialized response
+	 */
+	public <REQ, RES> CompletableFuture<RES> executeAsync(RestRequestStrategy<REQ, RES> strategy) {
+		if (isReactive()) {
+			return executeReactive(strategy).toFuture();
+		}
+		return restHelper.supplyAsync(() -> executeBlocking(strategy));
+	}
+
+	/**
+	 * Executes many strategies for Provider X in parallel, bounded by the
+	 * provider's {@code bulk-concurrency}. The token is fetched once up front and
+	 * shared by the whole batch through the cached token manager; all calls use
+	 * the shared connection pool. Individual failures are reported per item.
+	 *
+	 * @param strategies the original REST request strategies
+	 * @param <REQ>      the request type
+	 * @param <RES>      the response type
+	 * @return per-item results and batch throughput
+	 * @throws InterruptedException if interrupted while submitting the batch
+	 */
+	public <REQ, RES> BatchResult<RES> executeAll(Collection<? extends RestRequestStrategy<REQ, RES>> strategies)
+			throws InterruptedException {
+		log.debug("Executing batch of {} Provider X strategies.", strategies.size());
+
+		try {
+			tokenManagerFactory.getManager(Provider.PROVIDER_X).getAccessToken();
+		} catch (Exception ex) {
+			log.warn("Could not pre-fetch Provider X token for batch, items will retry individually.", ex);
+		}
+
+		return bulkExecutor.executeAll(Provider.PROVIDER_X, strategies, this::execute);
+	}
+
+	// The reactive engine reports a 401 as a WebClient error, but strategies it
+	// hands to RestHelper (cached or streaming ones) fail with RestTemplate's
+	private static boolean isUnauthorized(Throwable ex) {
+		return ex instanceof WebClientResponseException.Unauthorized
+				|| ex instanceof HttpClientErrorException.Unauthorized;
+	}
+
+	private boolean isReactive() {
+		return clientProperties.getProvider(Provider.PROVIDER_X).getEngine() == RestClientProperties.Engine.REACTIVE;
 	}
 }
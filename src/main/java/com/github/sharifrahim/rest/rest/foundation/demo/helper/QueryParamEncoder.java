@@ -0,0 +1,379 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns a GET request body into the query string of its URL.
+ *
+ * The properties of each request class are introspected once, through the
+ * same Jackson mapper that serializes request bodies, so names, ignores and
+ * ordering match the JSON form. Each class gets a cached list of accessors
+ * with pre-encoded parameter names, and values are percent-encoded straight
+ * into the URL buffer.
+ *
+ * Values are flattened as follows:
+ * <ul>
+ * <li>{@code null} values are skipped, at any depth</li>
+ * <li>scalars (strings, numbers, booleans, characters, enums) become
+ * {@code name=value}</li>
+ * <li>collections and arrays repeat the name once per element, as in
+ * {@code id=1&id=2}; nested objects inside them are indexed, as in
+ * {@code items[0].sku=A}</li>
+ * <li>nested objects and maps use dotted names, as in
+ * {@code period.from=2024-01-01}</li>
+ * <li>anything without bean properties (UUID, java.time types, ...) is
+ * rendered as its JSON scalar text</li>
+ * </ul>
+ *
+ * URLs may declare path variables such as {@code /accounts/{accountNo}}. Each
+ * is filled from the top-level property of the same name, encoded as a path
+ * segment, and that property is then left out of the query string.
+ *
+ * Every URL returned is fully encoded and is sent as it is. The URL given is
+ * encoded the way RestTemplate's default URI handler encodes the URLs of other
+ * methods, whether or not there is a body to add.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Slf4j
+final class QueryParamEncoder {
+
+	// Guards against cyclic object graphs
+	private static final int MAX_DEPTH = 8;
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+	private final ObjectMapper mapper;
+
+	private final Map<Class<?>, BeanEncoder> encoders = new ConcurrentHashMap<>();
+
+	// Enum constants as Jackson writes them, honouring @JsonValue/@JsonProperty
+	private final Map<Enum<?>, String> enumTexts = new ConcurrentHashMap<>();
+
+	QueryParamEncoder(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Expands path variables in the URL and appends the body's properties as
+	 * query parameters.
+	 *
+	 * @param url  the target URL, optionally containing {@code {name}} variables
+	 * @param body the request body, may be null
+	 * @return the encoded URL with path variables filled and query parameters
+	 *         appended
+	 * @throws IllegalArgumentException if a path variable has no value in the
+	 *                                  body
+	 */
+	String encode(String url, Object body) {
+		if (body == null || isScalar(body)) {
+			return encodeUrl(url);
+		}
+		url = encodeTemplate(url);
+
+		BeanEncoder encoder = body instanceof Map ? null : encoderFor(body.getClass());
+		StringBuilder sb = new StringBuilder(url.length() + (encoder == null ? 64 : encoder.sizeHint));
+
+		Set<String> consumed = Set.of();
+		if (url.indexOf('{') >= 0) {
+			consumed = expandPath(sb, url, encoder, body);
+		} else {
+			sb.append(url);
+		}
+
+		int separatorAt = sb.length();
+		char last = sb.charAt(separatorAt - 1);
+		if (sb.indexOf("?") < 0) {
+			sb.append('?');
+		} else if (last != '&' && last != '?') {
+			sb.append('&');
+		}
+		int paramsStart = sb.length();
+
+		if (encoder != null) {
+			encoder.write(sb, "", body, consumed, 0);
+		} else {
+			writeMap(sb, "", (Map<?, ?>) body, consumed, 0);
+		}
+
+		if (sb.length() == paramsStart) {
+			// Nothing written: drop the separator we added
+			sb.setLength(separatorAt);
+		} else {
+			// Every parameter ends with '&'
+			sb.setLength(sb.length() - 1);
+		}
+		if (encoder != null) {
+			encoder.sizeHint = sb.length() - url.length() + 16;
+		}
+		return sb.toString();
+	}
+
+	// A URL with nothing to add, encoded as RestTemplate would send it
+	private static String encodeUrl(String url) {
+		int open = url.indexOf('{');
+		int close = open < 0 ? -1 : url.indexOf('}', open);
+		if (close >= 0) {
+			throw new IllegalArgumentException(
+					"No value for path variable " + url.substring(open, close + 1) + " in " + url);
+		}
+		return encodeTemplate(url);
+	}
+
+	// Encodes the URL as RestTemplate would, leaving {name} variables in place.
+	// Most URLs have nothing to encode, so they are returned as they are
+	private static String encodeTemplate(String url) {
+		for (int i = 0; i < url.length(); i++) {
+			if (!isSafe(url.charAt(i))) {
+				return UriComponentsBuilder.fromUriString(url).encode().build().toUriString();
+			}
+		}
+		return url;
+	}
+
+	// Characters no part of a URL gets encoded
+	private static boolean isSafe(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+				|| "-._~/:@!$&'()*+,;=?{}".indexOf(c) >= 0;
+	}
+
+	private BeanEncoder encoderFor(Class<?> type) {
+		return encoders.computeIfAbsent(type, this::introspect);
+	}
+
+	// Collects the serializable properties Jackson sees for a type. Types Jackson
+	// does not write as beans (UUID, java.time, ...) get no properties.
+	private BeanEncoder introspect(Class<?> type) {
+		JavaType javaType = mapper.constructType(type);
+		try {
+			if (!(mapper.getSerializerProviderInstance().findValueSerializer(javaType) instanceof BeanSerializerBase)) {
+				return new BeanEncoder(new Property[0]);
+			}
+		} catch (JsonMappingException e) {
+			throw new IllegalArgumentException("Cannot encode " + type.getName() + " as query parameters", e);
+		}
+		BeanDescription description = mapper.getSerializationConfig().introspect(javaType);
+		List<Property> properties = new ArrayList<>();
+		for (BeanPropertyDefinition definition : description.findProperties()) {
+			AnnotatedMember accessor = definition.getAccessor();
+			if (accessor == null || !definition.couldSerialize()) {
+				continue;
+			}
+			accessor.fixAccess(true);
+			properties.add(new Property(definition.getName(), accessor));
+		}
+		log.debug("Created query parameter encoder for {} with {} propert(ies)", type.getName(), properties.size());
+		return new BeanEncoder(properties.toArray(Property[]::new));
+	}
+
+	// Copies the URL into the buffer, replacing {name} with encoded body values.
+	// Returns the names of the properties used.
+	private Set<String> expandPath(StringBuilder sb, String url, BeanEncoder encoder, Object body) {
+		Set<String> consumed = new HashSet<>();
+		int from = 0;
+		int open;
+		while ((open = url.indexOf('{', from)) >= 0) {
+			int close = url.indexOf('}', open);
+			if (close < 0) {
+				break;
+			}
+			String name = url.substring(open + 1, close);
+			Object value = encoder != null ? encoder.valueOf(body, name) : ((Map<?, ?>) body).get(name);
+			if (value == null) {
+				throw new IllegalArgumentException("No value for path variable {" + name + "} in " + url);
+			}
+			sb.append(url, from, open);
+			appendEncoded(sb, scalarText(value), true);
+			consumed.add(name);
+			from = close + 1;
+		}
+		sb.append(url, from, url.length());
+		return consumed;
+	}
+
+	private void writeValue(StringBuilder sb, String name, Object value, int depth) {
+		if (value == null) {
+			return;
+		}
+		if (isScalar(value)) {
+			sb.append(name).append('=');
+			appendEncoded(sb, scalarText(value), false);
+			sb.append('&');
+			return;
+		}
+		if (depth >= MAX_DEPTH) {
+			log.warn("Query parameter [{}] nested deeper than {} levels, skipped", name, MAX_DEPTH);
+			return;
+		}
+		if (value instanceof Iterable<?> iterable) {
+			int index = 0;
+			for (Object element : iterable) {
+				writeElement(sb, name, index++, element, depth);
+			}
+		} else if (value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			for (int i = 0; i < length; i++) {
+				writeElement(sb, name, i, Array.get(value, i), depth);
+			}
+		} else if (value instanceof Map<?, ?> map) {
+			writeMap(sb, name + '.', map, Set.of(), depth + 1);
+		} else {
+			BeanEncoder encoder = encoderFor(value.getClass());
+			if (encoder.properties.length == 0) {
+				writeOpaque(sb, name, value);
+			} else {
+				encoder.write(sb, name + '.', value, Set.of(), depth + 1);
+			}
+		}
+	}
+
+	// Scalars repeat the parameter name, objects get an indexed prefix
+	private void writeElement(StringBuilder sb, String name, int index, Object element, int depth) {
+		if (element == null || isScalar(element)) {
+			writeValue(sb, name, element, depth + 1);
+		} else {
+			writeValue(sb, name + "%5B" + index + "%5D", element, depth + 1);
+		}
+	}
+
+	private void writeMap(StringBuilder sb, String prefix, Map<?, ?> map, Set<String> consumed, int depth) {
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			if (entry.getKey() == null || consumed.contains(entry.getKey().toString())) {
+				continue;
+			}
+			StringBuilder name = new StringBuilder(prefix);
+			appendEncoded(name, entry.getKey().toString(), false);
+			writeValue(sb, name.toString(), entry.getValue(), depth);
+		}
+	}
+
+	// Types without bean properties: use whatever scalar Jackson renders them as
+	private void writeOpaque(StringBuilder sb, String name, Object value) {
+		JsonNode node = mapper.valueToTree(value);
+		if (node.isValueNode() && !node.isNull()) {
+			sb.append(name).append('=');
+			appendEncoded(sb, node.asText(), false);
+			sb.append('&');
+		}
+	}
+
+	private static boolean isScalar(Object value) {
+		return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character || value instanceof Enum;
+	}
+
+	private String scalarText(Object value) {
+		if (value instanceof Enum<?> constant) {
+			return enumTexts.computeIfAbsent(constant, c -> mapper.convertValue(c, String.class));
+		}
+		if (isScalar(value)) {
+			return value.toString();
+		}
+		JsonNode node = mapper.valueToTree(value);
+		return node.isValueNode() ? node.asText() : node.toString();
+	}
+
+	/**
+	 * Percent-encodes text into the buffer. Query values follow
+	 * {@code application/x-www-form-urlencoded} as {@link java.net.URLEncoder}
+	 * does (space becomes {@code +}); path segments encode space as
+	 * {@code %20}.
+	 */
+	static void appendEncoded(StringBuilder sb, String text, boolean pathSegment) {
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-' || c == '_'
+					|| c == '.' || (c == '*' && !pathSegment)) {
+				sb.append(c);
+			} else if (c == ' ' && !pathSegment) {
+				sb.append('+');
+			} else if (c < 0x80) {
+				appendHex(sb, c);
+			} else {
+				// Encode the whole run of non-ASCII characters as UTF-8 in one go
+				int end = i + 1;
+				while (end < length && text.charAt(end) >= 0x80) {
+					end++;
+				}
+				for (byte b : text.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+					appendHex(sb, b & 0xff);
+				}
+				i = end - 1;
+			}
+		}
+	}
+
+	private static void appendHex(StringBuilder sb, int b) {
+		sb.append('%').append(HEX[b >> 4]).append(HEX[b & 0xf]);
+	}
+
+	// Cached accessor with its parameter name already encoded
+	private record Property(String name, String encodedName, AnnotatedMember accessor) {
+
+		private Property(String name, AnnotatedMember accessor) {
+			this(name, encode(name), accessor);
+		}
+
+		private static String encode(String name) {
+			StringBuilder sb = new StringBuilder(name.length());
+			appendEncoded(sb, name, false);
+			return sb.toString();
+		}
+	}
+
+	// Per-class encoder over the cached properties
+	private final class BeanEncoder {
+
+		private final Property[] properties;
+
+		// Length of the last query string written, used to presize the buffer
+		private volatile int sizeHint = 64;
+
+		private BeanEncoder(Property[] properties) {
+			this.properties = properties;
+		}
+
+		private Object valueOf(Object bean, String name) {
+			for (Property property : properties) {
+				if (property.name().equals(name)) {
+					return property.accessor().getValue(bean);
+				}
+			}
+			return null;
+		}
+
+		private void write(StringBuilder sb, String prefix, Object bean, Set<String> consumed, int depth) {
+			for (Property property : properties) {
+				if (consumed.contains(property.name())) {
+					continue;
+				}
+				String name = prefix.isEmpty() ? property.encodedName() : prefix + property.encodedName();
+				writeValue(sb, name, property.accessor().getValue(bean), depth);
+			}
+		}
+	}
+}
@@ -0,0 +1,416 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditRecord;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.Phase;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.PhaseTimings;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.AdaptiveConcurrencyLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreaker;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerOpenException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimitExceededException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimitExceededException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RetryPolicy;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.TokenBucketRateLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link RestHelper}: executes the same
+ * {@link RestRequestStrategy} through {@code reactiveWebClient}, so calls in
+ * flight hold no thread while waiting on the provider.
+ *
+ * The request entity is built with {@code buildRequestEntityAsync}, which lets
+ * decorators fetch tokens without blocking, and audit records are handed to
+ * {@link ApiAuditTrailWriter} with the {@code restExecutor} taking any blocking
+ * part of their persistence. Circuit breakers, concurrency limits (rejecting
+ * rather than queueing), rate limits (waiting on a timer), retries, metrics and
+ * envelope capture apply as on the blocking engine; hedging does not.
+ * {@code processResult} runs on the event loop and must not block.
+ *
+ * Strategies that stream or cache their responses are delegated to
+ * {@link RestHelper} on the {@code restExecutor}, as the streaming reader and
+ * response cache are blocking.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class ReactiveRestHelper {
+
+	private final WebClient webClient;
+	private final RestHelper restHelper;
+	private final ApiAuditTrailWriter auditWriter;
+	private final JsonHelper jsonHelper;
+	private final ExecutorService restExecutor;
+	private final CircuitBreakerRegistry circuitBreakers;
+	private final ConcurrencyLimiterRegistry concurrencyLimiters;
+	private final RateLimiterRegistry rateLimiters;
+	private final RetryPolicy retryPolicy;
+	private final RestMetrics metrics;
+	private final QueryParamEncoder queryParamEncoder;
+
+	public ReactiveRestHelper(@Qualifier("reactiveWebClient") WebClient webClient, RestHelper restHelper,
+			ApiAuditTrailWriter auditWriter, JsonHelper jsonHelper,
+			@Qualifier("restExecutor") ExecutorService restExecutor, CircuitBreakerRegistry circuitBreakers,
+			ConcurrencyLimiterRegistry concurrencyLimiters, RateLimiterRegistry rateLimiters, RetryPolicy retryPolicy,
+			RestMetrics metrics) {
+		this.webClient = webClient;
+		this.restHelper = restHelper;
+		this.auditWriter = auditWriter;
+		this.jsonHelper = jsonHelper;
+		this.restExecutor = restExecutor;
+		this.circuitBreakers = circuitBreakers;
+		this.concurrencyLimiters = concurrencyLimiters;
+		this.rateLimiters = rateLimiters;
+		this.retryPolicy = retryPolicy;
+		this.metrics = metrics;
+		this.queryParamEncoder = new QueryParamEncoder(jsonHelper.getMapper());
+	}
+
+	/**
+	 * Executes the given REST request strategy once subscribed to, logs metadata
+	 * and saves audit.
+	 *
+	 * @param strategy the REST request strategy
+	 * @param <REQ>    request type
+	 * @param <RES>    response type
+	 * @return a mono emitting the deserialized response after
+	 *         {@code processResult} accepted it, empty for an empty body
+	 */
+	public <REQ, RES> Mono<RES> execute(RestRequestStrategy<REQ, RES> strategy) {
+		return Mono.defer(() -> {
+			try {
+				Duration cacheTtl = strategy.getCacheTtl();
+				if (strategy.isStreaming() || strategy.isIdempotent() && cacheTtl != null && !cacheTtl.isZero()) {
+					return Mono.fromFuture(() -> restHelper.executeAsync(strategy));
+				}
+				return executeReactive(strategy);
+			} catch (Exception ex) {
+				return Mono.error(ex);
+			}
+		});
+	}
+
+	private <REQ, RES> Mono<RES> executeReactive(RestRequestStrategy<REQ, RES> strategy) throws Exception {
+		ZonedDateTime start = ZonedDateTime.now();
+		long buildStart = System.nanoTime();
+		String url = strategy.getUrl();
+		HttpMethod method = strategy.getMethod();
+		Provider provider = strategy.getProvider();
+		String strategyName = strategy.getName();
+		boolean idempotent = strategy.isIdempotent();
+		PhaseTimings timings = metrics.start(provider, strategyName, method.name());
+
+		// Capture raw audit data; serialization happens in the audit writer
+		AuditRecord audit = new AuditRecord();
+		audit.setCorrelationId(RestHelper.newCorrelationId());
+		audit.setProvider(provider);
+		audit.setStrategy(strategyName);
+		audit.setMethod(method.name());
+		audit.setUrl(url);
+		audit.setTimestamp(start);
+		Call call = new Call(audit, circuitBreakers.get(provider), concurrencyLimiters.get(provider),
+				rateLimiters.get(provider, strategyName), timings, new AtomicBoolean());
+
+		return Mono.fromFuture(strategy::buildRequestEntityAsync).flatMap(requestEntity -> {
+			audit.setRequestHeaders(requestEntity.getHeaders());
+			audit.setRequestBody(requestEntity.getBody());
+
+			// Inject body fields as query params for GET requests
+			String target = url;
+			HttpEntity<REQ> sent = requestEntity;
+			if (method == HttpMethod.GET) {
+				target = queryParamEncoder.encode(url, requestEntity.getBody());
+				sent = new HttpEntity<>(requestEntity.getHeaders()); // clear body
+			}
+			timings.record(Phase.BUILD, System.nanoTime() - buildStart);
+
+			log.debug("Executing reactive HTTP {} request to URL: {}", method, target);
+			long exchangeStart = System.nanoTime();
+			return send(idempotent, call, target, method, sent)
+					.doFinally(signal -> timings.record(Phase.EXCHANGE, System.nanoTime() - exchangeStart));
+		}).flatMap(response -> Mono.fromCallable(() -> process(strategy, call, response))).doOnError(ex -> {
+			if (ex instanceof CircuitBreakerOpenException) {
+				audit.setStatus("SHORT_CIRCUITED");
+				audit.setErrorMessage(ex.getMessage());
+				log.warn("REST request short-circuited: {}", ex.getMessage());
+			} else if (ex instanceof ConcurrencyLimitExceededException) {
+				audit.setStatus("REJECTED");
+				audit.setErrorMessage(ex.getMessage());
+				log.warn("REST request rejected: {}", ex.getMessage());
+			} else if (ex instanceof RateLimitExceededException) {
+				audit.setStatus("RATE_LIMITED");
+				audit.setErrorMessage(ex.getMessage());
+				log.warn("REST request rate limited: {}", ex.getMessage());
+			} else {
+				if (audit.getStatus() == null) {
+					audit.setStatus("FAILED");
+					audit.setErrorMessage(ex.getMessage());
+				}
+				log.error("REST request failed", ex);
+			}
+		}).doOnTerminate(() -> finish(call, start)).doOnCancel(() -> {
+			if (audit.getStatus() == null) {
+				audit.setStatus("FAILED");
+				audit.setErrorMessage("Cancelled by subscriber");
+			}
+			finish(call, start);
+		});
+	}
+
+	// Submits the audit and metrics once, before the outcome reaches the subscriber
+	private void finish(Call call, ZonedDateTime start) {
+		if (!call.finished().compareAndSet(false, true)) {
+			return;
+		}
+		AuditRecord audit = call.audit();
+		int durationMs = (int) Duration.between(start, ZonedDateTime.now()).toMillis();
+		audit.setDurationMs(durationMs);
+		auditWriter.submit(audit, restExecutor);
+		metrics.finish(call.timings(), audit.getStatus());
+		log.info("API audit recorded for method [{}] to URL [{}] in {} ms", audit.getMethod(), audit.getUrl(),
+				durationMs);
+	}
+
+	// Deserializes the response, capturing the envelope status in the same pass,
+	// and hands it to the strategy
+	private <REQ, RES> RES process(RestRequestStrategy<REQ, RES> strategy, Call call,
+			ResponseEntity<String> response) throws Exception {
+		AuditRecord audit = call.audit();
+		PhaseTimings timings = call.timings();
+		String responseBody = response.getBody();
+		audit.setResponseStatus(response.getStatusCode().value());
+		audit.setResponseHeaders(response.getHeaders());
+		audit.setResponseBody(responseBody);
+
+		RES responseObj;
+		ResponseEnvelope envelope = ResponseEnvelope.EMPTY;
+		long deserializeStart = System.nanoTime();
+		try {
+			ResponseEnvelope.Fields envelopeFields = strategy.getEnvelopeFields();
+			if (RestHelper.isJson(responseBody) && envelopeFields != null) {
+				try (EnvelopeCapturingParser parser = new EnvelopeCapturingParser(
+						jsonHelper.getMapper().createParser(responseBody), envelopeFields)) {
+					responseObj = jsonHelper.readerFor(strategy.getResponseType()).readValue(parser);
+					envelope = parser.getEnvelope();
+				}
+			} else if (RestHelper.isJson(responseBody)) {
+				responseObj = jsonHelper.read(responseBody, strategy.getResponseType());
+			} else {
+				responseObj = strategy.getResponseType().cast(responseBody); // Plain string fallback
+			}
+		} catch (Exception ex) {
+			audit.setStatus("FAILED");
+			audit.setErrorMessage("Deserialization error: " + ex.getMessage());
+			log.error("Failed to deserialize response", ex);
+			throw new RuntimeException("Failed to map response to target type.");
+		} finally {
+			timings.record(Phase.DESERIALIZE, System.nanoTime() - deserializeStart);
+		}
+
+		audit.setStatus("SUCCESS");
+		long processStart = System.nanoTime();
+		try {
+			strategy.processResult(responseObj, envelope);
+		} finally {
+			timings.record(Phase.PROCESS, System.nanoTime() - processStart);
+		}
+		return responseObj;
+	}
+
+	/**
+	 * Sends the request, taking a rate limit permit for every attempt sent.
+	 * Idempotent calls failing with a provider-side problem are retried with
+	 * jittered backoff within the shared retry budget, the wait scheduled on a
+	 * timer rather than sleeping. Superseded attempts are audited as children
+	 * of the call with status {@code RETRIED}.
+	 */
+	private Mono<ResponseEntity<String>> send(boolean idempotent, Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity) {
+		if (!idempotent || !retryPolicy.isEnabled()) {
+			return permitted(call, url, method, requestEntity);
+		}
+		retryPolicy.onFirstAttempt();
+		return attempt(1, call, url, method, requestEntity);
+	}
+
+	private Mono<ResponseEntity<String>> attempt(int attempt, Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity) {
+		ZonedDateTime attemptStart = ZonedDateTime.now();
+		return permitted(call, url, method, requestEntity).onErrorResume(ex -> {
+			if (attempt >= retryPolicy.getMaxAttempts() || !isProviderFailure(ex) || !retryPolicy.tryRetry()) {
+				return Mono.error(ex);
+			}
+			auditAttempt(call.audit(), attemptStart, ex);
+
+			long backoffNanos = retryPolicy.backoffNanos(attempt);
+			log.warn("Attempt {} of HTTP {} request to URL: {} failed ({}), retrying in {} ms", attempt, method, url,
+					ex.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+			return Mono.delay(Duration.ofNanos(backoffNanos))
+					.then(Mono.defer(() -> attempt(attempt + 1, call, url, method, requestEntity)));
+		});
+	}
+
+	// Exchange sent once the provider's and strategy's rate limiters have a
+	// permit for it, waiting for the permit on a timer. A call cancelled during
+	// the wait gives its permits back
+	private Mono<ResponseEntity<String>> permitted(Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity) {
+		return Mono.defer(() -> {
+			long wait = TokenBucketRateLimiter.reserve(call.rateLimiters());
+			Mono<ResponseEntity<String>> exchange = exchange(call, url, method, requestEntity);
+			if (wait == 0) {
+				return exchange;
+			}
+			return Mono.delay(Duration.ofNanos(wait))
+					.doOnCancel(() -> call.rateLimiters().forEach(TokenBucketRateLimiter::cancel))
+					.then(exchange);
+		});
+	}
+
+	// Audits an attempt whose outcome was superseded by a retry
+	private void auditAttempt(AuditRecord parent, ZonedDateTime start, Throwable error) {
+		AuditRecord attempt = new AuditRecord();
+		attempt.setCorrelationId(RestHelper.newCorrelationId());
+		attempt.setParentCorrelationId(parent.getCorrelationId());
+		attempt.setProvider(parent.getProvider());
+		attempt.setStrategy(parent.getStrategy());
+		attempt.setTimestamp(start);
+		attempt.setMethod(parent.getMethod());
+		attempt.setUrl(parent.getUrl());
+		attempt.setRequestHeaders(parent.getRequestHeaders());
+		attempt.setRequestBody(parent.getRequestBody());
+		if (error instanceof WebClientResponseException responseError) {
+			attempt.setResponseStatus(responseError.getStatusCode().value());
+			attempt.setResponseHeaders(responseError.getHeaders());
+			attempt.setResponseBody(responseError.getResponseBodyAsString());
+		}
+		attempt.setErrorMessage(error.getMessage());
+		attempt.setStatus("RETRIED");
+		attempt.setDurationMs((int) Duration.between(start, ZonedDateTime.now()).toMillis());
+		auditWriter.submit(attempt, restExecutor);
+	}
+
+	/**
+	 * Performs the HTTP exchange, guarded by the provider's concurrency limiter
+	 * and circuit breaker when there are any. Only provider-side problems (I/O
+	 * errors and timeouts, 5xx, 429) count as failures; other client errors do
+	 * not.
+	 */
+	private Mono<ResponseEntity<String>> exchange(Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity) {
+		return Mono.defer(() -> {
+			CircuitBreaker breaker = call.breaker();
+			AdaptiveConcurrencyLimiter limiter = call.limiter();
+			if (breaker == null && limiter == null) {
+				return countedExchange(call.timings(), url, method, requestEntity);
+			}
+			if (limiter != null && !limiter.acquireNow()) {
+				return Mono.error(new ConcurrencyLimitExceededException(limiter.getProvider(), limiter.getLimit()));
+			}
+			if (breaker != null && !breaker.tryAcquirePermission()) {
+				if (limiter != null) {
+					limiter.cancel();
+				}
+				return Mono.error(new CircuitBreakerOpenException(breaker.getProvider()));
+			}
+
+			long start = System.nanoTime();
+			AtomicBoolean released = new AtomicBoolean();
+			return countedExchange(call.timings(), url, method, requestEntity)
+					.doOnSuccess(response -> release(released, breaker, limiter, start, false))
+					.doOnError(ex -> release(released, breaker, limiter, start, isProviderFailure(ex)))
+					.doOnCancel(() -> release(released, breaker, limiter, start, false));
+		});
+	}
+
+	// Reports the outcome once, whichever signal comes first
+	private static void release(AtomicBoolean released, CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter,
+			long start, boolean failure) {
+		if (!released.compareAndSet(false, true)) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		if (breaker != null) {
+			breaker.onResult(elapsed, failure);
+		}
+		if (limiter != null) {
+			limiter.release(elapsed, failure);
+		}
+	}
+
+	// Sends the request with the body serialized by JsonHelper, counting bytes
+	// both ways. GET URLs are already encoded and are sent as they are
+	private Mono<ResponseEntity<String>> countedExchange(PhaseTimings timings, String url, HttpMethod method,
+			HttpEntity<?> requestEntity) {
+		WebClient.RequestBodySpec request = method == HttpMethod.GET
+				? webClient.method(method).uri(URI.create(url))
+				: webClient.method(method).uri(url);
+		request.headers(headers -> headers.addAll(requestEntity.getHeaders()));
+
+		Object body = requestEntity.getBody();
+		WebClient.RequestHeadersSpec<?> spec = request;
+		if (body != null) {
+			String text;
+			try {
+				text = body instanceof String string ? string : jsonHelper.write(body);
+			} catch (Exception ex) {
+				return Mono.error(ex);
+			}
+			if (!(body instanceof String) && requestEntity.getHeaders().getContentType() == null) {
+				request.contentType(MediaType.APPLICATION_JSON);
+			}
+			timings.addBytesSent(RestHelper.utf8Length(text));
+			spec = request.bodyValue(text);
+		}
+
+		return spec.retrieve().toEntity(String.class).doOnSuccess(response -> {
+			if (response != null && response.getBody() != null) {
+				timings.addBytesReceived(RestHelper.utf8Length(response.getBody()));
+			}
+		});
+	}
+
+	private static boolean isProviderFailure(Throwable ex) {
+		if (ex instanceof WebClientResponseException responseError) {
+			return responseError.getStatusCode().is5xxServerError()
+					|| ex instanceof WebClientResponseException.TooManyRequests;
+		}
+		return ex instanceof WebClientRequestException || ex instanceof TimeoutException;
+	}
+
+	// What an attempt needs besides the request itself
+	private record Call(AuditRecord audit, CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter,
+			List<TokenBucketRateLimiter> rateLimiters, PhaseTimings timings, AtomicBoolean finished) {
+	}
+}
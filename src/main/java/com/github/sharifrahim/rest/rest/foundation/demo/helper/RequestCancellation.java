@@ -0,0 +1,69 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.util.function.Supplier;
+
+/**
+ * Cancellation of one hedged attempt. The attempt's thread is bound to it
+ * while it runs, so the request factory can register how to abort the HTTP
+ * request it creates; cancelling then aborts that request, releasing its
+ * connection, and marks the attempt as cancelled rather than failed.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public final class RequestCancellation {
+
+	private static final ThreadLocal<RequestCancellation> CURRENT = new ThreadLocal<>();
+
+	// Set once the attempt is no longer wanted
+	private volatile boolean cancelled;
+
+	// Aborts the request the attempt is sending, if it has created one
+	private volatile Runnable abort;
+
+	/**
+	 * Runs an attempt with the current thread bound to this cancellation.
+	 */
+	<T> T run(Supplier<T> attempt) {
+		CURRENT.set(this);
+		try {
+			return attempt.get();
+		} finally {
+			CURRENT.remove();
+		}
+	}
+
+	/**
+	 * Registers how to abort the request the current thread is about to send.
+	 * Does nothing outside a hedged attempt; aborts right away if the attempt
+	 * was already cancelled.
+	 *
+	 * @param abort aborts the request
+	 */
+	public static void onRequest(Runnable abort) {
+		RequestCancellation cancellation = CURRENT.get();
+		if (cancellation != null) {
+			cancellation.abort = abort;
+			if (cancellation.cancelled) {
+				abort.run();
+			}
+		}
+	}
+
+	/**
+	 * Marks the attempt as cancelled and aborts its request.
+	 */
+	void cancel() {
+		cancelled = true;
+		Runnable request = abort;
+		if (request != null) {
+			request.run();
+		}
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
+}
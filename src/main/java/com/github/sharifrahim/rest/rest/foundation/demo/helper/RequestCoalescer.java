@@ -0,0 +1,161 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-flight layer in front of the HTTP exchange. When identical requests
+ * are in flight at the same time, only the first (the leader) goes to the
+ * provider; the others (followers) wait for and share its raw response.
+ *
+ * Each caller deserializes the shared body itself, so no mutable response
+ * object is handed to several {@code processResult} calls. Failures of the
+ * leader are propagated to its followers. A follower waits for the leader no
+ * longer than the given maximum, then sends its own request, so a hung
+ * exchange does not hold every duplicate caller with it.
+ *
+ * Publishes {@code rest.coalescing.joined} (requests that shared another
+ * caller's exchange), {@code rest.coalescing.timed.out} (followers that gave
+ * up waiting) and {@code rest.coalescing.in.flight} (distinct exchanges in
+ * flight).
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class RequestCoalescer implements MeterBinder {
+
+	private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+
+	/**
+	 * An exchange that may throw.
+	 */
+	@FunctionalInterface
+	public interface Exchange {
+		ResponseEntity<String> exchange() throws Exception;
+	}
+
+	/**
+	 * Outcome of a coalesced exchange.
+	 */
+	@Value
+	public static class Result {
+
+		// The raw response, shared between leader and followers
+		ResponseEntity<String> response;
+
+		// True if this caller performed the exchange itself
+		boolean leader;
+
+		// Correlation ID of the caller that performed the exchange
+		String leaderCorrelationId;
+	}
+
+	/**
+	 * Performs the exchange, or joins an identical one already in flight.
+	 *
+	 * @param key           identifies identical requests
+	 * @param correlationId the caller's correlation ID
+	 * @param maxWait       how long a follower waits for the leader before
+	 *                      performing the exchange itself
+	 * @param exchange      the exchange to perform if this caller leads
+	 * @return the response and who produced it
+	 * @throws Exception if the (leader's) exchange failed
+	 */
+	public Result execute(String key, String correlationId, Duration maxWait, Exchange exchange) throws Exception {
+		InFlight mine = new InFlight(correlationId);
+		InFlight existing = inFlight.putIfAbsent(key, mine);
+
+		if (existing != null) {
+			coalesced.increment();
+			log.debug("Joining in-flight request led by {}", existing.correlationId);
+			try {
+				return new Result(existing.future.get(maxWait.toNanos(), TimeUnit.NANOSECONDS), false,
+						existing.correlationId);
+			} catch (ExecutionException e) {
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			} catch (TimeoutException e) {
+				timedOut.increment();
+				log.warn("Request led by {} still in flight after {} ms, sending own request", existing.correlationId,
+						maxWait.toMillis());
+				return new Result(exchange.exchange(), true, correlationId);
+			}
+		}
+
+		try {
+			ResponseEntity<String> response = exchange.exchange();
+			inFlight.remove(key, mine);
+			mine.future.complete(response);
+			return new Result(response, true, correlationId);
+		} catch (Throwable e) {
+			inFlight.remove(key, mine);
+			mine.future.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of requests served by joining another caller's exchange
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * @return the number of followers that stopped waiting for their leader
+	 */
+	public long getTimedOutCount() {
+		return timedOut.sum();
+	}
+
+	/**
+	 * @return the number of distinct exchanges currently in flight
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("rest.coalescing.joined", this, RequestCoalescer::getCoalescedCount)
+				.description("Requests served by joining an identical exchange in flight")
+				.register(registry);
+		FunctionCounter.builder("rest.coalescing.timed.out", this, RequestCoalescer::getTimedOutCount)
+				.description("Followers that sent their own request after waiting too long for the leader")
+				.register(registry);
+		Gauge.builder("rest.coalescing.in.flight", this, RequestCoalescer::getInFlightCount)
+				.description("Distinct coalescable exchanges in flight")
+				.register(registry);
+	}
+
+	private static final class InFlight {
+
+		private final String correlationId;
+		private final CompletableFuture<ResponseEntity<String>> future = new CompletableFuture<>();
+
+		private InFlight(String correlationId) {
+			this.correlationId = correlationId;
+		}
+	}
+}
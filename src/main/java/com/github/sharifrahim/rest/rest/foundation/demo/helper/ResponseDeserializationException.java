@@ -0,0 +1,21 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+/**
+ * Thrown from inside a streaming response extractor when the body cannot be
+ * mapped to the response type. Unchecked so that {@code RestTemplate} does
+ * not report it as an I/O error, which would count against the provider and
+ * be retried.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+class ResponseDeserializationException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	ResponseDeserializationException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
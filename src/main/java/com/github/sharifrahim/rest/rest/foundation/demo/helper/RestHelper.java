@@ -1,27 +1,57 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.helper;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
 import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
-import com.github.sharifrahim.rest.rest.foundation.demo.service.ApiAuditTrailService;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditRecord;
+import com.github.sharifrahim.rest.rest.foundation.demo.cache.ResponseCache;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CoalescingProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.Phase;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.PhaseTimings;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.AdaptiveConcurrencyLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreaker;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerOpenException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimitExceededException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimitExceededException;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RetryPolicy;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.TokenBucketRateLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementStreamingStrategy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementSummary;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
 import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
 
 import lombok.extern.slf4j.Slf4j;
@@ -31,7 +61,8 @@ import lombok.extern.slf4j.Slf4j;
  * logging, request/response processing, error handling, and audit trail
  * persistence.
  * 
- * Sensitive data in headers or payloads is sanitized before persisting.
+ * Audit data is captured raw and handed to {@link ApiAuditTrailWriter}, which
+ * sanitizes and persists it either inline or in the background.
  * 
  * Author: Sharif
  * 
@@ -43,13 +74,45 @@ import lombok.extern.slf4j.Slf4j;
 public class RestHelper {
 
 	private final RestTemplate restTemplate;
-	private final ApiAuditTrailService auditService;
+	private final ApiAuditTrailWriter auditWriter;
+	private final JsonHelper jsonHelper;
+	private final ExecutorService restExecutor;
+	private final ExecutorService hedgeExecutor;
+	private final Semaphore hedgeSlots;
+	private final ResponseCache responseCache;
+	private final RequestCoalescer coalescer;
+	private final CoalescingProperties coalescingProperties;
+	private final CircuitBreakerRegistry circuitBreakers;
+	private final ConcurrencyLimiterRegistry concurrencyLimiters;
+	private final RateLimiterRegistry rateLimiters;
+	private final RetryPolicy retryPolicy;
+	private final RestMetrics metrics;
+	private final StreamingResponseReader streamingReader;
+	private final QueryParamEncoder queryParamEncoder;
 
-	private static final Set<String> SENSITIVE_KEYS = Set.of("password", "token", "secret", "authorization", "apiKey");
-
-	public RestHelper(@Qualifier("plainRestTemplate") RestTemplate restTemplate, ApiAuditTrailService auditService) {
+	public RestHelper(@Qualifier("plainRestTemplate") RestTemplate restTemplate, ApiAuditTrailWriter auditWriter,
+			JsonHelper jsonHelper, @Qualifier("restExecutor") ExecutorService restExecutor,
+			@Qualifier("hedgeExecutor") ExecutorService hedgeExecutor,
+			ResponseCache responseCache, RequestCoalescer coalescer, CoalescingProperties coalescingProperties,
+			CircuitBreakerRegistry circuitBreakers, ConcurrencyLimiterRegistry concurrencyLimiters,
+			RateLimiterRegistry rateLimiters, RetryPolicy retryPolicy, RestMetrics metrics,
+			StreamingResponseReader streamingReader) {
 		this.restTemplate = restTemplate;
-		this.auditService = auditService;
+		this.auditWriter = auditWriter;
+		this.jsonHelper = jsonHelper;
+		this.restExecutor = restExecutor;
+		this.hedgeExecutor = hedgeExecutor;
+		this.hedgeSlots = new Semaphore(retryPolicy.getMaxConcurrentHedgeAttempts());
+		this.responseCache = responseCache;
+		this.coalescer = coalescer;
+		this.coalescingProperties = coalescingProperties;
+		this.circuitBreakers = circuitBreakers;
+		this.concurrencyLimiters = concurrencyLimiters;
+		this.rateLimiters = rateLimiters;
+		this.retryPolicy = retryPolicy;
+		this.metrics = metrics;
+		this.streamingReader = streamingReader;
+		this.queryParamEncoder = new QueryParamEncoder(jsonHelper.getMapper());
 	}
 
 	/**
@@ -58,21 +121,31 @@ public class RestHelper {
 	 * @param strategy the REST request strategy
 	 * @param <REQ>    request type
 	 * @param <RES>    response type
+	 * @return the deserialized response, after {@code processResult} accepted it
 	 * @throws Exception if request or deserialization fails
 	 */
-	public <REQ, RES> void execute(RestRequestStrategy<REQ, RES> strategy) throws Exception {
+	public <REQ, RES> RES execute(RestRequestStrategy<REQ, RES> strategy) throws Exception {
 		ZonedDateTime start = ZonedDateTime.now();
+		long buildStart = System.nanoTime();
 		String url = strategy.getUrl();
 		HttpMethod method = strategy.getMethod();
 		HttpEntity<REQ> requestEntity = strategy.buildRequestEntity();
+		Provider provider = strategy.getProvider();
+		String strategyName = strategy.getName();
+		PhaseTimings timings = metrics.start(provider, strategyName, method.name());
 
-		// Prepare audit log
-		ApiAuditTrail audit = new ApiAuditTrail();
+		// Capture raw audit data; serialization happens in the audit writer
+		AuditRecord audit = new AuditRecord();
+		audit.setCorrelationId(newCorrelationId());
+		audit.setProvider(provider);
+		audit.setStrategy(strategyName);
 		audit.setMethod(method.name());
 		audit.setUrl(url);
-		audit.setRequestHeaders(toJson(requestEntity.getHeaders()));
-		audit.setRequestBody(toJson(requestEntity.getBody()));
+		audit.setRequestHeaders(requestEntity.getHeaders());
+		audit.setRequestBody(requestEntity.getBody());
 		audit.setTimestamp(start);
+		Call call = new Call(audit, circuitBreakers.get(provider), concurrencyLimiters.get(provider),
+				rateLimiters.get(provider, strategyName), timings);
 
 		try {
 			// Inject body fields as query params for GET requests
@@ -80,20 +153,72 @@ public class RestHelper {
 				url = appendQueryParamsFromBody(url, requestEntity);
 				requestEntity = new HttpEntity<>(requestEntity.getHeaders()); // clear body
 			}
+			timings.record(Phase.BUILD, System.nanoTime() - buildStart);
+
+			boolean idempotent = strategy.isIdempotent();
+			if (strategy.isStreaming()) {
+				return executeStreaming(strategy, call, url, method, requestEntity, idempotent);
+			}
 
-			log.debug("Executing HTTP {} request to URL: {}", method, url);
+			// Serve cacheable strategies from the response cache when possible
+			Duration cacheTtl = strategy.getCacheTtl();
+			boolean cacheable = idempotent && cacheTtl != null && !cacheTtl.isZero() && responseCache.isEnabled();
+			boolean coalescable = coalescingProperties.isEnabled() && idempotent;
+			String requestKey = cacheable || coalescable
+					? requestKey(method, url, strategy.getResponseType(), requestEntity.getBody())
+					: null;
 
-			// Perform the REST call
-			ResponseEntity<String> rawResponse = restTemplate.exchange(url, method, requestEntity, String.class);
+			String responseBody = cacheable ? responseCache.get(requestKey) : null;
+			boolean cacheHit = responseBody != null;
+			boolean coalesced = false;
 
-			// Deserialize the response
-			ObjectMapper mapper = new ObjectMapper();
+			if (cacheHit) {
+				log.debug("Serving HTTP {} request to URL: {} from cache", method, url);
+				audit.setResponseBody(responseBody);
+			} else {
+				log.debug("Executing HTTP {} request to URL: {}", method, url);
+
+				// Perform the REST call, sharing the response of an identical call in flight
+				ResponseEntity<String> rawResponse;
+				long exchangeStart = System.nanoTime();
+				try {
+					if (coalescable) {
+						String exchangeUrl = url;
+						HttpEntity<REQ> exchangeEntity = requestEntity;
+						RequestCoalescer.Result shared = coalescer.execute(requestKey, audit.getCorrelationId(),
+								coalescingProperties.getMaxWait(), () -> send(idempotent, call, exchangeUrl, method,
+										exchangeEntity, textExtractor(timings)));
+						rawResponse = shared.getResponse();
+						if (!shared.isLeader()) {
+							coalesced = true;
+							audit.setParentCorrelationId(shared.getLeaderCorrelationId());
+						}
+					} else {
+						rawResponse = send(idempotent, call, url, method, requestEntity, textExtractor(timings));
+					}
+				} finally {
+					timings.record(Phase.EXCHANGE, System.nanoTime() - exchangeStart);
+				}
+				audit.setResponseStatus(rawResponse.getStatusCode().value());
+				audit.setResponseHeaders(rawResponse.getHeaders());
+				audit.setResponseBody(rawResponse.getBody());
+				responseBody = rawResponse.getBody();
+			}
+
+			// Deserialize the response, capturing the envelope status in the same pass
 			RES responseObj;
+			ResponseEnvelope envelope = ResponseEnvelope.EMPTY;
+			long deserializeStart = System.nanoTime();
 			try {
-				String responseBody = rawResponse.getBody();
-				if (responseBody.trim().startsWith("{") || responseBody.trim().startsWith("[")) {
-					JsonNode jsonNode = mapper.readTree(responseBody);
-					responseObj = mapper.treeToValue(jsonNode, strategy.getResponseType());
+				ResponseEnvelope.Fields envelopeFields = strategy.getEnvelopeFields();
+				if (isJson(responseBody) && envelopeFields != null) {
+					try (EnvelopeCapturingParser parser = new EnvelopeCapturingParser(
+							jsonHelper.getMapper().createParser(responseBody), envelopeFields)) {
+						responseObj = jsonHelper.readerFor(strategy.getResponseType()).readValue(parser);
+						envelope = parser.getEnvelope();
+					}
+				} else if (isJson(responseBody)) {
+					responseObj = jsonHelper.read(responseBody, strategy.getResponseType());
 				} else {
 					responseObj = strategy.getResponseType().cast(responseBody); // Plain string fallback
 				}
@@ -102,10 +227,38 @@ public class RestHelper {
 				audit.setErrorMessage("Deserialization error: " + ex.getMessage());
 				log.error("Failed to deserialize response", ex);
 				throw new RuntimeException("Failed to map response to target type.");
+			} finally {
+				timings.record(Phase.DESERIALIZE, System.nanoTime() - deserializeStart);
+			}
+
+			audit.setStatus(cacheHit ? "CACHE_HIT" : coalesced ? "COALESCED" : "SUCCESS");
+			long processStart = System.nanoTime();
+			try {
+				strategy.processResult(responseObj, envelope);
+			} finally {
+				timings.record(Phase.PROCESS, System.nanoTime() - processStart);
 			}
 
-			audit.setStatus("SUCCESS");
-			strategy.processResult(responseObj);
+			// Only responses accepted by processResult are cached
+			if (cacheable && !cacheHit) {
+				responseCache.put(requestKey, responseBody, cacheTtl);
+			}
+			return responseObj;
+		} catch (CircuitBreakerOpenException ex) {
+			audit.setStatus("SHORT_CIRCUITED");
+			audit.setErrorMessage(ex.getMessage());
+			log.warn("REST request short-circuited: {}", ex.getMessage());
+			throw ex;
+		} catch (ConcurrencyLimitExceededException ex) {
+			audit.setStatus("REJECTED");
+			audit.setErrorMessage(ex.getMessage());
+			log.warn("REST request rejected: {}", ex.getMessage());
+			throw ex;
+		} catch (RateLimitExceededException ex) {
+			audit.setStatus("RATE_LIMITED");
+			audit.setErrorMessage(ex.getMessage());
+			log.warn("REST request rate limited: {}", ex.getMessage());
+			throw ex;
 		} catch (Exception ex) {
 			if (audit.getStatus() == null) {
 				audit.setStatus("FAILED");
@@ -116,97 +269,490 @@ public class RestHelper {
 		} finally {
 			int durationMs = (int) Duration.between(start, ZonedDateTime.now()).toMillis();
 			audit.setDurationMs(durationMs);
-			auditService.save(audit);
-			log.info("API audit saved for method [{}] to URL [{}] in {} ms", method, url, durationMs);
+			auditWriter.submit(audit);
+			metrics.finish(timings, audit.getStatus());
+			log.info("API audit recorded for method [{}] to URL [{}] in {} ms", method, url, durationMs);
 		}
 	}
 
-	// Serialize and sanitize objects to JSON
-	private String toJson(Object o) {
+	/**
+	 * The exchange and deserialization steps of {@link #execute} for streamed
+	 * strategies: the {@link StreamingResponseReader} deserializes the response
+	 * as it arrives, so deserialization is timed as part of the exchange. For
+	 * {@link ElementStreamingStrategy element strategies} that includes
+	 * {@code onElement}, and the call is sent once, without retries or hedging,
+	 * so no element is delivered twice.
+	 */
+	private <REQ, RES> RES executeStreaming(RestRequestStrategy<REQ, RES> strategy, Call call, String url,
+			HttpMethod method, HttpEntity<REQ> requestEntity, boolean idempotent) throws Exception {
+		AuditRecord audit = call.audit();
+		PhaseTimings timings = call.timings();
+		log.debug("Executing streamed HTTP {} request to URL: {}", method, url);
+
+		ResponseEntity<StreamedResponse<RES>> response;
+		long exchangeStart = System.nanoTime();
 		try {
-			Object sanitized = sanitizeObject(o);
-			return new ObjectMapper().writeValueAsString(sanitized);
-		} catch (Exception e) {
-			log.warn("Failed to convert object to JSON", e);
-			return "{}";
-		}
-	}
-
-	// Mask sensitive data in headers or payloads
-	private Object sanitizeObject(Object o) {
-		if (o instanceof HttpHeaders) {
-			HttpHeaders headers = (HttpHeaders) o;
-			HttpHeaders sanitized = new HttpHeaders();
-			headers.forEach((key, values) -> {
-				if (isSensitiveKey(key)) {
-					sanitized.put(key, Collections.singletonList("***"));
-				} else {
-					sanitized.put(key, values);
+			response = send(idempotent && !(strategy instanceof ElementStreamingStrategy), call, url, method,
+					requestEntity, streamingExtractor(strategy, timings));
+		} catch (ResponseDeserializationException ex) {
+			audit.setStatus("FAILED");
+			audit.setErrorMessage("Deserialization error: " + ex.getMessage());
+			log.error("Failed to deserialize response", ex);
+			throw new RuntimeException("Failed to map response to target type.");
+		} finally {
+			timings.record(Phase.EXCHANGE, System.nanoTime() - exchangeStart);
+		}
+		StreamedResponse<RES> body = response.getBody();
+		audit.setResponseStatus(response.getStatusCode().value());
+		audit.setResponseHeaders(response.getHeaders());
+		setResponseBody(audit, body);
+
+		audit.setStatus("SUCCESS");
+		long processStart = System.nanoTime();
+		try {
+			strategy.processResult(body.getValue(), body.getEnvelope());
+		} finally {
+			timings.record(Phase.PROCESS, System.nanoTime() - processStart);
+		}
+		return body.getValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <REQ, RES> ResponseExtractor<ResponseEntity<StreamedResponse<RES>>> streamingExtractor(
+			RestRequestStrategy<REQ, RES> strategy, PhaseTimings timings) throws Exception {
+		if (strategy instanceof ElementStreamingStrategy<?, ?> elements) {
+			// RES is ElementSummary for element strategies
+			return (ResponseExtractor<ResponseEntity<StreamedResponse<RES>>>) (ResponseExtractor<?>) elementExtractor(
+					elements, timings);
+		}
+		return streamingReader.extractor(strategy.getResponseType(), strategy.getEnvelopeFields(), timings);
+	}
+
+	private <E> ResponseExtractor<ResponseEntity<StreamedResponse<ElementSummary>>> elementExtractor(
+			ElementStreamingStrategy<?, E> strategy, PhaseTimings timings) throws Exception {
+		return streamingReader.elementExtractor(strategy, strategy.getElementType(), strategy.getEnvelopeFields(),
+				timings);
+	}
+
+	/**
+	 * Executes the given REST request strategy on the {@code restExecutor}
+	 * (virtual threads by default) without blocking the caller. Auditing and
+	 * {@code processResult} behave exactly as in {@link #execute}.
+	 *
+	 * @param strategy the REST request strategy
+	 * @param <REQ>    request type
+	 * @param <RES>    response type
+	 * @return a future completed with the response, or exceptionally with the
+	 *         failure
+	 */
+	public <REQ, RES> CompletableFuture<RES> executeAsync(RestRequestStrategy<REQ, RES> strategy) {
+		return supplyAsync(() -> execute(strategy));
+	}
+
+	/**
+	 * Runs a blocking call on the {@code restExecutor}. Whatever the call
+	 * throws, checked or not, completes the future exceptionally as it is, so
+	 * dependent stages see the original exception rather than a
+	 * {@link CompletionException}.
+	 *
+	 * @param call the blocking call
+	 * @param <T>  the result type
+	 * @return a future for the call's result
+	 * @throws RejectedExecutionException if the {@code restExecutor} is shut
+	 *                                    down
+	 */
+	<T> CompletableFuture<T> supplyAsync(BlockingCall<T> call) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		restExecutor.execute(() -> {
+			try {
+				future.complete(call.call());
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * A blocking call that may throw a checked exception.
+	 *
+	 * @param <T> the result type
+	 */
+	@FunctionalInterface
+	interface BlockingCall<T> {
+		T call() throws Exception;
+	}
+
+	/**
+	 * Sends the request, taking a rate limit permit for every attempt sent.
+	 * Idempotent calls failing with a provider-side problem are retried with
+	 * jittered backoff, and slow attempts are hedged with a second request once
+	 * they exceed the endpoint's latency percentile, both within the shared
+	 * retry budget. Attempts other than the one whose outcome is returned are
+	 * audited as children of {@code audit}, with status {@code RETRIED} or
+	 * {@code HEDGED}.
+	 */
+	private <T> ResponseEntity<T> send(boolean idempotent, Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity, ResponseExtractor<ResponseEntity<T>> extractor) {
+		if (!idempotent || !retryPolicy.isEnabled()) {
+			TokenBucketRateLimiter.acquire(call.rateLimiters());
+			return exchange(call, url, method, requestEntity, extractor, null);
+		}
+
+		// Latency is tracked per provider and strategy rather than per URL, so ids
+		// in the path do not add a tracker for every resource
+		String endpoint = call.audit().getProvider() + " " + call.audit().getStrategy();
+		retryPolicy.onFirstAttempt();
+		for (int attempt = 1;; attempt++) {
+			ZonedDateTime attemptStart = ZonedDateTime.now();
+			try {
+				return hedgedExchange(endpoint, call, url, method, requestEntity, extractor);
+			} catch (RuntimeException ex) {
+				if (attempt >= retryPolicy.getMaxAttempts() || !isProviderFailure(ex) || !retryPolicy.tryRetry()) {
+					throw ex;
 				}
-			});
-			return sanitized;
-		} else if (o instanceof Map<?, ?>) {
-			Map<String, Object> sanitized = new LinkedHashMap<>();
-			Map<?, ?> map = (Map<?, ?>) o;
-			for (Map.Entry<?, ?> entry : map.entrySet()) {
-				String keyStr = entry.getKey().toString();
-				if (isSensitiveKey(keyStr)) {
-					sanitized.put(keyStr, "***");
-				} else {
-					sanitized.put(keyStr, entry.getValue());
+				auditAttempt(call.audit(), "RETRIED", attemptStart, null, ex);
+
+				long backoffNanos = retryPolicy.backoffNanos(attempt);
+				log.warn("Attempt {} of HTTP {} request to URL: {} failed ({}), retrying in {} ms", attempt, method,
+						url, ex.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+				try {
+					TimeUnit.NANOSECONDS.sleep(backoffNanos);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw ex;
 				}
 			}
-			return sanitized;
+		}
+	}
+
+	/**
+	 * Performs one attempt. Once the endpoint's hedge delay is known, the
+	 * attempt runs on the {@code hedgeExecutor}; if it has not answered within
+	 * the delay a second request is sent and whichever succeeds first wins. The
+	 * other one is cancelled, which aborts its request. The delay starts once
+	 * the attempt has its rate limit permit, and the second request is only
+	 * sent if a permit for it is free at once, so the wait of a throttled call
+	 * never triggers a hedge. When
+	 * {@code rest.retry.hedge.max-concurrent} attempts already run, the attempt
+	 * is sent unhedged.
+	 */
+	private <T> ResponseEntity<T> hedgedExchange(String endpoint, Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity, ResponseExtractor<ResponseEntity<T>> extractor) {
+		TokenBucketRateLimiter.acquire(call.rateLimiters());
+		Duration delay = retryPolicy.hedgeDelay(endpoint);
+		if (delay == null) {
+			return timedExchange(endpoint, call, url, method, requestEntity, extractor, null);
+		}
+
+		ZonedDateTime primaryStart = ZonedDateTime.now();
+		Attempt<T> primary = startAttempt(c -> timedExchange(endpoint, call, url, method, requestEntity, extractor, c));
+		if (primary == null) {
+			return timedExchange(endpoint, call, url, method, requestEntity, extractor, null);
+		}
+		try {
+			return primary.result().get(delay.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			// Slower than usual, hedge below
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			primary.cancel();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for response", e);
+		}
+		if (!TokenBucketRateLimiter.tryAcquire(call.rateLimiters())) {
+			log.debug("No rate limit permit free, not hedging HTTP {} request to URL: {}", method, url);
+			return join(primary.result());
+		}
+		if (!retryPolicy.tryHedge()) {
+			call.rateLimiters().forEach(TokenBucketRateLimiter::cancel);
+			return join(primary.result());
+		}
+
+		log.debug("No response after {} ms, sending hedged HTTP {} request to URL: {}", delay.toMillis(), method, url);
+		ZonedDateTime hedgeStart = ZonedDateTime.now();
+		Attempt<T> hedge = startAttempt(c -> timedExchange(endpoint, call, url, method, requestEntity, extractor, c));
+		if (hedge == null) {
+			call.rateLimiters().forEach(TokenBucketRateLimiter::cancel);
+			return join(primary.result());
+		}
+
+		// The first success wins; if both fail, the original's failure is reported
+		CompletableFuture<Boolean> hedgeWon = new CompletableFuture<>();
+		primary.result().whenComplete((response, error) -> {
+			if (error == null) {
+				hedgeWon.complete(false);
+			} else {
+				hedge.result().whenComplete((r, e) -> hedgeWon.complete(e == null));
+			}
+		});
+		hedge.result().whenComplete((response, error) -> {
+			if (error == null) {
+				hedgeWon.complete(true);
+			} else {
+				primary.result().whenComplete((r, e) -> hedgeWon.complete(false));
+			}
+		});
+
+		boolean won = hedgeWon.join();
+		Attempt<T> loser = won ? primary : hedge;
+		ZonedDateTime loserStart = won ? primaryStart : hedgeStart;
+		loser.cancel();
+		loser.result().whenComplete((response, error) -> auditAttempt(call.audit(), "HEDGED", loserStart, response,
+				error == null || error instanceof CancellationException ? null : unwrap(error)));
+		if (won) {
+			retryPolicy.onHedgeWon();
+		}
+		return join(won ? hedge.result() : primary.result());
+	}
+
+	// Runs an attempt on the hedge executor, or returns null if all hedge slots
+	// are taken
+	private <T> Attempt<T> startAttempt(Function<RequestCancellation, ResponseEntity<T>> exchange) {
+		if (!hedgeSlots.tryAcquire()) {
+			log.debug("Too many hedged attempts running, sending the request unhedged");
+			return null;
+		}
+		CompletableFuture<ResponseEntity<T>> result = new CompletableFuture<>();
+		RequestCancellation cancellation = new RequestCancellation();
+		try {
+			Future<?> task = hedgeExecutor.submit(() -> {
+				try {
+					result.complete(cancellation.run(() -> exchange.apply(cancellation)));
+				} catch (Throwable e) {
+					result.completeExceptionally(e);
+				} finally {
+					hedgeSlots.release();
+				}
+			});
+			return new Attempt<>(result, task, cancellation);
+		} catch (RejectedExecutionException e) {
+			hedgeSlots.release();
+			log.debug("Hedge executor shut down, sending the request unhedged");
+			return null;
+		}
+	}
+
+	// Exchange that feeds the endpoint's latency percentile on success
+	private <T> ResponseEntity<T> timedExchange(String endpoint, Call call, String url, HttpMethod method,
+			HttpEntity<?> requestEntity, ResponseExtractor<ResponseEntity<T>> extractor,
+			RequestCancellation cancellation) {
+		long start = System.nanoTime();
+		ResponseEntity<T> response = exchange(call, url, method, requestEntity, extractor, cancellation);
+		retryPolicy.recordLatency(endpoint, System.nanoTime() - start);
+		return response;
+	}
+
+	// Audits an attempt whose outcome was superseded by another attempt
+	private void auditAttempt(AuditRecord parent, String status, ZonedDateTime start, ResponseEntity<?> response,
+			Throwable error) {
+		AuditRecord attempt = new AuditRecord();
+		attempt.setCorrelationId(newCorrelationId());
+		attempt.setParentCorrelationId(parent.getCorrelationId());
+		attempt.setProvider(parent.getProvider());
+		attempt.setStrategy(parent.getStrategy());
+		attempt.setTimestamp(start);
+		attempt.setMethod(parent.getMethod());
+		attempt.setUrl(parent.getUrl());
+		attempt.setRequestHeaders(parent.getRequestHeaders());
+		attempt.setRequestBody(parent.getRequestBody());
+		if (response != null) {
+			attempt.setResponseStatus(response.getStatusCode().value());
+			attempt.setResponseHeaders(response.getHeaders());
+			setResponseBody(attempt, response.getBody());
+		} else if (error instanceof RestClientResponseException responseError) {
+			attempt.setResponseStatus(responseError.getStatusCode().value());
+			attempt.setResponseHeaders(responseError.getResponseHeaders());
+			attempt.setResponseBody(responseError.getResponseBodyAsString());
+		}
+		if (error != null) {
+			attempt.setErrorMessage(error.getMessage());
+		}
+		attempt.setStatus(status);
+		attempt.setDurationMs((int) Duration.between(start, ZonedDateTime.now()).toMillis());
+		auditWriter.submit(attempt);
+	}
+
+	// Streamed bodies are audited by their captured leading part and full size
+	private static void setResponseBody(AuditRecord audit, Object body) {
+		if (body instanceof StreamedResponse<?> streamed) {
+			audit.setResponseBody(streamed.getAuditText());
+			audit.setResponseBodyLength(streamed.isTruncated() ? streamed.getLength() : null);
 		} else {
-			ObjectMapper mapper = new ObjectMapper();
-			try {
-				Map<String, Object> map = mapper.convertValue(o, new TypeReference<Map<String, Object>>() {
-				});
-				return sanitizeObject(map);
-			} catch (IllegalArgumentException e) {
-				return o;
+			audit.setResponseBody((String) body);
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			throw unwrap(e.getCause());
+		}
+	}
+
+	private static RuntimeException unwrap(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		return cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+	}
+
+	/**
+	 * Performs the HTTP exchange, guarded by the provider's concurrency limiter
+	 * and circuit breaker when there are any. Only provider-side problems (I/O
+	 * errors and timeouts, 5xx, 429) count as failures; other client errors do
+	 * not, nor does a hedged attempt cancelled because the other one won.
+	 */
+	private <T> ResponseEntity<T> exchange(Call call, String url, HttpMethod method, HttpEntity<?> requestEntity,
+			ResponseExtractor<ResponseEntity<T>> extractor, RequestCancellation cancellation) {
+		CircuitBreaker breaker = call.breaker();
+		AdaptiveConcurrencyLimiter limiter = call.limiter();
+		if (breaker == null && limiter == null) {
+			return countedExchange(call.timings(), url, method, requestEntity, extractor);
+		}
+		if (limiter != null && !limiter.acquire()) {
+			throw new ConcurrencyLimitExceededException(limiter.getProvider(), limiter.getLimit());
+		}
+		if (breaker != null && !breaker.tryAcquirePermission()) {
+			if (limiter != null) {
+				limiter.cancel();
+			}
+			throw new CircuitBreakerOpenException(breaker.getProvider());
+		}
+
+		long start = System.nanoTime();
+		boolean failure = false;
+		boolean cancelled = false;
+		try {
+			return countedExchange(call.timings(), url, method, requestEntity, extractor);
+		} catch (RuntimeException ex) {
+			cancelled = cancellation != null && cancellation.isCancelled();
+			failure = !cancelled && isProviderFailure(ex);
+			throw ex;
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			if (breaker != null) {
+				breaker.onResult(elapsed, failure);
+			}
+			if (limiter != null && cancelled) {
+				limiter.cancel();
+			} else if (limiter != null) {
+				limiter.release(elapsed, failure);
 			}
 		}
 	}
 
-	// Checks if a key is sensitive
-	private boolean isSensitiveKey(String key) {
-		return SENSITIVE_KEYS.stream().anyMatch(s -> key.equalsIgnoreCase(s));
+	// Same as RestTemplate.exchange, counting the request body bytes. GET URLs
+	// were percent-encoded by QueryParamEncoder and are sent as they are, since
+	// the template handler would encode their '%' escapes a second time
+	private <T> ResponseEntity<T> countedExchange(PhaseTimings timings, String url, HttpMethod method,
+			HttpEntity<?> requestEntity, ResponseExtractor<ResponseEntity<T>> extractor) {
+		RequestCallback callback = restTemplate.httpEntityCallback(requestEntity, String.class);
+		RequestCallback counted = request -> callback
+				.doWithRequest(new CountingClientHttpRequest(request, timings::addBytesSent));
+		if (method == HttpMethod.GET) {
+			return restTemplate.execute(URI.create(url), method, counted, extractor);
+		}
+		return restTemplate.execute(url, method, counted, extractor);
+	}
+
+	// Reads the response body as text, counting its bytes
+	private ResponseExtractor<ResponseEntity<String>> textExtractor(PhaseTimings timings) {
+		ResponseExtractor<ResponseEntity<String>> extractor = restTemplate.responseEntityExtractor(String.class);
+		return response -> {
+			ResponseEntity<String> entity = extractor.extractData(response);
+			if (entity != null && entity.getBody() != null) {
+				timings.addBytesReceived(utf8Length(entity.getBody()));
+			}
+			return entity;
+		};
+	}
+
+	private boolean isProviderFailure(RuntimeException ex) {
+		return ex instanceof ResourceAccessException || ex instanceof HttpServerErrorException
+				|| ex instanceof HttpClientErrorException.TooManyRequests;
 	}
 
 	/**
-	 * Converts request body fields into query parameters for GET requests.
+	 * Builds the key identifying equivalent requests, for caching and coalescing:
+	 * HTTP method, full URL (including the provider's base URL and any query
+	 * string), response type and a canonical JSON form of the body, so field or
+	 * map ordering does not produce distinct keys. Headers are not part of the
+	 * key.
+	 */
+	private String requestKey(HttpMethod method, String url, Class<?> responseType, Object body) throws Exception {
+		StringBuilder key = new StringBuilder(method.name()).append(' ').append(url).append(' ')
+				.append(responseType.getName());
+		if (body != null) {
+			key.append(' ').append(jsonHelper.writeCanonical(body));
+		}
+		return key.toString();
+	}
+
+	// UTF-8 size of a response body, without encoding it
+	static long utf8Length(String text) {
+		long bytes = text.length();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80) {
+				bytes += c < 0x800 || Character.isSurrogate(c) ? 1 : 2;
+			}
+		}
+		return bytes;
+	}
+
+	// Random (version 4) UUID without the contended SecureRandom of UUID.randomUUID()
+	static String newCorrelationId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+		long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+		return new UUID(msb, lsb).toString();
+	}
+
+	/**
+	 * Converts request body fields into query parameters for GET requests,
+	 * filling any path variables declared in the URL.
 	 *
 	 * @param url    the base URL
 	 * @param entity the request entity
 	 * @return updated URL with query params
+	 * @see QueryParamEncoder
 	 */
-	private String appendQueryParamsFromBody(String url, HttpEntity<?> entity) {
-		Object body = entity.getBody();
-		if (body == null)
-			return url;
-
-		ObjectMapper mapper = new ObjectMapper();
-		JsonNode node = mapper.convertValue(body, JsonNode.class);
+	String appendQueryParamsFromBody(String url, HttpEntity<?> entity) {
+		return queryParamEncoder.encode(url, entity.getBody());
+	}
 
-		Map<String, String> flatParams = new LinkedHashMap<>();
-		node.fields().forEachRemaining(entry -> {
-			if (entry.getValue().isValueNode()) {
-				flatParams.put(entry.getKey(), entry.getValue().asText());
+	// Checks whether a body starts with a JSON object or array, skipping leading
+	// whitespace without copying the string
+	static boolean isJson(String body) {
+		if (body == null) {
+			return false;
+		}
+		for (int i = 0; i < body.length(); i++) {
+			char c = body.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				return c == '{' || c == '[';
 			}
-		});
+		}
+		return false;
+	}
 
-		StringBuilder sb = new StringBuilder(url);
-		if (!url.contains("?"))
-			sb.append("?");
-		else if (!url.endsWith("&"))
-			sb.append("&");
+	// An attempt running on the hedge executor
+	private record Attempt<T>(CompletableFuture<ResponseEntity<T>> result, Future<?> task,
+			RequestCancellation cancellation) {
 
-		flatParams.forEach((k, v) -> {
-			sb.append(URLEncoder.encode(k, StandardCharsets.UTF_8)).append("=")
-					.append(URLEncoder.encode(v, StandardCharsets.UTF_8)).append("&");
-		});
+		// Completes the result as cancelled, then aborts the request and
+		// interrupts the attempt. In the other order the aborted request could
+		// complete the result first
+		void cancel() {
+			result.cancel(false);
+			cancellation.cancel();
+			task.cancel(true);
+		}
+	}
 
-		return sb.substring(0, sb.length() - 1); // Remove trailing '&'
+	// What an attempt needs besides the request itself
+	private record Call(AuditRecord audit, CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter,
+			List<TokenBucketRateLimiter> rateLimiters, PhaseTimings timings) {
 	}
 }
@@ -0,0 +1,35 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+import lombok.Value;
+
+/**
+ * Body of a streamed response: the value deserialized while it was read, the
+ * envelope captured on the way, and the leading part of the raw body kept for
+ * the audit trail.
+ *
+ * @param <T> the response type
+ *
+ *            Author: Sharif
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+class StreamedResponse<T> {
+
+	// Deserialized response, null for an empty body
+	T value;
+
+	// Envelope status captured during deserialization
+	ResponseEnvelope envelope;
+
+	// Leading part of the raw body as text
+	String auditText;
+
+	// Full size of the raw body in bytes
+	long length;
+
+	// Whether auditText holds only part of the body
+	boolean truncated;
+}
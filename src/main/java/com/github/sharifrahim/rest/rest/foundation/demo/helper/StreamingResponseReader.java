@@ -0,0 +1,321 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseExtractor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.PhaseTimings;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementStreamingStrategy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementSummary;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads responses for strategies that stream them: the body is deserialized
+ * straight from the connection's input stream, never held as a string, while
+ * an {@link AuditCaptureInputStream} keeps its leading part for the audit
+ * trail.
+ *
+ * Responses above {@code spool-threshold} are first copied to a temp file at
+ * network speed, so the connection goes back to the pool without waiting on
+ * the deserializer. Without a Content-Length (chunked responses) up to the
+ * threshold is read ahead to tell. The file is memory-mapped and parsed from
+ * the mapping, keeping the body off the heap, and is deleted as soon as
+ * parsing is done.
+ *
+ * For {@link ElementStreamingStrategy element strategies} the array at the
+ * strategy's pointer is walked element by element instead, each one handed to
+ * the strategy before the next is read. Their audit text is the element count
+ * and the first {@code element-sample} elements rather than the raw body.
+ *
+ * Mapping and parse errors are raised as
+ * {@link ResponseDeserializationException}; I/O errors on the connection stay
+ * I/O errors.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class StreamingResponseReader {
+
+	private final JsonHelper jsonHelper;
+	private final int auditCapture;
+	private final long spoolThreshold;
+	private final Path spoolDirectory;
+	private final int elementSample;
+
+	public StreamingResponseReader(JsonHelper jsonHelper, RestClientProperties properties) {
+		RestClientProperties.Streaming config = properties.getStreaming();
+		this.jsonHelper = jsonHelper;
+		this.auditCapture = (int) Math.min(Integer.MAX_VALUE, config.getAuditCapture().toBytes());
+		this.spoolThreshold = config.getSpoolThreshold().toBytes();
+		this.spoolDirectory = config.getSpoolDirectory() == null || config.getSpoolDirectory().isBlank()
+				? Paths.get(System.getProperty("java.io.tmpdir"))
+				: Paths.get(config.getSpoolDirectory());
+		this.elementSample = config.getElementSample();
+	}
+
+	/**
+	 * Creates an extractor deserializing the response as it is read.
+	 *
+	 * @param type    the response type
+	 * @param fields  envelope fields to capture, may be null
+	 * @param timings the call's timings, credited with the bytes received
+	 * @param <T>     the response type
+	 * @return the extractor
+	 */
+	<T> ResponseExtractor<ResponseEntity<StreamedResponse<T>>> extractor(Class<T> type,
+			ResponseEnvelope.Fields fields, PhaseTimings timings) {
+		return extractor((in, charset) -> parse(in, type, fields, charset), timings);
+	}
+
+	/**
+	 * Creates an extractor handing the elements of the strategy's array to
+	 * {@link ElementStreamingStrategy#onElement} as they are read.
+	 *
+	 * @param strategy    the strategy receiving the elements
+	 * @param elementType the element type
+	 * @param fields      envelope fields to capture, may be null
+	 * @param timings     the call's timings, credited with the bytes received
+	 * @param <E>         the element type
+	 * @return the extractor
+	 */
+	<E> ResponseExtractor<ResponseEntity<StreamedResponse<ElementSummary>>> elementExtractor(
+			ElementStreamingStrategy<?, E> strategy, Class<E> elementType, ResponseEnvelope.Fields fields,
+			PhaseTimings timings) {
+		ObjectReader reader = jsonHelper.readerFor(elementType);
+		String pointer = JsonPointer.compile(strategy.getElementsPointer()).toString();
+		return extractor((in, charset) -> parseElements(in, strategy, reader, pointer, fields), timings);
+	}
+
+	private <T> ResponseExtractor<ResponseEntity<StreamedResponse<T>>> extractor(BodyParser<T> parser,
+			PhaseTimings timings) {
+		return response -> {
+			HttpHeaders headers = response.getHeaders();
+			Charset charset = charset(headers);
+			long contentLength = headers.getContentLength();
+			StreamedResponse<T> body;
+			if (contentLength > spoolThreshold) {
+				body = readSpooled(response.getBody(), parser, charset);
+			} else if (contentLength >= 0) {
+				body = read(response.getBody(), parser, charset);
+			} else {
+				body = readUnknownLength(response.getBody(), parser, charset);
+			}
+			timings.addBytesReceived(body.getLength());
+			return new ResponseEntity<>(body, headers, response.getStatusCode());
+		};
+	}
+
+	private <T> StreamedResponse<T> read(InputStream body, BodyParser<T> parser, Charset charset)
+			throws IOException {
+		AuditCaptureInputStream capture = new AuditCaptureInputStream(body, auditCapture);
+		Parsed<T> parsed = parser.parse(capture, charset);
+		// Read what follows the document so the connection can be reused
+		capture.transferTo(OutputStream.nullOutputStream());
+		if (parsed.auditText() != null) {
+			return new StreamedResponse<>(parsed.value(), parsed.envelope(), parsed.auditText(), capture.getCount(),
+					true);
+		}
+		return new StreamedResponse<>(parsed.value(), parsed.envelope(), capture.capturedText(charset),
+				capture.getCount(), capture.isTruncated());
+	}
+
+	// Reads ahead up to the spool threshold: a body ending within it is parsed
+	// from memory, a longer one is spooled
+	private <T> StreamedResponse<T> readUnknownLength(InputStream body, BodyParser<T> parser, Charset charset)
+			throws IOException {
+		byte[] head = body.readNBytes((int) Math.min(spoolThreshold + 1, Integer.MAX_VALUE - 8));
+		InputStream whole = new SequenceInputStream(new ByteArrayInputStream(head), body);
+		return head.length > spoolThreshold ? readSpooled(whole, parser, charset) : read(whole, parser, charset);
+	}
+
+	private <T> StreamedResponse<T> readSpooled(InputStream body, BodyParser<T> parser, Charset charset)
+			throws IOException {
+		Path file = Files.createTempFile(spoolDirectory, "rest-response-", ".spool");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			body.transferTo(Channels.newOutputStream(channel));
+			long length = channel.size();
+			log.debug("Spooled {} byte response to {}", length, file);
+
+			List<MappedByteBuffer> regions = new ArrayList<>();
+			for (long position = 0; position < length; position += Integer.MAX_VALUE) {
+				regions.add(channel.map(FileChannel.MapMode.READ_ONLY, position,
+						Math.min(Integer.MAX_VALUE, length - position)));
+			}
+
+			int prefixLength = (int) Math.min(auditCapture, length);
+			byte[] prefix = new byte[prefixLength];
+			if (prefixLength > 0) {
+				regions.get(0).get(0, prefix);
+			}
+
+			List<InputStream> streams = new ArrayList<>(regions.size());
+			regions.forEach(region -> streams.add(new ByteBufferBackedInputStream(region)));
+			Parsed<T> parsed = parser.parse(new SequenceInputStream(Collections.enumeration(streams)), charset);
+			if (parsed.auditText() != null) {
+				return new StreamedResponse<>(parsed.value(), parsed.envelope(), parsed.auditText(), length, true);
+			}
+			return new StreamedResponse<>(parsed.value(), parsed.envelope(), new String(prefix, charset), length,
+					length > prefixLength);
+		} finally {
+			delete(file);
+		}
+	}
+
+	// Best effort: some platforms refuse to delete a file that is still mapped,
+	// and the response is complete whether or not the spool file is gone
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Cannot delete spooled response {}: {}", file, e.getMessage());
+		}
+	}
+
+	// Deserializes JSON, capturing the envelope if asked; other bodies are text
+	private <T> Parsed<T> parse(InputStream body, Class<T> type, ResponseEnvelope.Fields fields, Charset charset)
+			throws IOException {
+		PushbackInputStream in = new PushbackInputStream(body, 1);
+		int first = skipWhitespace(in);
+		if (first < 0) {
+			return new Parsed<>(null, ResponseEnvelope.EMPTY, null);
+		}
+
+		try {
+			if (first != '{' && first != '[') {
+				// Plain string fallback, as for buffered responses
+				return new Parsed<>(type.cast(new String(in.readAllBytes(), charset)), ResponseEnvelope.EMPTY, null);
+			}
+			try (JsonParser parser = createParser(in, fields)) {
+				T value = jsonHelper.readerFor(type).readValue(parser);
+				return new Parsed<>(value, envelope(parser), null);
+			}
+		} catch (JsonProcessingException | ClassCastException e) {
+			throw new ResponseDeserializationException(e.getMessage(), e);
+		}
+	}
+
+	// Walks the document, handing each element of the array at pointer over
+	private <E> Parsed<ElementSummary> parseElements(InputStream body, ElementStreamingStrategy<?, E> strategy,
+			ObjectReader reader, String pointer, ResponseEnvelope.Fields fields) throws IOException {
+		PushbackInputStream in = new PushbackInputStream(body, 1);
+		List<E> sample = new ArrayList<>(elementSample);
+		long count = 0;
+		ResponseEnvelope envelope = ResponseEnvelope.EMPTY;
+		if (skipWhitespace(in) >= 0) {
+			try (JsonParser parser = createParser(in, fields)) {
+				JsonToken token;
+				while ((token = parser.nextToken()) != null) {
+					if (token != JsonToken.START_ARRAY
+							|| !pointer.equals(parser.getParsingContext().getParent().pathAsPointer().toString())) {
+						continue;
+					}
+					while (parser.nextToken() != JsonToken.END_ARRAY) {
+						E element = reader.readValue(parser);
+						if (count < elementSample) {
+							sample.add(element);
+						}
+						count++;
+						deliver(strategy, element);
+					}
+				}
+				envelope = envelope(parser);
+			} catch (JsonProcessingException e) {
+				throw new ResponseDeserializationException(e.getMessage(), e);
+			}
+		}
+
+		Map<String, Object> audit = new LinkedHashMap<>();
+		audit.put("elementCount", count);
+		audit.put("sample", sample);
+		try {
+			return new Parsed<>(new ElementSummary(count), envelope, jsonHelper.write(audit));
+		} catch (JsonProcessingException e) {
+			throw new ResponseDeserializationException(e.getMessage(), e);
+		}
+	}
+
+	// Failures in the strategy are its own, not I/O or mapping errors
+	private static <E> void deliver(ElementStreamingStrategy<?, E> strategy, E element) {
+		try {
+			strategy.onElement(element);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException("Element processing failed: " + e.getMessage(), e);
+		}
+	}
+
+	// Skips leading whitespace, returning the first other byte (left unread) or -1
+	private static int skipWhitespace(PushbackInputStream in) throws IOException {
+		int first;
+		do {
+			first = in.read();
+		} while (first == ' ' || first == '\t' || first == '\r' || first == '\n');
+		if (first >= 0) {
+			in.unread(first);
+		}
+		return first;
+	}
+
+	// The stream is left open: the caller still drains it
+	private JsonParser createParser(InputStream in, ResponseEnvelope.Fields fields) throws IOException {
+		JsonParser source = jsonHelper.getMapper().createParser(in);
+		source.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+		return fields == null ? source : new EnvelopeCapturingParser(source, fields);
+	}
+
+	private static ResponseEnvelope envelope(JsonParser parser) {
+		return parser instanceof EnvelopeCapturingParser capturing ? capturing.getEnvelope() : ResponseEnvelope.EMPTY;
+	}
+
+	private static Charset charset(HttpHeaders headers) {
+		MediaType contentType = headers.getContentType();
+		return contentType != null && contentType.getCharset() != null ? contentType.getCharset()
+				: StandardCharsets.UTF_8;
+	}
+
+	// Audit text replaces the captured prefix when set
+	private record Parsed<T>(T value, ResponseEnvelope envelope, String auditText) {
+	}
+
+	@FunctionalInterface
+	private interface BodyParser<T> {
+		Parsed<T> parse(InputStream body, Charset charset) throws IOException;
+	}
+}
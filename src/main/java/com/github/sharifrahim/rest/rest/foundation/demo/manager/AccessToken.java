@@ -0,0 +1,23 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.manager;
+
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * An authentication token together with the instant it stops being valid.
+ * 
+ * Author: Sharif
+ * 
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class AccessToken {
+
+	// The bearer token value
+	String value;
+
+	// When the token expires, or null if the provider did not say
+	Instant expiresAt;
+}
@@ -0,0 +1,217 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.manager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.TokenProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link TokenManager} decorator that caches the delegate's token until shortly
+ * before it expires.
+ *
+ * Concurrent callers that find no valid token share a single in-flight fetch.
+ * Once a token is cached, a refresh is scheduled {@code refreshAhead} before
+ * its expiry so callers keep using the current token while the next one is
+ * fetched in the background. A background refresh that fails is retried after
+ * {@code refreshRetryDelay} while the current token is still valid; callers
+ * without a valid token get the failure until then, without a new fetch.
+ *
+ * Each fetch runs on its own virtual thread, so a slow token endpoint holds up
+ * no other provider. The scheduler only times the refreshes.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Slf4j
+public class CachingTokenManager implements TokenManager {
+
+	private final TokenManager delegate;
+	private final TokenProperties properties;
+	private final ScheduledExecutorService scheduler;
+
+	private final AtomicReference<CompletableFuture<AccessToken>> inFlight = new AtomicReference<>();
+	private volatile CachedToken cached;
+	// Last failed fetch, until a fetch succeeds
+	private volatile FailedFetch failed;
+
+	public CachingTokenManager(TokenManager delegate, TokenProperties properties, ScheduledExecutorService scheduler) {
+		this.delegate = delegate;
+		this.properties = properties;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Returns the cached token, fetching a new one if none is valid.
+	 */
+	@Override
+	public String getToken() throws Exception {
+		return getAccessToken().getValue();
+	}
+
+	/**
+	 * Returns the cached token and its expiry, fetching a new one if none is
+	 * valid.
+	 */
+	@Override
+	public AccessToken getAccessToken() throws Exception {
+		AccessToken valid = validToken();
+		if (valid != null) {
+			return valid;
+		}
+
+		log.debug("No valid cached token, waiting for fetch");
+		try {
+			return fetchUnlessBackingOff().get(properties.getFetchTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+		} catch (TimeoutException e) {
+			throw new IllegalStateException("Timed out waiting for token fetch", e);
+		}
+	}
+
+	/**
+	 * Returns the cached token right away, or the in-flight fetch (bounded by
+	 * {@code fetchTimeout}) if none is valid.
+	 */
+	@Override
+	public CompletableFuture<AccessToken> getAccessTokenAsync() {
+		AccessToken valid = validToken();
+		if (valid != null) {
+			return CompletableFuture.completedFuture(valid);
+		}
+		return fetchUnlessBackingOff().copy().orTimeout(properties.getFetchTimeout().toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Drops the cached token so the next call fetches a fresh one.
+	 */
+	@Override
+	public void invalidate() {
+		log.debug("Invalidating cached token");
+		cached = null;
+		delegate.invalidate();
+	}
+
+	// Cached token if still valid, starting a background refresh once it is due
+	private AccessToken validToken() {
+		CachedToken entry = cached;
+		Instant now = Instant.now();
+		if (entry == null || !now.isBefore(entry.token.getExpiresAt())) {
+			return null;
+		}
+		if (!now.isBefore(entry.refreshAt) && !isBackingOff(now)) {
+			// Past the refresh point but still valid; refresh without waiting
+			refresh();
+		}
+		return entry.token;
+	}
+
+	// Whether a fetch failed less than refreshRetryDelay ago
+	private boolean isBackingOff(Instant now) {
+		FailedFetch last = failed;
+		return last != null && now.isBefore(last.retryAt);
+	}
+
+	// The in-flight or a new fetch, or the last failure while backing off from it
+	private CompletableFuture<AccessToken> fetchUnlessBackingOff() {
+		FailedFetch last = failed;
+		if (last != null && Instant.now().isBefore(last.retryAt) && inFlight.get() == null) {
+			return CompletableFuture.failedFuture(
+					new IllegalStateException("Token fetch failed, next attempt after " + last.retryAt, last.error));
+		}
+		return refresh();
+	}
+
+	// Starts a fetch unless one is already running, and returns the in-flight fetch
+	private CompletableFuture<AccessToken> refresh() {
+		while (true) {
+			CompletableFuture<AccessToken> existing = inFlight.get();
+			if (existing != null) {
+				return existing;
+			}
+
+			CompletableFuture<AccessToken> fetch = new CompletableFuture<>();
+			if (inFlight.compareAndSet(null, fetch)) {
+				Thread.ofVirtual().name("token-fetch").start(() -> fetch(fetch));
+				return fetch;
+			}
+		}
+	}
+
+	// Fetches from the delegate, caches the result and schedules the next refresh
+	private void fetch(CompletableFuture<AccessToken> fetch) {
+		try {
+			AccessToken fetched = delegate.getAccessToken();
+			Instant now = Instant.now();
+			AccessToken token = fetched.getExpiresAt() != null ? fetched
+					: new AccessToken(fetched.getValue(), now.plus(properties.getDefaultTtl()));
+
+			// Never refresh earlier than half-way through the token's lifetime, so
+			// short-lived tokens do not trigger back-to-back fetches. A token that
+			// arrives already expired is not refreshed in the background at all
+			Duration lifetime = Duration.between(now, token.getExpiresAt());
+			if (lifetime.isNegative()) {
+				lifetime = Duration.ZERO;
+			}
+			Duration ahead = properties.getRefreshAhead().compareTo(lifetime.dividedBy(2)) < 0
+					? properties.getRefreshAhead()
+					: lifetime.dividedBy(2);
+			CachedToken entry = new CachedToken(token, token.getExpiresAt().minus(ahead));
+
+			cached = entry;
+			failed = null;
+			inFlight.compareAndSet(fetch, null);
+			fetch.complete(token);
+			if (!lifetime.isZero()) {
+				scheduleRefresh(entry, Duration.between(now, entry.refreshAt));
+			}
+			log.debug("Fetched token valid until {}, refreshing at {}", token.getExpiresAt(), entry.refreshAt);
+		} catch (Throwable e) {
+			// Keep using a still valid token and retry the refresh after a delay
+			Instant retryAt = Instant.now().plus(properties.getRefreshRetryDelay());
+			failed = new FailedFetch(e, retryAt);
+			CachedToken entry = cached;
+			if (entry != null && retryAt.isBefore(entry.token.getExpiresAt())) {
+				scheduleRefresh(entry, properties.getRefreshRetryDelay());
+			}
+			inFlight.compareAndSet(fetch, null);
+			fetch.completeExceptionally(e);
+			log.warn("Token fetch failed", e);
+		}
+	}
+
+	// Refreshes the entry in the background unless it has been replaced meanwhile
+	private void scheduleRefresh(CachedToken entry, Duration delay) {
+		scheduler.schedule(() -> {
+			if (cached == entry) {
+				refresh();
+			}
+		}, Math.max(0, delay.toMillis()), TimeUnit.MILLISECONDS);
+	}
+
+	// Failure of the last fetch and the instant the next one may start
+	private record FailedFetch(Throwable error, Instant retryAt) {
+	}
+
+	// Cached token with the instant its background refresh is due
+	private static final class CachedToken {
+
+		private final AccessToken token;
+		private final Instant refreshAt;
+
+		private CachedToken(AccessToken token, Instant refreshAt) {
+			this.token = token;
+			this.refreshAt = refreshAt;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.manager;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for managing and retrieving authentication tokens for external
  * providers. Implementations may include logic for caching, refreshing, or
@@ -19,4 +21,37 @@ public interface TokenManager {
 	 * @throws Exception if token acquisition fails
 	 */
 	String getToken() throws Exception;
+
+	/**
+	 * Retrieves a token together with its expiry. Implementations that know the
+	 * token lifetime should override this; the default reports an unknown expiry.
+	 *
+	 * @return the token and its expiry
+	 * @throws Exception if token acquisition fails
+	 */
+	default AccessToken getAccessToken() throws Exception {
+		return new AccessToken(getToken(), null);
+	}
+
+	/**
+	 * Retrieves a token without blocking the caller, for the reactive engine.
+	 * The default fetches on the calling thread; implementations that can hand
+	 * out a cached token or fetch in the background should override this.
+	 *
+	 * @return a future completed with the token and its expiry
+	 */
+	default CompletableFuture<AccessToken> getAccessTokenAsync() {
+		try {
+			return CompletableFuture.completedFuture(getAccessToken());
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Discards any cached token, e.g. after the provider rejected it with a 401.
+	 * The default does nothing, as non-caching managers have nothing to discard.
+	 */
+	default void invalidate() {
+	}
 }
@@ -0,0 +1,40 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.metrics;
+
+/**
+ * Phases of a REST call timed by {@link RestMetrics}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public enum Phase {
+
+	// URL, method and request entity, including token retrieval
+	BUILD("build"),
+
+	// Network exchange, including retries, hedges and waiting for a free slot
+	EXCHANGE("exchange"),
+
+	// Response deserialization
+	DESERIALIZE("deserialize"),
+
+	// The strategy's processResult
+	PROCESS("process"),
+
+	// Audit serialization and masking, in the audit writer
+	SANITIZE("sanitize");
+
+	private final String tag;
+
+	Phase(String tag) {
+		this.tag = tag;
+	}
+
+	/**
+	 * @return the value used for the {@code phase} tag
+	 */
+	public String getTag() {
+		return tag;
+	}
+}
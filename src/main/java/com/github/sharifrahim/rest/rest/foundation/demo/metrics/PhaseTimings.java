@@ -0,0 +1,93 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-call accumulator for phase durations and payload sizes. Filled in while
+ * the call runs and published by {@link RestMetrics#finish} once its outcome
+ * is known. Phases that did not run (e.g. the exchange on a cache hit) are not
+ * published.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public final class PhaseTimings {
+
+	private static final long NOT_RUN = -1;
+
+	private final String provider;
+	private final String strategy;
+	private final String method;
+	private final long startNanos = System.nanoTime();
+	private final long[] phaseNanos = new long[Phase.values().length];
+
+	// Payload sizes; hedged attempts may add to these from other threads
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final AtomicLong bytesReceived = new AtomicLong();
+
+	PhaseTimings(String provider, String strategy, String method) {
+		this.provider = provider;
+		this.strategy = strategy;
+		this.method = method;
+		Arrays.fill(phaseNanos, NOT_RUN);
+	}
+
+	/**
+	 * Records how long a phase took.
+	 *
+	 * @param phase the phase
+	 * @param nanos the phase duration
+	 */
+	public void record(Phase phase, long nanos) {
+		phaseNanos[phase.ordinal()] = nanos;
+	}
+
+	/**
+	 * @param bytes the number of request body bytes written to the wire
+	 */
+	public void addBytesSent(long bytes) {
+		bytesSent.addAndGet(bytes);
+	}
+
+	/**
+	 * @param bytes the number of response body bytes received
+	 */
+	public void addBytesReceived(long bytes) {
+		bytesReceived.addAndGet(bytes);
+	}
+
+	String getProvider() {
+		return provider;
+	}
+
+	String getStrategy() {
+		return strategy;
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	long getStartNanos() {
+		return startNanos;
+	}
+
+	long getPhaseNanos(Phase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	boolean hasRun(Phase phase) {
+		return phaseNanos[phase.ordinal()] != NOT_RUN;
+	}
+
+	long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	long getBytesReceived() {
+		return bytesReceived.get();
+	}
+}
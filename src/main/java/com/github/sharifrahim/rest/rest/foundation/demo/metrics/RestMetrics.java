@@ -0,0 +1,205 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer instrumentation of the REST pipeline:
+ * <ul>
+ * <li>{@code rest.request} — whole call, as seen by the caller</li>
+ * <li>{@code rest.request.phase} — one timer per {@link Phase}</li>
+ * <li>{@code rest.request.bytes.sent} and {@code rest.request.bytes.received}
+ * — payload sizes</li>
+ * <li>{@code rest.audit.persist} and {@code rest.audit.batch.size} — audit
+ * database writes</li>
+ * <li>{@code rest.audit.detail} — audit sampling decisions, tagged with the
+ * {@code detail} each call was persisted with</li>
+ * </ul>
+ * Request meters are tagged with {@code provider}, {@code strategy},
+ * {@code method} and {@code outcome} (the audit status). Meters are looked up
+ * once per tag combination and cached.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+public class RestMetrics {
+
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+	private final MetricsProperties properties;
+	private final double[] percentiles;
+
+	private final Map<Key, Meters> meters = new ConcurrentHashMap<>();
+	private final Map<String, Timer> persistTimers = new ConcurrentHashMap<>();
+	private final Map<DetailKey, Counter> detailCounters = new ConcurrentHashMap<>();
+	private final DistributionSummary batchSize;
+
+	public RestMetrics(MeterRegistry registry, MetricsProperties properties) {
+		this.registry = registry;
+		this.properties = properties;
+		this.percentiles = properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray();
+		this.batchSize = DistributionSummary.builder("rest.audit.batch.size")
+				.description("Audit records written per database batch")
+				.register(registry);
+	}
+
+	/**
+	 * Starts collecting timings for a call.
+	 *
+	 * @param provider the target provider, may be null
+	 * @param strategy the strategy name
+	 * @param method   the HTTP method
+	 * @return the per-call accumulator
+	 */
+	public PhaseTimings start(Provider provider, String strategy, String method) {
+		return new PhaseTimings(provider == null ? NONE : provider.name(), strategy, method);
+	}
+
+	/**
+	 * Publishes a call's timings and payload sizes.
+	 *
+	 * @param timings the per-call accumulator
+	 * @param outcome the call's audit status
+	 */
+	public void finish(PhaseTimings timings, String outcome) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		Meters m = meters(timings.getProvider(), timings.getStrategy(), timings.getMethod(), outcome);
+		m.total().record(System.nanoTime() - timings.getStartNanos(), TimeUnit.NANOSECONDS);
+		for (Phase phase : Phase.values()) {
+			if (timings.hasRun(phase)) {
+				m.phases()[phase.ordinal()].record(timings.getPhaseNanos(phase), TimeUnit.NANOSECONDS);
+			}
+		}
+		if (timings.getBytesSent() > 0) {
+			m.bytesSent().increment(timings.getBytesSent());
+		}
+		if (timings.getBytesReceived() > 0) {
+			m.bytesReceived().increment(timings.getBytesReceived());
+		}
+	}
+
+	/**
+	 * Records a phase that runs outside the call, such as audit sanitization in
+	 * a background writer.
+	 *
+	 * @param phase    the phase
+	 * @param provider the target provider, may be null
+	 * @param strategy the strategy name, may be null
+	 * @param method   the HTTP method tag
+	 * @param outcome  the call's audit status
+	 * @param nanos    the phase duration
+	 */
+	public void record(Phase phase, Provider provider, String strategy, String method, String outcome, long nanos) {
+		if (properties.isEnabled()) {
+			Meters m = meters(provider == null ? NONE : provider.name(), strategy, method, outcome);
+			m.phases()[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Records one audit database write.
+	 *
+	 * @param records the number of records in the batch
+	 * @param success whether the write succeeded
+	 * @param nanos   the write duration
+	 */
+	public void recordAuditPersist(int records, boolean success, long nanos) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		String outcome = success ? "SUCCESS" : "FAILED";
+		persistTimers.computeIfAbsent(outcome, o -> percentiles(Timer.builder("rest.audit.persist"))
+				.description("Audit database writes")
+				.tag("outcome", o)
+				.register(registry))
+				.record(nanos, TimeUnit.NANOSECONDS);
+		batchSize.record(records);
+	}
+
+	/**
+	 * Counts one audit sampling decision.
+	 *
+	 * @param provider the target provider, may be null
+	 * @param strategy the strategy name, may be null
+	 * @param method   the HTTP method tag
+	 * @param outcome  the call's audit status
+	 * @param detail   the detail the call is persisted with
+	 */
+	public void recordAuditDetail(Provider provider, String strategy, String method, String outcome, String detail) {
+		if (!properties.isEnabled()) {
+			return;
+		}
+		Key key = new Key(provider == null ? NONE : provider.name(), strategy == null ? NONE : strategy,
+				method == null ? NONE : method, outcome == null ? NONE : outcome);
+		detailCounters.computeIfAbsent(new DetailKey(key, detail), k -> Counter.builder("rest.audit.detail")
+				.description("Audit records by persisted detail")
+				.tags("provider", key.provider, "strategy", key.strategy, "method", key.method, "outcome", key.outcome,
+						"detail", detail)
+				.register(registry))
+				.increment();
+	}
+
+	private Meters meters(String provider, String strategy, String method, String outcome) {
+		Key key = new Key(provider, strategy == null ? NONE : strategy, method == null ? NONE : method,
+				outcome == null ? NONE : outcome);
+		return meters.computeIfAbsent(key, this::register);
+	}
+
+	private Meters register(Key key) {
+		String[] tags = { "provider", key.provider, "strategy", key.strategy, "method", key.method, "outcome",
+				key.outcome };
+		Timer total = percentiles(Timer.builder("rest.request"))
+				.description("REST calls, end to end")
+				.tags(tags)
+				.register(registry);
+		Timer[] phases = new Timer[Phase.values().length];
+		for (Phase phase : Phase.values()) {
+			phases[phase.ordinal()] = percentiles(Timer.builder("rest.request.phase"))
+					.description("REST call phases")
+					.tags(tags)
+					.tag("phase", phase.getTag())
+					.register(registry);
+		}
+		Counter sent = Counter.builder("rest.request.bytes.sent")
+				.baseUnit("bytes")
+				.description("Request body bytes written")
+				.tags(tags)
+				.register(registry);
+		Counter received = Counter.builder("rest.request.bytes.received")
+				.baseUnit("bytes")
+				.description("Response body bytes received")
+				.tags(tags)
+				.register(registry);
+		return new Meters(total, phases, sent, received);
+	}
+
+	private Timer.Builder percentiles(Timer.Builder builder) {
+		return builder.publishPercentiles(percentiles).publishPercentileHistogram(properties.isPercentileHistogram());
+	}
+
+	private record Key(String provider, String strategy, String method, String outcome) {
+	}
+
+	private record DetailKey(Key key, String detail) {
+	}
+
+	private record Meters(Timer total, Timer[] phases, Counter bytesSent, Counter bytesReceived) {
+	}
+}
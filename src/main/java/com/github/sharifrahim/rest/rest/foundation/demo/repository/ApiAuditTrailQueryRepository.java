@@ -0,0 +1,43 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+/**
+ * Filtered, bounded queries over the audit trail, mixed into
+ * {@link ApiAuditTrailRepository}. Results are ordered newest first by
+ * timestamp, then by ID.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public interface ApiAuditTrailQueryRepository {
+
+	/**
+	 * Returns up to {@code limit} rows matching the filter, starting right after
+	 * the cursor.
+	 *
+	 * @param filter the criteria to match
+	 * @param after  where the previous page ended, or null for the first page
+	 * @param limit  the maximum number of rows to return
+	 * @return the matching rows
+	 */
+	List<ApiAuditTrail> findPage(AuditTrailFilter filter, AuditTrailCursor after, int limit);
+
+	/**
+	 * Streams every row matching the filter, fetching {@code fetchSize} rows per
+	 * database round trip. Rows are detached as they are read so the persistence
+	 * context does not grow. Must be consumed and closed within a transaction.
+	 *
+	 * @param filter    the criteria to match
+	 * @param fetchSize the JDBC fetch size
+	 * @return the matching rows
+	 */
+	Stream<ApiAuditTrail> stream(AuditTrailFilter filter, int fetchSize);
+}
@@ -0,0 +1,100 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.repository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Criteria API implementation of {@link ApiAuditTrailQueryRepository}. Only
+ * the filters that are set end up in the SQL, and the cursor becomes a
+ * {@code (timestamp, id) < (?, ?)} seek condition served by the
+ * {@code api_audit_trail_timestamp_idx} index instead of an {@code OFFSET}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@RequiredArgsConstructor
+public class ApiAuditTrailQueryRepositoryImpl implements ApiAuditTrailQueryRepository {
+
+	private static final char LIKE_ESCAPE = '\\';
+
+	private final EntityManager entityManager;
+
+	@Override
+	public List<ApiAuditTrail> findPage(AuditTrailFilter filter, AuditTrailCursor after, int limit) {
+		return query(filter, after).setMaxResults(limit).getResultList();
+	}
+
+	@Override
+	public Stream<ApiAuditTrail> stream(AuditTrailFilter filter, int fetchSize) {
+		return query(filter, null)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream()
+				.peek(entityManager::detach);
+	}
+
+	// Builds the filtered, keyset ordered query
+	private TypedQuery<ApiAuditTrail> query(AuditTrailFilter filter, AuditTrailCursor after) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ApiAuditTrail> cq = cb.createQuery(ApiAuditTrail.class);
+		Root<ApiAuditTrail> root = cq.from(ApiAuditTrail.class);
+		Path<ZonedDateTime> timestamp = root.get("timestamp");
+		Path<Long> id = root.get("id");
+
+		List<Predicate> predicates = new ArrayList<>();
+		if (filter.getStatus() != null) {
+			predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+		}
+		if (filter.getMethod() != null) {
+			predicates.add(cb.equal(root.get("method"), filter.getMethod()));
+		}
+		if (filter.getUrlPrefix() != null) {
+			predicates.add(cb.like(root.get("url"), escapeLike(filter.getUrlPrefix()) + "%", LIKE_ESCAPE));
+		}
+		if (filter.getFrom() != null) {
+			predicates.add(cb.greaterThanOrEqualTo(timestamp, filter.getFrom()));
+		}
+		if (filter.getTo() != null) {
+			predicates.add(cb.lessThan(timestamp, filter.getTo()));
+		}
+		if (after != null) {
+			predicates.add(cb.or(cb.lessThan(timestamp, after.getTimestamp()),
+					cb.and(cb.equal(timestamp, after.getTimestamp()), cb.lessThan(id, after.getId()))));
+		}
+
+		cq.select(root).where(predicates.toArray(Predicate[]::new)).orderBy(cb.desc(timestamp), cb.desc(id));
+		return entityManager.createQuery(cq);
+	}
+
+	// Makes LIKE wildcards in the prefix match literally
+	private static String escapeLike(String value) {
+		StringBuilder escaped = new StringBuilder(value.length() + 8);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+				escaped.append(LIKE_ESCAPE);
+			}
+			escaped.append(c);
+		}
+		return escaped.toString();
+	}
+}
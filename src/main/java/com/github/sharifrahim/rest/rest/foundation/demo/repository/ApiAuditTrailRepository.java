@@ -1,13 +1,19 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
 
 /**
  * Repository interface for {@link ApiAuditTrail} entity. Extends
- * {@link JpaRepository} to provide CRUD operations and custom query methods.
+ * {@link JpaRepository} to provide CRUD operations and custom query methods,
+ * and {@link ApiAuditTrailQueryRepository} for filtered keyset paging and
+ * streaming.
  * 
  * Author: Sharif
  * 
@@ -15,7 +21,7 @@ import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
  *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
  */
 @Repository
-public interface ApiAuditTrailRepository extends JpaRepository<ApiAuditTrail, Long> {
+public interface ApiAuditTrailRepository extends JpaRepository<ApiAuditTrail, Long>, ApiAuditTrailQueryRepository {
 
 	/**
 	 * Finds an audit trail entry by its correlation ID.
@@ -24,4 +30,13 @@ public interface ApiAuditTrailRepository extends JpaRepository<ApiAuditTrail, Lo
 	 * @return the matching {@link ApiAuditTrail}, or null if not found
 	 */
 	ApiAuditTrail findByCorrelationId(String correlationId);
+
+	/**
+	 * Returns which of the given correlation IDs are already stored.
+	 *
+	 * @param correlationIds the correlation IDs to look up
+	 * @return the subset that exists
+	 */
+	@Query("select a.correlationId from ApiAuditTrail a where a.correlationId in :correlationIds")
+	Set<String> findExistingCorrelationIds(Collection<String> correlationIds);
 }
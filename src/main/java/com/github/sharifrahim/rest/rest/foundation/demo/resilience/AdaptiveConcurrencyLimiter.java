@@ -0,0 +1,248 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gradient based concurrency limiter for a single provider.
+ *
+ * Every completed call contributes its round-trip time. A long-term average
+ * of those samples serves as the baseline latency of a healthy provider. When
+ * recent calls are slower than the baseline (beyond {@code rttTolerance}) the
+ * limit shrinks in proportion, and while latency stays at the baseline it
+ * grows by roughly its square root per sample. Calls failing with provider
+ * overload (I/O errors, 5xx, 429) shrink the limit by {@code backoffRatio}.
+ * The limit is kept between {@code minLimit} and {@code maxLimit}.
+ *
+ * Acquiring a slot is a CAS on the in-flight count. Callers finding the limit
+ * reached wait up to {@code maxQueueWait} for a slot to free up and are
+ * rejected after that.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+	private final Provider provider;
+	private final ConcurrencyLimitProperties.Settings settings;
+	private final long maxQueueWaitNanos;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final LongAdder rejected = new LongAdder();
+
+	// Callers waiting for a slot park on this condition
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition slotFreed = lock.newCondition();
+	private volatile int queued;
+
+	// Current limit, published by the estimator under its monitor
+	private volatile int limit;
+	private final Estimator estimator;
+
+	public AdaptiveConcurrencyLimiter(Provider provider, ConcurrencyLimitProperties.Settings settings) {
+		this.provider = provider;
+		this.settings = settings;
+		this.maxQueueWaitNanos = settings.getMaxQueueWait().toNanos();
+		this.limit = settings.getInitialLimit();
+		this.estimator = new Estimator(settings.getInitialLimit());
+	}
+
+	/**
+	 * Takes a slot, waiting up to the configured queue wait if none is free.
+	 * Every successful acquire must be paired with {@link #release}.
+	 *
+	 * @return true if a slot was taken, false if the call must be rejected
+	 */
+	public boolean acquire() {
+		if (tryAcquire()) {
+			return true;
+		}
+		if (maxQueueWaitNanos <= 0) {
+			rejected.increment();
+			return false;
+		}
+
+		lock.lock();
+		try {
+			queued++;
+			long remaining = maxQueueWaitNanos;
+			while (!tryAcquire()) {
+				if (remaining <= 0) {
+					rejected.increment();
+					return false;
+				}
+				remaining = slotFreed.awaitNanos(remaining);
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejected.increment();
+			return false;
+		} finally {
+			queued--;
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes a slot only if one is free right away, for callers that must not
+	 * block, such as the reactive engine. Every successful acquire must be
+	 * paired with {@link #release}.
+	 *
+	 * @return true if a slot was taken, false if the call must be rejected
+	 */
+	public boolean acquireNow() {
+		if (tryAcquire()) {
+			return true;
+		}
+		rejected.increment();
+		return false;
+	}
+
+	/**
+	 * Gives back a slot and feeds the call's outcome into the limit estimate.
+	 *
+	 * @param rttNanos how long the call took
+	 * @param overload true if the provider signalled overload (5xx, 429, I/O
+	 *                 error)
+	 */
+	public void release(long rttNanos, boolean overload) {
+		int inFlightAtRelease = inFlight.getAndDecrement();
+		int previous = limit;
+		int updated = estimator.update(rttNanos, overload, inFlightAtRelease);
+		if (updated != previous && log.isDebugEnabled()) {
+			log.debug("Concurrency limit for {} changed from {} to {}", provider, previous, updated);
+		}
+		wakeWaiters(updated > previous);
+	}
+
+	/**
+	 * Gives back a slot for a call that never reached the provider, without
+	 * affecting the limit estimate.
+	 */
+	public void cancel() {
+		inFlight.decrementAndGet();
+		wakeWaiters(false);
+	}
+
+	public Provider getProvider() {
+		return provider;
+	}
+
+	/**
+	 * @return the current concurrency limit
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return the number of calls currently holding a slot
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * @return the number of calls waiting for a slot
+	 */
+	public int getQueued() {
+		return queued;
+	}
+
+	/**
+	 * @return the number of calls rejected because no slot freed up in time
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	// Wakes one waiter per freed slot, or all of them when the limit grew
+	private void wakeWaiters(boolean all) {
+		if (queued == 0) {
+			return;
+		}
+		lock.lock();
+		try {
+			if (all) {
+				slotFreed.signalAll();
+			} else {
+				slotFreed.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	// Gradient limit estimate; cheap enough to update under a monitor per call
+	private final class Estimator {
+
+		private double estimate;
+		private double baselineRttNanos;
+		private double recentRttNanos;
+		private long samples;
+
+		private Estimator(int initialLimit) {
+			this.estimate = initialLimit;
+		}
+
+		private synchronized int update(long rttNanos, boolean overload, int inFlightAtRelease) {
+			if (overload) {
+				estimate = clamp(estimate * settings.getBackoffRatio());
+				return publish();
+			}
+
+			samples++;
+			double baselineWeight = 1.0 / Math.min(samples, settings.getBaselineWindow());
+			baselineRttNanos += (rttNanos - baselineRttNanos) * baselineWeight;
+			recentRttNanos = samples == 1 ? rttNanos : recentRttNanos + (rttNanos - recentRttNanos) * 0.5;
+
+			// Let the baseline catch up quickly once the provider has become faster
+			if (baselineRttNanos > 2 * recentRttNanos) {
+				baselineRttNanos *= 0.95;
+			}
+
+			// Lightly used limiter: latency says nothing about the limit, keep it
+			if (inFlightAtRelease < estimate / 2) {
+				return publish();
+			}
+
+			double gradient = Math.max(0.5,
+					Math.min(1.0, settings.getRttTolerance() * baselineRttNanos / recentRttNanos));
+			double target = estimate * gradient + Math.sqrt(estimate);
+			estimate = clamp(estimate * (1 - settings.getSmoothing()) + target * settings.getSmoothing());
+			return publish();
+		}
+
+		private int publish() {
+			limit = (int) estimate;
+			return limit;
+		}
+
+		private double clamp(double value) {
+			return Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), value));
+		}
+	}
+}
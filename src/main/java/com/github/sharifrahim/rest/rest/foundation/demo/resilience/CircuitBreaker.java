@@ -0,0 +1,236 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lock-free circuit breaker for a single provider.
+ *
+ * While CLOSED, the outcome of the most recent {@code windowSize} calls is kept
+ * in a ring buffer. Once at least {@code minimumCalls} are recorded and either
+ * the failure rate or the slow-call rate reaches its threshold, the circuit
+ * OPENs and calls are rejected without touching the network. After
+ * {@code openDuration} it goes HALF_OPEN and lets {@code halfOpenCalls} probes
+ * through: if all succeed quickly it CLOSES again, otherwise it re-OPENs.
+ *
+ * Each state is an immutable {@link Phase} swapped in with a CAS, carrying its
+ * own counters, so a transition never races with callers updating the
+ * counters of the previous state.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Slf4j
+public class CircuitBreaker {
+
+	/**
+	 * Circuit breaker states.
+	 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final Provider provider;
+	private final CircuitBreakerProperties.Settings settings;
+	private final long slowCallNanos;
+	private final long openNanos;
+
+	private final AtomicReference<Phase> phase;
+	private final LongAdder shortCircuited = new LongAdder();
+
+	public CircuitBreaker(Provider provider, CircuitBreakerProperties.Settings settings) {
+		this.provider = provider;
+		this.settings = settings;
+		this.slowCallNanos = settings.getSlowCallDuration().toNanos();
+		this.openNanos = settings.getOpenDuration().toNanos();
+		this.phase = new AtomicReference<>(closed());
+	}
+
+	/**
+	 * Checks whether a call may go to the provider.
+	 *
+	 * @return true if the call is permitted, false if it must fail fast
+	 */
+	public boolean tryAcquirePermission() {
+		Phase current = phase.get();
+		if (current.state == State.CLOSED) {
+			return true;
+		}
+
+		if (current.state == State.OPEN) {
+			if (System.nanoTime() - current.sinceNanos < openNanos) {
+				shortCircuited.increment();
+				return false;
+			}
+			Phase halfOpen = new Phase(State.HALF_OPEN, null);
+			if (phase.compareAndSet(current, halfOpen)) {
+				log.info("Circuit breaker for {} is HALF_OPEN, allowing {} probe call(s)", provider,
+						settings.getHalfOpenCalls());
+			}
+			current = phase.get();
+			if (current.state != State.HALF_OPEN) {
+				return tryAcquirePermission();
+			}
+		}
+
+		if (current.probePermits.getAndDecrement() > 0) {
+			return true;
+		}
+		shortCircuited.increment();
+		return false;
+	}
+
+	/**
+	 * Records the outcome of a permitted call.
+	 *
+	 * @param durationNanos how long the call took
+	 * @param failure       true if the provider failed (5xx, 429, I/O error)
+	 */
+	public void onResult(long durationNanos, boolean failure) {
+		boolean slow = durationNanos >= slowCallNanos;
+		Phase current = phase.get();
+
+		switch (current.state) {
+		case CLOSED:
+			current.window.record(failure, slow);
+			if (current.window.shouldOpen()) {
+				open(current, "failure rate " + current.window.failureRate() + "%, slow-call rate "
+						+ current.window.slowCallRate() + "%");
+			}
+			break;
+		case HALF_OPEN:
+			if (failure || slow) {
+				open(current, failure ? "probe call failed" : "probe call was slow");
+			} else if (current.probeSuccesses.incrementAndGet() >= settings.getHalfOpenCalls()
+					&& phase.compareAndSet(current, closed())) {
+				log.info("Circuit breaker for {} is CLOSED again", provider);
+			}
+			break;
+		default:
+			// Results arriving after the circuit opened are ignored
+		}
+	}
+
+	public Provider getProvider() {
+		return provider;
+	}
+
+	public State getState() {
+		return phase.get().state;
+	}
+
+	/**
+	 * @return the failure percentage over the current window (0 unless CLOSED)
+	 */
+	public int getFailureRate() {
+		Window window = phase.get().window;
+		return window == null ? 0 : window.failureRate();
+	}
+
+	/**
+	 * @return the slow-call percentage over the current window (0 unless CLOSED)
+	 */
+	public int getSlowCallRate() {
+		Window window = phase.get().window;
+		return window == null ? 0 : window.slowCallRate();
+	}
+
+	/**
+	 * @return the number of calls rejected without reaching the provider
+	 */
+	public long getShortCircuitedCount() {
+		return shortCircuited.sum();
+	}
+
+	private void open(Phase from, String reason) {
+		if (phase.compareAndSet(from, new Phase(State.OPEN, null))) {
+			log.warn("Circuit breaker for {} is OPEN for {} ms: {}", provider, settings.getOpenDuration().toMillis(),
+					reason);
+		}
+	}
+
+	private Phase closed() {
+		return new Phase(State.CLOSED, new Window(settings));
+	}
+
+	// Immutable state with the counters that belong to it
+	private final class Phase {
+
+		private final State state;
+		private final long sinceNanos = System.nanoTime();
+		private final Window window;
+		private final AtomicInteger probePermits = new AtomicInteger(settings.getHalfOpenCalls());
+		private final AtomicInteger probeSuccesses = new AtomicInteger();
+
+		private Phase(State state, Window window) {
+			this.state = state;
+			this.window = window;
+		}
+	}
+
+	// Count-based sliding window of call outcomes
+	private static final class Window {
+
+		private static final int RECORDED = 1;
+		private static final int FAILED = 2;
+		private static final int SLOW = 4;
+
+		private final CircuitBreakerProperties.Settings settings;
+		private final AtomicIntegerArray outcomes;
+		private final AtomicLong cursor = new AtomicLong();
+		private final AtomicInteger calls = new AtomicInteger();
+		private final AtomicInteger failures = new AtomicInteger();
+		private final AtomicInteger slowCalls = new AtomicInteger();
+
+		private Window(CircuitBreakerProperties.Settings settings) {
+			this.settings = settings;
+			this.outcomes = new AtomicIntegerArray(settings.getWindowSize());
+		}
+
+		private void record(boolean failure, boolean slow) {
+			int outcome = RECORDED | (failure ? FAILED : 0) | (slow ? SLOW : 0);
+			int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+			int evicted = outcomes.getAndSet(slot, outcome);
+			adjust(evicted, -1);
+			adjust(outcome, 1);
+		}
+
+		private void adjust(int outcome, int delta) {
+			if ((outcome & RECORDED) != 0) {
+				calls.addAndGet(delta);
+			}
+			if ((outcome & FAILED) != 0) {
+				failures.addAndGet(delta);
+			}
+			if ((outcome & SLOW) != 0) {
+				slowCalls.addAndGet(delta);
+			}
+		}
+
+		private boolean shouldOpen() {
+			return calls.get() >= settings.getMinimumCalls()
+					&& (failureRate() >= settings.getFailureRateThreshold()
+							|| slowCallRate() >= settings.getSlowCallRateThreshold());
+		}
+
+		private int failureRate() {
+			int total = calls.get();
+			return total == 0 ? 0 : failures.get() * 100 / total;
+		}
+
+		private int slowCallRate() {
+			int total = calls.get();
+			return total == 0 ? 0 : slowCalls.get() * 100 / total;
+		}
+	}
+}
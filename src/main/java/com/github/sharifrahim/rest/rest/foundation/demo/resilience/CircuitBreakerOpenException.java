@@ -0,0 +1,20 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+/**
+ * Thrown instead of calling a provider whose circuit breaker is open.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public CircuitBreakerOpenException(Provider provider) {
+		super("Circuit breaker for " + provider + " is open, call not permitted");
+	}
+}
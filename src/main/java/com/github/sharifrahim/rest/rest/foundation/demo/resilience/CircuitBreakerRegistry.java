@@ -0,0 +1,78 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one {@link CircuitBreaker} per {@link Provider} and publishes their
+ * state as metrics:
+ * <ul>
+ * <li>{@code rest.circuit.state} (0 closed, 1 open, 2 half-open)</li>
+ * <li>{@code rest.circuit.failure.rate} and {@code rest.circuit.slow.rate}
+ * (percent)</li>
+ * <li>{@code rest.circuit.short.circuited} (calls rejected while open)</li>
+ * </ul>
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class CircuitBreakerRegistry implements MeterBinder {
+
+	private final Map<Provider, CircuitBreaker> breakers = new EnumMap<>(Provider.class);
+
+	public CircuitBreakerRegistry(CircuitBreakerProperties properties) {
+		if (!properties.isEnabled()) {
+			log.info("Circuit breakers disabled.");
+			return;
+		}
+		for (Provider provider : Provider.values()) {
+			breakers.put(provider, new CircuitBreaker(provider, properties.settingsFor(provider)));
+		}
+	}
+
+	/**
+	 * @param provider the provider enum, may be null
+	 * @return the provider's circuit breaker, or null if circuit breaking is off
+	 */
+	public CircuitBreaker get(Provider provider) {
+		return provider == null ? null : breakers.get(provider);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		breakers.forEach((provider, breaker) -> {
+			String tag = provider.name();
+			Gauge.builder("rest.circuit.state", breaker, b -> b.getState().ordinal())
+					.description("Circuit breaker state (0 closed, 1 open, 2 half-open)")
+					.tag("provider", tag)
+					.register(registry);
+			Gauge.builder("rest.circuit.failure.rate", breaker, CircuitBreaker::getFailureRate)
+					.baseUnit("percent")
+					.tag("provider", tag)
+					.register(registry);
+			Gauge.builder("rest.circuit.slow.rate", breaker, CircuitBreaker::getSlowCallRate)
+					.baseUnit("percent")
+					.tag("provider", tag)
+					.register(registry);
+			FunctionCounter.builder("rest.circuit.short.circuited", breaker, CircuitBreaker::getShortCircuitedCount)
+					.description("Calls rejected without reaching the provider")
+					.tag("provider", tag)
+					.register(registry);
+		});
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+/**
+ * Thrown instead of calling a provider whose adaptive concurrency limit is
+ * reached and stayed reached for the configured queue wait.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConcurrencyLimitExceededException(Provider provider, int limit) {
+		super("Concurrency limit of " + limit + " reached for " + provider + ", call not permitted");
+	}
+}
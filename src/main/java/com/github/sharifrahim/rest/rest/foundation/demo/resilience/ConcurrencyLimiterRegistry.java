@@ -0,0 +1,78 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds one {@link AdaptiveConcurrencyLimiter} per {@link Provider} and
+ * publishes their state as metrics:
+ * <ul>
+ * <li>{@code rest.concurrency.limit} (current adaptive limit)</li>
+ * <li>{@code rest.concurrency.in.flight} and {@code rest.concurrency.queued}
+ * (calls holding or waiting for a slot)</li>
+ * <li>{@code rest.concurrency.rejected} (calls rejected at the limit)</li>
+ * </ul>
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimiterRegistry implements MeterBinder {
+
+	private final Map<Provider, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Provider.class);
+
+	public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties) {
+		if (!properties.isEnabled()) {
+			log.info("Adaptive concurrency limits disabled.");
+			return;
+		}
+		for (Provider provider : Provider.values()) {
+			limiters.put(provider, new AdaptiveConcurrencyLimiter(provider, properties.settingsFor(provider)));
+		}
+	}
+
+	/**
+	 * @param provider the provider enum, may be null
+	 * @return the provider's limiter, or null if limiting is off
+	 */
+	public AdaptiveConcurrencyLimiter get(Provider provider) {
+		return provider == null ? null : limiters.get(provider);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		limiters.forEach((provider, limiter) -> {
+			String tag = provider.name();
+			Gauge.builder("rest.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+					.description("Current adaptive concurrency limit")
+					.tag("provider", tag)
+					.register(registry);
+			Gauge.builder("rest.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+					.description("Calls currently in flight")
+					.tag("provider", tag)
+					.register(registry);
+			Gauge.builder("rest.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+					.description("Calls waiting for a free slot")
+					.tag("provider", tag)
+					.register(registry);
+			FunctionCounter.builder("rest.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+					.description("Calls rejected at the concurrency limit")
+					.tag("provider", tag)
+					.register(registry);
+		});
+	}
+}
@@ -0,0 +1,67 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent latency samples of one endpoint in a ring buffer and
+ * periodically derives a percentile from them. Recording is a single array
+ * write; the percentile is recomputed once every {@link #REFRESH_EVERY}
+ * samples and read from a volatile field in between.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class LatencyTracker {
+
+	private static final int SIZE = 256;
+	private static final int REFRESH_EVERY = 32;
+
+	private final double percentile;
+	private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+	private final AtomicLong count = new AtomicLong();
+	private volatile long percentileNanos;
+
+	public LatencyTracker(double percentile) {
+		this.percentile = percentile;
+	}
+
+	/**
+	 * @param nanos the latency of a successful call
+	 */
+	public void record(long nanos) {
+		long index = count.getAndIncrement();
+		samples.set((int) (index % SIZE), nanos);
+		if ((index + 1) % REFRESH_EVERY == 0) {
+			refresh(Math.min(index + 1, SIZE));
+		}
+	}
+
+	/**
+	 * @return the number of samples recorded so far
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the configured percentile over recent samples, in nanoseconds, or 0
+	 *         before the first refresh
+	 */
+	public long getPercentileNanos() {
+		return percentileNanos;
+	}
+
+	private void refresh(long filled) {
+		long[] copy = new long[(int) filled];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = samples.get(i);
+		}
+		Arrays.sort(copy);
+		int rank = (int) Math.ceil(percentile * copy.length) - 1;
+		percentileNanos = copy[Math.max(0, Math.min(copy.length - 1, rank))];
+	}
+}
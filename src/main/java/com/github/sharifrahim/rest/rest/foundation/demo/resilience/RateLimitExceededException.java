@@ -0,0 +1,19 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+/**
+ * Thrown instead of calling a provider when no rate limit permit is available
+ * within the configured wait.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public RateLimitExceededException(String name, double permitsPerSecond) {
+		super("Rate limit of " + permitsPerSecond + "/s reached for " + name + ", call not permitted");
+	}
+}
@@ -0,0 +1,90 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds a {@link TokenBucketRateLimiter} for every {@link Provider} and
+ * strategy with a configured rate, and publishes
+ * {@code rest.rate.limit.permits} per limiter, tagged with its {@code scope}
+ * ({@code provider} or {@code strategy}), the {@code limiter} name and an
+ * {@code outcome} of {@code granted}, {@code waited} (granted after a wait) or
+ * {@code rejected}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+@Slf4j
+public class RateLimiterRegistry implements MeterBinder {
+
+	private final Map<Provider, TokenBucketRateLimiter> providerLimiters = new EnumMap<>(Provider.class);
+	private final Map<String, TokenBucketRateLimiter> strategyLimiters = new HashMap<>();
+
+	public RateLimiterRegistry(RateLimitProperties properties) {
+		if (!properties.isEnabled()) {
+			log.info("Outbound rate limits disabled.");
+			return;
+		}
+		for (Provider provider : Provider.values()) {
+			RateLimitProperties.Settings settings = properties.settingsFor(provider);
+			if (settings.getPermitsPerSecond() > 0) {
+				providerLimiters.put(provider, new TokenBucketRateLimiter(provider.name(), settings));
+			}
+		}
+		properties.getStrategies().forEach((strategy, settings) -> {
+			if (settings.getPermitsPerSecond() > 0) {
+				strategyLimiters.put(strategy, new TokenBucketRateLimiter(strategy, settings));
+			}
+		});
+	}
+
+	/**
+	 * @param provider the provider enum, may be null
+	 * @param strategy the strategy name
+	 * @return the limiters a call must pass, empty if none apply
+	 */
+	public List<TokenBucketRateLimiter> get(Provider provider, String strategy) {
+		TokenBucketRateLimiter providerLimiter = provider == null ? null : providerLimiters.get(provider);
+		TokenBucketRateLimiter strategyLimiter = strategyLimiters.get(strategy);
+		if (providerLimiter == null) {
+			return strategyLimiter == null ? List.of() : List.of(strategyLimiter);
+		}
+		return strategyLimiter == null ? List.of(providerLimiter) : List.of(providerLimiter, strategyLimiter);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		providerLimiters.forEach((provider, limiter) -> bind(registry, limiter, "provider"));
+		strategyLimiters.forEach((strategy, limiter) -> bind(registry, limiter, "strategy"));
+	}
+
+	private static void bind(MeterRegistry registry, TokenBucketRateLimiter limiter, String scope) {
+		FunctionCounter.builder("rest.rate.limit.permits", limiter, TokenBucketRateLimiter::getGrantedCount)
+				.description("Rate limit permit outcomes")
+				.tags("scope", scope, "limiter", limiter.getName(), "outcome", "granted")
+				.register(registry);
+		FunctionCounter.builder("rest.rate.limit.permits", limiter, TokenBucketRateLimiter::getWaitedCount)
+				.description("Rate limit permit outcomes")
+				.tags("scope", scope, "limiter", limiter.getName(), "outcome", "waited")
+				.register(registry);
+		FunctionCounter.builder("rest.rate.limit.permits", limiter, TokenBucketRateLimiter::getRejectedCount)
+				.description("Rate limit permit outcomes")
+				.tags("scope", scope, "limiter", limiter.getName(), "outcome", "rejected")
+				.register(registry);
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket limiting retries to a ratio of normal traffic. Each
+ * first attempt deposits {@code ratio} of a token, each retry withdraws a
+ * whole one, and the balance never exceeds {@code capacity}. When the
+ * provider is failing every call, retries therefore add at most
+ * {@code ratio} extra load instead of multiplying it.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class RetryBudget {
+
+	// Tokens are kept in thousandths so deposits of a fraction stay exact
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+	private final long capacity;
+	private final AtomicLong balance;
+
+	public RetryBudget(double ratio, int capacity) {
+		this.deposit = Math.round(ratio * SCALE);
+		this.capacity = capacity * SCALE;
+		this.balance = new AtomicLong(this.capacity);
+	}
+
+	/**
+	 * Credits the budget for a first attempt.
+	 */
+	public void deposit() {
+		balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+	}
+
+	/**
+	 * Spends one token for a retry if the budget allows it.
+	 *
+	 * @return true if the retry may go ahead
+	 */
+	public boolean tryWithdraw() {
+		while (true) {
+			long current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of whole retries currently affordable
+	 */
+	public long getTokens() {
+		return balance.get() / SCALE;
+	}
+}
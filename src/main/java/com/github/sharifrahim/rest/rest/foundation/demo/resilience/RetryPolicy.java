@@ -0,0 +1,169 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RetryProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Decides when idempotent calls are retried or hedged.
+ *
+ * Retries wait a random backoff below an exponentially growing ceiling (full
+ * jitter) and, like hedges, are paid for from a shared {@link RetryBudget}.
+ * Hedge delays come from a {@link LatencyTracker} per endpoint, keyed by
+ * provider and strategy so the number of trackers stays bounded. Publishes:
+ * <ul>
+ * <li>{@code rest.retry.retries} and {@code rest.retry.hedges} (extra attempts
+ * sent)</li>
+ * <li>{@code rest.retry.hedge.wins} (hedges answering before the
+ * original)</li>
+ * <li>{@code rest.retry.budget.exhausted} (extra attempts denied)</li>
+ * <li>{@code rest.retry.budget.tokens} (extra attempts currently
+ * affordable)</li>
+ * </ul>
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Component
+public class RetryPolicy implements MeterBinder {
+
+	private final RetryProperties properties;
+	private final RetryBudget budget;
+	private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder hedges = new LongAdder();
+	private final LongAdder hedgeWins = new LongAdder();
+	private final LongAdder exhausted = new LongAdder();
+
+	public RetryPolicy(RetryProperties properties) {
+		this.properties = properties;
+		this.budget = new RetryBudget(properties.getBudget().getRatio(), properties.getBudget().getCapacity());
+	}
+
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	public int getMaxAttempts() {
+		return properties.getMaxAttempts();
+	}
+
+	public int getMaxConcurrentHedgeAttempts() {
+		return properties.getHedge().getMaxConcurrent();
+	}
+
+	/**
+	 * Credits the retry budget for a first attempt.
+	 */
+	public void onFirstAttempt() {
+		budget.deposit();
+	}
+
+	/**
+	 * @return true if the budget allows another retry
+	 */
+	public boolean tryRetry() {
+		if (budget.tryWithdraw()) {
+			retries.increment();
+			return true;
+		}
+		exhausted.increment();
+		return false;
+	}
+
+	/**
+	 * @return true if the budget allows a hedged request
+	 */
+	public boolean tryHedge() {
+		if (budget.tryWithdraw()) {
+			hedges.increment();
+			return true;
+		}
+		exhausted.increment();
+		return false;
+	}
+
+	/**
+	 * Counts a hedge that answered before the original request.
+	 */
+	public void onHedgeWon() {
+		hedgeWins.increment();
+	}
+
+	/**
+	 * Returns the jittered wait before a retry.
+	 *
+	 * @param attempt the attempt that just failed, starting at 1
+	 * @return the backoff in nanoseconds
+	 */
+	public long backoffNanos(int attempt) {
+		long ceiling = properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20);
+		ceiling = Math.min(ceiling, properties.getMaxBackoff().toNanos());
+		return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	/**
+	 * Records the latency of a successful attempt against an endpoint.
+	 *
+	 * @param endpoint key identifying the endpoint
+	 * @param nanos    the attempt's latency
+	 */
+	public void recordLatency(String endpoint, long nanos) {
+		if (properties.getHedge().isEnabled()) {
+			latencies.computeIfAbsent(endpoint, e -> new LatencyTracker(properties.getHedge().getPercentile()))
+					.record(nanos);
+		}
+	}
+
+	/**
+	 * Returns how long to wait for an endpoint before sending a hedged request.
+	 *
+	 * @param endpoint key identifying the endpoint
+	 * @return the hedge delay, or null if hedging is off or too few samples are
+	 *         known yet
+	 */
+	public Duration hedgeDelay(String endpoint) {
+		RetryProperties.Hedge hedge = properties.getHedge();
+		if (!hedge.isEnabled()) {
+			return null;
+		}
+		LatencyTracker tracker = latencies.get(endpoint);
+		if (tracker == null || tracker.getCount() < hedge.getMinSamples()) {
+			return null;
+		}
+		return Duration.ofNanos(Math.max(tracker.getPercentileNanos(), hedge.getMinDelay().toNanos()));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("rest.retry.retries", retries, LongAdder::sum)
+				.description("Retries sent after a failed attempt")
+				.register(registry);
+		FunctionCounter.builder("rest.retry.hedges", hedges, LongAdder::sum)
+				.description("Hedged requests sent after a slow attempt")
+				.register(registry);
+		FunctionCounter.builder("rest.retry.hedge.wins", hedgeWins, LongAdder::sum)
+				.description("Hedged requests answering before the original")
+				.register(registry);
+		FunctionCounter.builder("rest.retry.budget.exhausted", exhausted, LongAdder::sum)
+				.description("Retries or hedges denied by the retry budget")
+				.register(registry);
+		Gauge.builder("rest.retry.budget.tokens", budget, RetryBudget::getTokens)
+				.description("Retries or hedges currently affordable")
+				.register(registry);
+	}
+}
@@ -0,0 +1,214 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+
+/**
+ * Token bucket rate limiter for a provider or a single strategy.
+ *
+ * The bucket is kept as one timestamp, the theoretical arrival time of the
+ * next call when calls are spaced exactly {@code 1 / permitsPerSecond} apart
+ * (the generic cell rate algorithm). Taking a permit moves it one interval
+ * forward with a CAS, so there is no lock and no refill thread. A call may run
+ * as long as that time is at most {@code burst} intervals ahead of now;
+ * otherwise it waits for the difference, or is rejected without taking a
+ * permit when that would be longer than {@code maxWait}.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class TokenBucketRateLimiter {
+
+	private final String name;
+	private final double permitsPerSecond;
+	private final long intervalNanos;
+	private final long burstNanos;
+	private final long maxWaitNanos;
+	private final LongSupplier clock;
+
+	// Theoretical arrival time of the next call, in clock nanos
+	private final AtomicLong nextFree;
+
+	private final LongAdder granted = new LongAdder();
+	private final LongAdder waited = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public TokenBucketRateLimiter(String name, RateLimitProperties.Settings settings) {
+		this(name, settings, System::nanoTime);
+	}
+
+	TokenBucketRateLimiter(String name, RateLimitProperties.Settings settings, LongSupplier clock) {
+		this.name = name;
+		this.permitsPerSecond = settings.getPermitsPerSecond();
+		this.intervalNanos = Math.max(1, (long) (1_000_000_000L / settings.getPermitsPerSecond()));
+		this.burstNanos = intervalNanos * Math.max(1, settings.getBurst());
+		this.maxWaitNanos = settings.getMaxWait().toNanos();
+		this.clock = clock;
+		this.nextFree = new AtomicLong(clock.getAsLong());
+	}
+
+	/**
+	 * Reserves a permit from every given limiter and sleeps until the last of
+	 * them is due.
+	 *
+	 * @param limiters the limiters that apply to a call, may be empty
+	 * @throws RateLimitExceededException if a limiter has no permit within its
+	 *                                    maximum wait, or the wait is
+	 *                                    interrupted
+	 */
+	public static void acquire(List<TokenBucketRateLimiter> limiters) {
+		long wait = reserve(limiters);
+		if (wait <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			limiters.forEach(TokenBucketRateLimiter::cancel);
+			TokenBucketRateLimiter first = limiters.get(0);
+			throw new RateLimitExceededException(first.getName(), first.getPermitsPerSecond());
+		}
+	}
+
+	/**
+	 * Reserves a permit from every given limiter without waiting. When one of
+	 * them rejects the call, the permits already taken from the others are
+	 * given back.
+	 *
+	 * @param limiters the limiters that apply to a call, may be empty
+	 * @return nanos to wait before the call may be sent, 0 to send it now
+	 * @throws RateLimitExceededException if a limiter has no permit within its
+	 *                                    maximum wait
+	 */
+	public static long reserve(List<TokenBucketRateLimiter> limiters) {
+		long wait = 0;
+		for (int i = 0; i < limiters.size(); i++) {
+			TokenBucketRateLimiter limiter = limiters.get(i);
+			long delay = limiter.tryReserve();
+			if (delay < 0) {
+				for (int j = 0; j < i; j++) {
+					limiters.get(j).cancel();
+				}
+				throw new RateLimitExceededException(limiter.getName(), limiter.getPermitsPerSecond());
+			}
+			wait = Math.max(wait, delay);
+		}
+		for (TokenBucketRateLimiter limiter : limiters) {
+			limiter.granted.increment();
+		}
+		if (wait > 0) {
+			for (TokenBucketRateLimiter limiter : limiters) {
+				limiter.waited.increment();
+			}
+		}
+		return wait;
+	}
+
+	/**
+	 * Takes a permit from every given limiter, but only if all of them have one
+	 * due now. For requests only worth sending without delay, so a refusal is
+	 * not counted as a rejection.
+	 *
+	 * @param limiters the limiters that apply to a call, may be empty
+	 * @return true if the permits were taken
+	 */
+	public static boolean tryAcquire(List<TokenBucketRateLimiter> limiters) {
+		for (int i = 0; i < limiters.size(); i++) {
+			if (!limiters.get(i).tryTakeNow()) {
+				for (int j = 0; j < i; j++) {
+					limiters.get(j).cancel();
+				}
+				return false;
+			}
+		}
+		for (TokenBucketRateLimiter limiter : limiters) {
+			limiter.granted.increment();
+		}
+		return true;
+	}
+
+	// Takes a permit if one is due now
+	private boolean tryTakeNow() {
+		while (true) {
+			long now = clock.getAsLong();
+			long current = nextFree.get();
+			long next = Math.max(current, now) + intervalNanos;
+			if (next - now > burstNanos) {
+				return false;
+			}
+			if (nextFree.compareAndSet(current, next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Takes a permit if one is due within the maximum wait.
+	 *
+	 * @return nanos until the permit is due (0 if it is due now), or -1 if the
+	 *         call is rejected and no permit was taken
+	 */
+	long tryReserve() {
+		while (true) {
+			long now = clock.getAsLong();
+			long current = nextFree.get();
+			long next = Math.max(current, now) + intervalNanos;
+			long wait = next - now - burstNanos;
+			if (wait > maxWaitNanos) {
+				rejected.increment();
+				return -1;
+			}
+			if (nextFree.compareAndSet(current, next)) {
+				return Math.max(0, wait);
+			}
+		}
+	}
+
+	/**
+	 * Gives back a permit taken for a call that is not sent after all, such as
+	 * one cancelled while waiting for its permit.
+	 */
+	public void cancel() {
+		nextFree.addAndGet(-intervalNanos);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the sustained number of calls allowed per second
+	 */
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	/**
+	 * @return the number of calls given a permit
+	 */
+	public long getGrantedCount() {
+		return granted.sum();
+	}
+
+	/**
+	 * @return the number of calls given a permit only after waiting for it
+	 */
+	public long getWaitedCount() {
+		return waited.sum();
+	}
+
+	/**
+	 * @return the number of calls rejected because no permit was due in time
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+}
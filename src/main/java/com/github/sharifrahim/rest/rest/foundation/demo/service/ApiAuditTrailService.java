@@ -1,13 +1,20 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailPage;
 import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
 
 /**
  * Service interface for managing API audit trail records.
- * Provides standard CRUD operations and search by correlation ID.
+ * Provides standard CRUD operations, search by correlation ID, and filtered
+ * queries that page or stream through the trail without loading it whole.
  * 
  * Author: Sharif  
  * @see <a href="https://github.com/sharifrahim">https://github.com/sharifrahim</a>
@@ -22,6 +29,23 @@ public interface ApiAuditTrailService {
 	 */
 	ApiAuditTrail save(ApiAuditTrail auditTrail);
 
+	/**
+	 * Persists a batch of new audit trail records in a single transaction.
+	 *
+	 * @param auditTrails the audit trails to save
+	 * @return the saved audit trail entities
+	 */
+	List<ApiAuditTrail> saveAll(List<ApiAuditTrail> auditTrails);
+
+	/**
+	 * Persists the records whose correlation IDs are not stored yet, in a
+	 * single transaction. Safe to call again with the same records.
+	 *
+	 * @param auditTrails the audit trails to save
+	 * @return the number of records saved
+	 */
+	int saveAllAbsent(List<ApiAuditTrail> auditTrails);
+
 	/**
 	 * Finds an audit trail record by its ID.
 	 *
@@ -31,11 +55,37 @@ public interface ApiAuditTrailService {
 	Optional<ApiAuditTrail> findById(Long id);
 
 	/**
-	 * Returns all audit trail records.
+	 * Returns one page of matching records, newest first, using keyset
+	 * pagination.
+	 *
+	 * @param filter the criteria to match
+	 * @param after  the previous page's {@link AuditTrailPage#getNextCursor()},
+	 *               or null for the first page
+	 * @param limit  the page size, capped at {@code rest.audit.query.max-page-size}
+	 * @return the page and the cursor for the next one
+	 */
+	AuditTrailPage findPage(AuditTrailFilter filter, AuditTrailCursor after, int limit);
+
+	/**
+	 * Streams every matching record, newest first, to the given action without
+	 * holding the result in memory.
+	 *
+	 * @param filter the criteria to match
+	 * @param action called once per record
+	 * @return the number of records visited
+	 */
+	long forEach(AuditTrailFilter filter, Consumer<ApiAuditTrail> action);
+
+	/**
+	 * Writes every matching record, newest first, as newline-delimited JSON.
+	 * The stream is flushed but not closed.
 	 *
-	 * @return a list of all audit trails
+	 * @param filter the criteria to match
+	 * @param out    the destination
+	 * @return the number of records written
+	 * @throws IOException if writing fails
 	 */
-	List<ApiAuditTrail> findAll();
+	long exportNdjson(AuditTrailFilter filter, OutputStream out) throws IOException;
 
 	/**
 	 * Finds an audit trail by correlation ID.
@@ -1,10 +1,29 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditBodyCodec;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailPage;
 import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
 import com.github.sharifrahim.rest.rest.foundation.demo.repository.ApiAuditTrailRepository;
 
@@ -14,6 +33,8 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Implementation of {@link ApiAuditTrailService} that interacts with the database
  * via {@link ApiAuditTrailRepository} to perform CRUD operations on audit trail records.
+ * Compressed bodies are inflated by {@link AuditBodyCodec} on every read, so callers
+ * always see plain text.
  * 
  * Author: Sharif  
  * @see <a href="https://github.com/sharifrahim">https://github.com/sharifrahim</a>
@@ -24,6 +45,9 @@ import lombok.extern.slf4j.Slf4j;
 public class ApiAuditTrailServiceImpl implements ApiAuditTrailService {
 
     private final ApiAuditTrailRepository repository;
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AuditBodyCodec codec;
 
     /**
      * Saves a new audit trail record.
@@ -37,6 +61,42 @@ public class ApiAuditTrailServiceImpl implements ApiAuditTrailService {
         return repository.save(auditTrail);
     }
 
+    /**
+     * Saves a batch of new audit trail records. Rows are inserted using JDBC
+     * batching as configured by {@code hibernate.jdbc.batch_size}.
+     *
+     * @param auditTrails the audit trails to save
+     * @return the saved entities
+     */
+    @Override
+    public List<ApiAuditTrail> saveAll(List<ApiAuditTrail> auditTrails) {
+        log.debug("Saving batch of {} ApiAuditTrail records", auditTrails.size());
+        return repository.saveAll(auditTrails);
+    }
+
+    /**
+     * Saves the records whose correlation IDs are not stored yet. Records
+     * without a correlation ID are always saved.
+     *
+     * @param auditTrails the audit trails to save
+     * @return the number of records saved
+     */
+    @Override
+    @Transactional
+    public int saveAllAbsent(List<ApiAuditTrail> auditTrails) {
+        Set<String> ids = auditTrails.stream().map(ApiAuditTrail::getCorrelationId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existing = ids.isEmpty() ? Set.of() : repository.findExistingCorrelationIds(ids);
+        Set<String> seen = new HashSet<>();
+        List<ApiAuditTrail> absent = auditTrails.stream()
+                .filter(a -> a.getCorrelationId() == null
+                        || (!existing.contains(a.getCorrelationId()) && seen.add(a.getCorrelationId())))
+                .toList();
+        log.debug("Saving {} of {} ApiAuditTrail records not stored yet", absent.size(), auditTrails.size());
+        repository.saveAll(absent);
+        return absent.size();
+    }
+
     /**
      * Finds an audit trail by its ID.
      *
@@ -46,18 +106,84 @@ public class ApiAuditTrailServiceImpl implements ApiAuditTrailService {
     @Override
     public Optional<ApiAuditTrail> findById(Long id) {
         log.debug("Finding ApiAuditTrail by ID: {}", id);
-        return repository.findById(id);
+        return repository.findById(id).map(codec::decode);
     }
 
     /**
-     * Returns all audit trail records.
+     * Returns one page of matching records. One row more than requested is
+     * fetched to tell whether another page follows.
      *
-     * @return list of all records
+     * @param filter the criteria to match
+     * @param after  the cursor of the previous page, or null
+     * @param limit  the requested page size
+     * @return the page
      */
     @Override
-    public List<ApiAuditTrail> findAll() {
-        log.debug("Retrieving all ApiAuditTrail records");
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public AuditTrailPage findPage(AuditTrailFilter filter, AuditTrailCursor after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, properties.getQuery().getMaxPageSize()));
+        log.debug("Finding ApiAuditTrail page of {} after {} matching {}", pageSize, after, filter);
+        List<ApiAuditTrail> rows = repository.findPage(filter, after, pageSize + 1);
+        rows.forEach(codec::decode);
+        if (rows.size() <= pageSize) {
+            return new AuditTrailPage(rows, null);
+        }
+        List<ApiAuditTrail> items = rows.subList(0, pageSize);
+        return new AuditTrailPage(items, AuditTrailCursor.after(items.get(pageSize - 1)));
+    }
+
+    /**
+     * Streams matching records through a read-only transaction, fetching
+     * {@code rest.audit.query.fetch-size} rows per round trip.
+     *
+     * @param filter the criteria to match
+     * @param action called once per record
+     * @return the number of records visited
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long forEach(AuditTrailFilter filter, Consumer<ApiAuditTrail> action) {
+        log.debug("Streaming ApiAuditTrail records matching {}", filter);
+        long count = 0;
+        try (Stream<ApiAuditTrail> rows = repository.stream(filter, properties.getQuery().getFetchSize())) {
+            for (ApiAuditTrail row : (Iterable<ApiAuditTrail>) rows::iterator) {
+                action.accept(codec.decode(row));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes matching records as newline-delimited JSON, one object per line,
+     * as they are read from the database.
+     *
+     * @param filter the criteria to match
+     * @param out    the destination
+     * @return the number of records written
+     * @throws IOException if writing fails
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportNdjson(AuditTrailFilter filter, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ApiAuditTrail.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long count = forEach(filter, row -> {
+                try {
+                    writer.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Exported {} ApiAuditTrail record(s) as NDJSON", count);
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
@@ -69,7 +195,7 @@ public class ApiAuditTrailServiceImpl implements ApiAuditTrailService {
     @Override
     public Optional<ApiAuditTrail> findByCorrelationId(String correlationId) {
         log.debug("Finding ApiAuditTrail by correlationId: {}", correlationId);
-        return Optional.ofNullable(repository.findByCorrelationId(correlationId));
+        return Optional.ofNullable(codec.decode(repository.findByCorrelationId(correlationId)));
     }
 
     /**
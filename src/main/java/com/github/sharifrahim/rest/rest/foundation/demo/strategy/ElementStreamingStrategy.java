@@ -0,0 +1,75 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
+
+/**
+ * Strategy for list-shaped responses too large to hold in memory. Instead of
+ * one deserialized response, the elements of the array at
+ * {@link #getElementsPointer()} are deserialized one at a time and handed to
+ * {@link #onElement} as the response is read.
+ *
+ * Elements are delivered on the thread reading the response, and the next one
+ * is not read until {@link #onElement} returns, so a slow consumer slows the
+ * download rather than piling elements up in memory. Only the element count
+ * and the first few elements are audited.
+ *
+ * Because elements cannot be recalled once delivered, these calls are never
+ * retried or hedged, and the envelope status (checked by provider decorators
+ * in {@code processResult}) is only known after the last element.
+ *
+ * @param <REQ> the request payload type
+ * @param <E>   the element type
+ *
+ *              Author: Sharif
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public interface ElementStreamingStrategy<REQ, E> extends RestRequestStrategy<REQ, ElementSummary> {
+
+	/**
+	 * Provides the element type for deserialization.
+	 *
+	 * @return the class type of the elements
+	 * @throws Exception in case of type resolution errors
+	 */
+	Class<E> getElementType() throws Exception;
+
+	/**
+	 * JSON pointer to the array holding the elements, such as {@code /data/items}.
+	 * Defaults to the empty pointer, a top-level array.
+	 *
+	 * @return the pointer to the element array
+	 */
+	default String getElementsPointer() {
+		return "";
+	}
+
+	/**
+	 * Processes one element, in document order.
+	 *
+	 * @param element the deserialized element
+	 * @throws Exception if processing fails, which aborts the call
+	 */
+	void onElement(E element) throws Exception;
+
+	/**
+	 * Element calls produce an {@link ElementSummary}.
+	 */
+	@Override
+	default Class<ElementSummary> getResponseType() throws Exception {
+		return ElementSummary.class;
+	}
+
+	/**
+	 * Called once after the last element. Does nothing by default.
+	 */
+	@Override
+	default void processResult(ElementSummary summary) throws Exception {
+	}
+
+	/**
+	 * Element calls are always streamed.
+	 */
+	@Override
+	default boolean isStreaming() throws Exception {
+		return true;
+	}
+}
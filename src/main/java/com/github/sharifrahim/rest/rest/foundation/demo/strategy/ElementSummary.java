@@ -0,0 +1,19 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
+
+import lombok.Value;
+
+/**
+ * Outcome of an {@link ElementStreamingStrategy} call, handed to
+ * {@code processResult} once the last element has been delivered.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class ElementSummary {
+
+	// Number of elements delivered to onElement
+	long count;
+}
@@ -0,0 +1,53 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+import com.github.sharifrahim.rest.rest.foundation.demo.manager.TokenManager;
+
+/**
+ * {@link ProviderXTokenDecoratedStrategy} for {@link ElementStreamingStrategy}
+ * calls: adds Provider X's token and base URL and hands elements straight to
+ * the original strategy. The envelope status is checked once the last element
+ * has been read.
+ *
+ * @param <REQ> the request DTO type
+ * @param <E>   the element type
+ *
+ *              Author: Sharif
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+public class ProviderXTokenDecoratedElementStrategy<REQ, E> extends ProviderXTokenDecoratedStrategy<REQ, ElementSummary>
+		implements ElementStreamingStrategy<REQ, E> {
+
+	private final ElementStreamingStrategy<REQ, E> elementDelegate;
+
+	public ProviderXTokenDecoratedElementStrategy(ElementStreamingStrategy<REQ, E> delegate,
+			TokenManager tokenManager, String baseUrl, ResponseEnvelope.Fields envelopeFields, JsonHelper jsonHelper) {
+		super(delegate, tokenManager, baseUrl, envelopeFields, jsonHelper);
+		this.elementDelegate = delegate;
+	}
+
+	/**
+	 * Delegates the element type to the original strategy.
+	 */
+	@Override
+	public Class<E> getElementType() throws Exception {
+		return elementDelegate.getElementType();
+	}
+
+	/**
+	 * Delegates the element array's location to the original strategy.
+	 */
+	@Override
+	public String getElementsPointer() {
+		return elementDelegate.getElementsPointer();
+	}
+
+	/**
+	 * Hands the element to the original strategy.
+	 */
+	@Override
+	public void onElement(E element) throws Exception {
+		elementDelegate.onElement(element);
+	}
+}
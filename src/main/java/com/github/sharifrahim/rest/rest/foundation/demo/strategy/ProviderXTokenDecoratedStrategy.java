@@ -1,15 +1,18 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
 
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
 import com.github.sharifrahim.rest.rest.foundation.demo.manager.TokenManager;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,21 @@ public class ProviderXTokenDecoratedStrategy<REQ, RES> implements RestRequestStr
 	private final RestRequestStrategy<REQ, RES> delegate;
 	private final TokenManager tokenManager;
 	public final String baseUrl;
+	private final ResponseEnvelope.Fields envelopeFields;
+	private final JsonHelper jsonHelper;
+
+	/**
+	 * Builds Provider X's envelope fields from its configured JSON pointers,
+	 * falling back to searching for {@code statusCode} and
+	 * {@code statusMessage} by name.
+	 *
+	 * @param properties the Provider X client settings
+	 * @return the envelope fields
+	 */
+	public static ResponseEnvelope.Fields envelopeFields(RestClientProperties.ProviderProperties properties) {
+		return new ResponseEnvelope.Fields(properties.getStatusCodePointer(), "statusCode",
+				properties.getStatusMessagePointer(), "statusMessage");
+	}
 
 	/**
 	 * Prepends the base URL to the original strategy's endpoint.
@@ -58,16 +76,27 @@ public class ProviderXTokenDecoratedStrategy<REQ, RES> implements RestRequestStr
 	 */
 	@Override
 	public HttpEntity<REQ> buildRequestEntity() throws Exception {
-		HttpEntity<REQ> original = delegate.buildRequestEntity();
+		return withBearerToken(delegate.buildRequestEntity(), tokenManager.getToken());
+	}
 
-		// Clone original headers and add Authorization
+	/**
+	 * Builds the request entity and injects the bearer token, taking the token
+	 * from the manager without blocking.
+	 */
+	@Override
+	public CompletableFuture<HttpEntity<REQ>> buildRequestEntityAsync() {
+		return delegate.buildRequestEntityAsync().thenCombine(tokenManager.getAccessTokenAsync(),
+				(original, token) -> withBearerToken(original, token.getValue()));
+	}
+
+	// Clones the original headers and adds Authorization
+	private HttpEntity<REQ> withBearerToken(HttpEntity<REQ> original, String token) {
 		HttpHeaders headers = new HttpHeaders();
 		HttpHeaders originalHeaders = original.getHeaders();
 		if (originalHeaders != null) {
 			headers.putAll(originalHeaders);
 		}
 
-		String token = tokenManager.getToken();
 		headers.setBearerAuth(token);
 		log.debug("Injected bearer token for Provider X");
 
@@ -83,26 +112,84 @@ public class ProviderXTokenDecoratedStrategy<REQ, RES> implements RestRequestStr
 	}
 
 	/**
-	 * Parses the response and throws an exception if the statusCode is not SUCCESS.
-	 * Otherwise, delegates the result for further processing.
+	 * Delegates the cache TTL to the original strategy.
 	 */
 	@Override
-	public void processResult(RES response) throws Exception {
-		log.debug("Processing response with token-decorated strategy");
+	public Duration getCacheTtl() throws Exception {
+		return delegate.getCacheTtl();
+	}
+
+	/**
+	 * Delegates response streaming to the original strategy.
+	 */
+	@Override
+	public boolean isStreaming() throws Exception {
+		return delegate.isStreaming();
+	}
 
-		ObjectMapper mapper = new ObjectMapper();
-		JsonNode root = mapper.valueToTree(response);
+	/**
+	 * Delegates idempotency to the original strategy.
+	 */
+	@Override
+	public boolean isIdempotent() throws Exception {
+		return delegate.isIdempotent();
+	}
 
+	/**
+	 * Marks the call as going to Provider X.
+	 */
+	@Override
+	public Provider getProvider() {
+		return Provider.PROVIDER_X;
+	}
+
+	/**
+	 * Reports the wrapped strategy's name.
+	 */
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	/**
+	 * Asks for the status code and message to be captured while the response is
+	 * parsed.
+	 */
+	@Override
+	public ResponseEnvelope.Fields getEnvelopeFields() {
+		return envelopeFields;
+	}
+
+	/**
+	 * Checks the status of a response handed over without a captured envelope,
+	 * searching the response tree for it.
+	 */
+	@Override
+	public void processResult(RES response) throws Exception {
+		JsonNode root = jsonHelper.valueToTree(response);
 		String statusCode = findFirstMatchingKey(root, "statusCode");
 		String statusMessage = findFirstMatchingKey(root, "statusMessage");
+		processResult(response, new ResponseEnvelope(statusCode, statusMessage));
+	}
+
+	/**
+	 * Throws an exception if the captured statusCode is not SUCCESS. Otherwise,
+	 * delegates the result for further processing.
+	 */
+	@Override
+	public void processResult(RES response, ResponseEnvelope envelope) throws Exception {
+		log.debug("Processing response with token-decorated strategy");
+
+		String statusCode = envelope.getStatusCode();
+		String statusMessage = envelope.getStatusMessage();
 
-		if (!Arrays.asList("SUCCESS").contains(statusCode)) {
+		if (!"SUCCESS".equals(statusCode)) {
 			log.error("API call failed with statusCode: {}, message: {}", statusCode, statusMessage);
 			throw new RuntimeException(statusMessage != null ? statusMessage : "Unknown error from Provider X");
 		}
 
 		log.info("API call successful with statusCode: {}", statusCode);
-		delegate.processResult(response);
+		delegate.processResult(response, envelope);
 	}
 
 	/**
@@ -113,7 +200,7 @@ public class ProviderXTokenDecoratedStrategy<REQ, RES> implements RestRequestStr
 	 * @param keys the key names to match
 	 * @return the string value of the matching node, or null
 	 */
-	private String findFirstMatchingKey(JsonNode node, String... keys) {
+	String findFirstMatchingKey(JsonNode node, String... keys) {
 		if (node == null || node.isNull())
 			return null;
 
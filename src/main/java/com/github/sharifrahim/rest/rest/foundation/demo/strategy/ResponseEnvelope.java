@@ -0,0 +1,51 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
+
+import lombok.Value;
+
+/**
+ * Status code and message of a provider's response envelope, captured by
+ * {@link com.github.sharifrahim.rest.rest.foundation.demo.helper.RestHelper}
+ * while the response is deserialized, so strategies can check them without
+ * walking the response again.
+ *
+ * Author: Sharif
+ *
+ * @see <a href=
+ *      "https://github.com/sharifrahim">https://github.com/sharifrahim</a>
+ */
+@Value
+public class ResponseEnvelope {
+
+	/**
+	 * Envelope of a response nothing was captured from.
+	 */
+	public static final ResponseEnvelope EMPTY = new ResponseEnvelope(null, null);
+
+	// Provider status code, null if the response has none
+	String statusCode;
+
+	// Provider status message, null if the response has none
+	String statusMessage;
+
+	/**
+	 * Where a strategy expects the envelope fields. A JSON pointer (such as
+	 * {@code /statusCode}) addresses the field directly; when it is not set or
+	 * matches nothing, the first scalar field named like the key (ignoring case)
+	 * anywhere in the document is used.
+	 */
+	@Value
+	public static class Fields {
+
+		// JSON pointer to the status code, may be null
+		String statusCodePointer;
+
+		// Field name searched for when the pointer is unset or unmatched
+		String statusCodeKey;
+
+		// JSON pointer to the status message, may be null
+		String statusMessagePointer;
+
+		// Field name searched for when the pointer is unset or unmatched
+		String statusMessageKey;
+	}
+}
@@ -1,8 +1,13 @@
 package com.github.sharifrahim.rest.rest.foundation.demo.strategy;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
 /**
  * Strategy interface for executing an external REST API call. This interface
  * defines all necessary steps to perform and handle a REST request and
@@ -41,6 +46,21 @@ public interface RestRequestStrategy<REQ, RES> {
 	 */
 	HttpEntity<REQ> buildRequestEntity() throws Exception;
 
+	/**
+	 * Builds the request entity without blocking, as the reactive engine does.
+	 * The default builds it on the calling thread; decorators that need I/O,
+	 * such as fetching a token, should override this.
+	 *
+	 * @return a future completed with the request entity
+	 */
+	default CompletableFuture<HttpEntity<REQ>> buildRequestEntityAsync() {
+		try {
+			return CompletableFuture.completedFuture(buildRequestEntity());
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	/**
 	 * Provides the expected response type for deserialization.
 	 *
@@ -57,4 +77,86 @@ public interface RestRequestStrategy<REQ, RES> {
 	 * @throws Exception if response validation or processing fails
 	 */
 	void processResult(RES response) throws Exception;
+
+	/**
+	 * Processes the deserialized response together with the envelope status
+	 * captured while it was parsed. Defaults to {@link #processResult(Object)}.
+	 *
+	 * @param response the deserialized response object
+	 * @param envelope the captured envelope, empty if nothing was captured
+	 * @throws Exception if response validation or processing fails
+	 */
+	default void processResult(RES response, ResponseEnvelope envelope) throws Exception {
+		processResult(response);
+	}
+
+	/**
+	 * Envelope fields to capture while the response is deserialized and hand to
+	 * {@link #processResult(Object, ResponseEnvelope)}. Returns null (nothing
+	 * captured) by default.
+	 *
+	 * @return the envelope fields, or null
+	 */
+	default ResponseEnvelope.Fields getEnvelopeFields() {
+		return null;
+	}
+
+	/**
+	 * How long a successful response may be served from the response cache.
+	 * Ignored unless {@link #isIdempotent()} is true. Returns null (no caching)
+	 * by default.
+	 *
+	 * @return the cache TTL, or null to disable caching
+	 * @throws Exception in case of configuration or state errors
+	 */
+	default Duration getCacheTtl() throws Exception {
+		return null;
+	}
+
+	/**
+	 * Whether the response is deserialized straight from the connection instead
+	 * of being read into a string first. Streamed calls skip the response cache
+	 * and request coalescing, and only the leading part of their body is
+	 * audited. Defaults to false.
+	 *
+	 * @return true to stream the response
+	 * @throws Exception in case of configuration or state errors
+	 */
+	default boolean isStreaming() throws Exception {
+		return false;
+	}
+
+	/**
+	 * Whether repeating the call has no additional effect on the provider, which
+	 * allows identical concurrent calls to be coalesced and failed or slow calls
+	 * to be retried or hedged. Defaults to true for GET and HEAD requests only.
+	 *
+	 * @return true if the call is idempotent
+	 * @throws Exception in case of configuration or state errors
+	 */
+	default boolean isIdempotent() throws Exception {
+		HttpMethod method = getMethod();
+		return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+	}
+
+	/**
+	 * The provider this call goes to, used to select per-provider protection such
+	 * as circuit breaking. Provider decorators override this; undecorated
+	 * strategies return null and run unprotected.
+	 *
+	 * @return the target provider, or null if unknown
+	 */
+	default Provider getProvider() {
+		return null;
+	}
+
+	/**
+	 * Name identifying this call in metrics. Defaults to the simple class name;
+	 * decorators return the name of the strategy they wrap.
+	 *
+	 * @return the strategy name
+	 */
+	default String getName() {
+		return getClass().getSimpleName();
+	}
 }
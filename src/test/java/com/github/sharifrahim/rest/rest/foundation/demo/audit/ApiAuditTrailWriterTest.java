@@ -0,0 +1,204 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.service.ApiAuditTrailService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ApiAuditTrailWriterTest {
+
+	private final ApiAuditTrailService auditService = mock(ApiAuditTrailService.class);
+	private final RestMetrics metrics = new RestMetrics(new SimpleMeterRegistry(), new MetricsProperties());
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void syncModeSavesOnCallerThread() {
+		ApiAuditTrailWriter writer = new ApiAuditTrailWriter(auditService,
+				new AuditSanitizer(new JsonHelper(), new AuditProperties()), new AuditBodyCodec(new AuditProperties()),
+				new AuditSampler(new AuditProperties()), new AuditJournal(new AuditProperties()),
+				new AuditProperties(), metrics);
+		writer.start();
+
+		writer.submit(record("/a"));
+
+		ArgumentCaptor<List<ApiAuditTrail>> captor = ArgumentCaptor.forClass(List.class);
+		verify(auditService).saveAll(captor.capture());
+		// No request body was sent, so none is stored
+		ApiAuditTrail saved = captor.getValue().get(0);
+		assertThat(saved.getRequestBody()).isNull();
+		assertThat(saved.getRequestBodySha256()).isNull();
+	}
+
+	@Test
+	void nonBlockingSubmitHandsSynchronousWritesToTheExecutor() {
+		ApiAuditTrailWriter writer = new ApiAuditTrailWriter(auditService,
+				new AuditSanitizer(new JsonHelper(), new AuditProperties()), new AuditBodyCodec(new AuditProperties()),
+				new AuditSampler(new AuditProperties()), new AuditJournal(new AuditProperties()),
+				new AuditProperties(), metrics);
+		writer.start();
+		List<Runnable> handedOver = new ArrayList<>();
+
+		writer.submit(record("/a"), handedOver::add);
+
+		verifyNoInteractions(auditService);
+		assertThat(handedOver).hasSize(1);
+		handedOver.get(0).run();
+		verify(auditService).saveAll(anyList());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void asyncModeFlushesInBatches() throws Exception {
+		AuditProperties properties = new AuditProperties();
+		properties.setMode(AuditProperties.Mode.ASYNC);
+		properties.setBatchSize(10);
+		properties.setFlushInterval(Duration.ofMillis(50));
+		ApiAuditTrailWriter writer = new ApiAuditTrailWriter(auditService, new AuditSanitizer(new JsonHelper(), properties),
+				new AuditBodyCodec(properties), new AuditSampler(properties), new AuditJournal(properties),
+				properties, metrics);
+		writer.start();
+
+		for (int i = 0; i < 25; i++) {
+			writer.submit(record("/" + i));
+		}
+		writer.stop();
+
+		ArgumentCaptor<List<ApiAuditTrail>> captor = ArgumentCaptor.forClass(List.class);
+		verify(auditService, timeout(1000).atLeast(3)).saveAll(captor.capture());
+		List<ApiAuditTrail> saved = new ArrayList<>();
+		captor.getAllValues().forEach(batch -> {
+			assertThat(batch).hasSizeLessThanOrEqualTo(10);
+			saved.addAll(batch);
+		});
+		assertThat(saved).hasSize(25);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void spillsFailedBatchesToTheJournalAndReplaysThemLater(@TempDir Path directory) {
+		AuditProperties properties = new AuditProperties();
+		properties.getJournal().setEnabled(true);
+		properties.getJournal().setDirectory(directory.toString());
+		AuditJournal journal = new AuditJournal(properties);
+		ApiAuditTrailWriter writer = new ApiAuditTrailWriter(auditService, new AuditSanitizer(new JsonHelper(), properties),
+				new AuditBodyCodec(properties), new AuditSampler(properties), journal, properties, metrics);
+		writer.start();
+		when(auditService.saveAll(anyList())).thenThrow(new CannotCreateTransactionException("database down"));
+		when(auditService.saveAllAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0, List.class).size());
+
+		writer.submit(record("/a"));
+		writer.submit(record("/b"));
+
+		assertThat(writer.getSpilledCount()).isEqualTo(2);
+		assertThat(writer.getFailedCount()).isZero();
+
+		AuditJournalReplayer replayer = new AuditJournalReplayer(journal, auditService, properties);
+		assertThat(replayer.replay()).isEqualTo(2);
+		ArgumentCaptor<List<ApiAuditTrail>> captor = ArgumentCaptor.forClass(List.class);
+		verify(auditService).saveAllAbsent(captor.capture());
+		assertThat(captor.getValue()).extracting(ApiAuditTrail::getUrl).containsExactly("/a", "/b");
+		assertThat(journal.getSizeBytes()).isZero();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void savesRowByRowAndQuarantinesRowsTheDatabaseRejects(@TempDir Path directory) throws Exception {
+		AuditProperties properties = new AuditProperties();
+		properties.setMode(AuditProperties.Mode.ASYNC);
+		properties.setWriterThreads(1);
+		properties.setBatchSize(3);
+		properties.getJournal().setEnabled(true);
+		properties.getJournal().setDirectory(directory.toString());
+		AuditJournal journal = new AuditJournal(properties);
+		ApiAuditTrailWriter writer = new ApiAuditTrailWriter(auditService,
+				new AuditSanitizer(new JsonHelper(), properties), new AuditBodyCodec(properties),
+				new AuditSampler(properties), journal, properties, metrics);
+		when(auditService.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+		when(auditService.save(any())).thenAnswer(invocation -> {
+			ApiAuditTrail row = invocation.getArgument(0);
+			if ("/bad".equals(row.getUrl())) {
+				throw new DataIntegrityViolationException("value too long");
+			}
+			return row;
+		});
+		AuditJournalReplayer replayer = new AuditJournalReplayer(journal, auditService, properties);
+
+		writer.start();
+		writer.submit(record("/a"));
+		writer.submit(record("/bad"));
+		writer.submit(record("/b"));
+		writer.stop();
+
+		verify(auditService).saveAll(anyList());
+		ArgumentCaptor<ApiAuditTrail> saved = ArgumentCaptor.forClass(ApiAuditTrail.class);
+		verify(auditService, times(3)).save(saved.capture());
+		assertThat(saved.getAllValues()).extracting(ApiAuditTrail::getUrl).containsExactly("/a", "/bad", "/b");
+		assertThat(writer.getFailedCount()).isEqualTo(1);
+		assertThat(writer.getSpilledCount()).isZero();
+
+		// A journaled row the database rejects does not hold up its segment
+		journal.append(ApiAuditTrail.builder().correlationId("c-1").url("/a").build());
+		journal.append(ApiAuditTrail.builder().correlationId("c-2").url("/bad").build());
+		when(auditService.saveAllAbsent(anyList())).thenAnswer(invocation -> {
+			List<ApiAuditTrail> rows = invocation.getArgument(0, List.class);
+			if (rows.stream().anyMatch(row -> "/bad".equals(row.getUrl()))) {
+				throw new DataIntegrityViolationException("value too long");
+			}
+			return rows.size();
+		});
+
+		assertThat(replayer.replay()).isEqualTo(1);
+		assertThat(replayer.getQuarantinedCount()).isEqualTo(1);
+		assertThat(journal.getSizeBytes()).isZero();
+	}
+
+	@Test
+	void pausesTheReplayWhileTheDatabaseIsUnavailable(@TempDir Path directory) {
+		AuditProperties properties = new AuditProperties();
+		properties.getJournal().setEnabled(true);
+		properties.getJournal().setDirectory(directory.toString());
+		AuditJournal journal = new AuditJournal(properties);
+		journal.append(ApiAuditTrail.builder().correlationId("c-1").url("/a").build());
+		when(auditService.saveAllAbsent(anyList())).thenThrow(new CannotCreateTransactionException("database down"));
+		AuditJournalReplayer replayer = new AuditJournalReplayer(journal, auditService, properties);
+
+		assertThat(replayer.replay()).isZero();
+
+		verify(auditService).saveAllAbsent(anyList());
+		assertThat(replayer.getQuarantinedCount()).isZero();
+		assertThat(journal.getSizeBytes()).isPositive();
+	}
+
+	private AuditRecord record(String url) {
+		AuditRecord record = new AuditRecord();
+		record.setMethod("POST");
+		record.setUrl(url);
+		record.setStatus("SUCCESS");
+		return record;
+	}
+}
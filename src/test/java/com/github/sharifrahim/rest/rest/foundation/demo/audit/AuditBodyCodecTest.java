@@ -0,0 +1,60 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+class AuditBodyCodecTest {
+
+	private static final String LARGE = "{\"rows\":[" + "{\"a\":\"xyz\"},".repeat(500) + "{}]}";
+
+	@Test
+	void compressesLargeBodiesAndRestoresThemOnRead() {
+		AuditBodyCodec codec = new AuditBodyCodec(deflate());
+		ApiAuditTrail audit = new ApiAuditTrail();
+
+		codec.encode(audit, AuditBody.of("{\"small\":true}"), new AuditBody(LARGE, 123_456L, "abc"));
+
+		assertThat(audit.getRequestBody()).isEqualTo("{\"small\":true}");
+		assertThat(audit.getRequestBodyCompressed()).isNull();
+		assertThat(audit.getResponseBody()).isNull();
+		assertThat(audit.getResponseBodyCompressed()).hasSizeLessThan(LARGE.length() / 10);
+		assertThat(audit.getResponseBodyOriginalLength()).isEqualTo(123_456L);
+		assertThat(audit.getResponseBodySha256()).isEqualTo("abc");
+
+		codec.decode(audit);
+
+		assertThat(audit.getResponseBody()).isEqualTo(LARGE);
+		assertThat(audit.getResponseBodyCompressed()).isNull();
+	}
+
+	@Test
+	void storesTextWhenCompressionIsOffOrDoesNotHelp() {
+		ApiAuditTrail plain = new ApiAuditTrail();
+		new AuditBodyCodec(new AuditProperties()).encode(plain, null, AuditBody.of(LARGE));
+		assertThat(plain.getResponseBody()).isEqualTo(LARGE);
+		assertThat(plain.getResponseBodyCompressed()).isNull();
+
+		// Random text deflates to more than it started with
+		StringBuilder noise = new StringBuilder();
+		Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			noise.append((char) ('!' + random.nextInt(90)));
+		}
+		ApiAuditTrail incompressible = new ApiAuditTrail();
+		new AuditBodyCodec(deflate()).encode(incompressible, null, AuditBody.of(noise.toString()));
+		assertThat(incompressible.getResponseBody()).isEqualTo(noise.toString());
+	}
+
+	private AuditProperties deflate() {
+		AuditProperties properties = new AuditProperties();
+		properties.getStorage().setCompression(AuditProperties.Storage.Compression.DEFLATE);
+		properties.getStorage().setCompressThreshold(64);
+		return properties;
+	}
+}
@@ -0,0 +1,108 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+
+class AuditJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysRowsAcrossRestarts() throws Exception {
+		AuditJournal journal = new AuditJournal(properties(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1)));
+		ApiAuditTrail row = row("c-1");
+		row.setResponseBodyCompressed(new byte[] { 1, 2, 3 });
+		row.setResponseBodyOriginalLength(70_000L);
+		assertThat(journal.append(row)).isTrue();
+		assertThat(journal.append(row("c-2"))).isTrue();
+		journal.close();
+
+		AuditJournal reopened = new AuditJournal(properties(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1)));
+		List<Path> segments = reopened.segmentsToReplay();
+		List<ApiAuditTrail> rows = new ArrayList<>();
+		reopened.read(segments.get(0), rows::add);
+
+		assertThat(segments).hasSize(1);
+		assertThat(rows).extracting(ApiAuditTrail::getCorrelationId).containsExactly("c-1", "c-2");
+		assertThat(rows.get(0).getTimestamp()).isEqualTo(row.getTimestamp());
+		assertThat(rows.get(0).getResponseBodyCompressed()).containsExactly(1, 2, 3);
+		assertThat(rows.get(0).getResponseBodyOriginalLength()).isEqualTo(70_000L);
+		assertThat(rows.get(1).getDurationMs()).isEqualTo(42);
+
+		reopened.delete(segments.get(0));
+		assertThat(reopened.getSizeBytes()).isZero();
+		assertThat(reopened.segmentsToReplay()).isEmpty();
+	}
+
+	@Test
+	void rollsOverSegmentsAndRefusesRowsBeyondTheSizeCap() {
+		AuditJournal journal = new AuditJournal(properties(DataSize.ofKilobytes(4), DataSize.ofKilobytes(12)));
+
+		int accepted = 0;
+		while (journal.append(row("c-" + accepted))) {
+			accepted++;
+		}
+
+		assertThat(accepted).isGreaterThan(10);
+		assertThat(journal.getSizeBytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(12).toBytes());
+		assertThat(journal.getRefusedCount()).isEqualTo(1);
+		assertThat(journal.segmentsToReplay()).hasSizeGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	void stopsAtACorruptEntry() throws Exception {
+		AuditJournal journal = new AuditJournal(properties(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1)));
+		journal.append(row("c-1"));
+		journal.append(row("c-2"));
+		journal.close();
+		Path segment = journal.segmentsToReplay().get(0);
+
+		// Flip a byte in the second entry's payload
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			long secondPayload = file.length() - 10;
+			file.seek(secondPayload);
+			int b = file.read();
+			file.seek(secondPayload);
+			file.write(b ^ 0xFF);
+		}
+
+		List<ApiAuditTrail> rows = new ArrayList<>();
+		journal.read(segment, rows::add);
+		assertThat(rows).extracting(ApiAuditTrail::getCorrelationId).containsExactly("c-1");
+	}
+
+	private AuditProperties properties(DataSize segmentSize, DataSize maxSize) {
+		AuditProperties properties = new AuditProperties();
+		properties.getJournal().setEnabled(true);
+		properties.getJournal().setDirectory(directory.toString());
+		properties.getJournal().setSegmentSize(segmentSize);
+		properties.getJournal().setMaxSize(maxSize);
+		return properties;
+	}
+
+	private ApiAuditTrail row(String correlationId) {
+		ApiAuditTrail row = new ApiAuditTrail();
+		row.setCorrelationId(correlationId);
+		row.setTimestamp(ZonedDateTime.parse("2025-01-01T10:00:00+08:00[Asia/Kuala_Lumpur]"));
+		row.setMethod("POST");
+		row.setUrl("https://provider.example/accounts");
+		row.setRequestBody("{\"accountNo\":\"123\"}");
+		row.setResponseStatus(200);
+		row.setDurationMs(42);
+		row.setStatus("SUCCESS");
+		return row;
+	}
+}
@@ -0,0 +1,86 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties.Detail;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+class AuditSamplerTest {
+
+	@Test
+	void keepsFailuresAndSlowCallsInFullAndStripsSuccesses() {
+		AuditSampler sampler = new AuditSampler(sampling(Detail.METADATA, 0));
+
+		assertThat(sampler.detailFor(record("SUCCESS", 10), 0)).isEqualTo(Detail.METADATA);
+		assertThat(sampler.detailFor(record("FAILED", 10), 0)).isEqualTo(Detail.FULL);
+		assertThat(sampler.detailFor(record("REJECTED", 0), 0)).isEqualTo(Detail.FULL);
+		assertThat(sampler.detailFor(record("SUCCESS", 1500), 0)).isEqualTo(Detail.FULL);
+	}
+
+	@Test
+	void treatsFailedHedgesAsFailuresEvenWhileShedding() {
+		AuditSampler sampler = new AuditSampler(sampling(Detail.METADATA, 0));
+		AuditRecord failedHedge = record("HEDGED", 10);
+		failedHedge.setErrorMessage("503 Service Unavailable");
+
+		assertThat(sampler.detailFor(record("HEDGED", 10), 0)).isEqualTo(Detail.METADATA);
+		assertThat(sampler.detailFor(record("HEDGED", 10), 0.95)).isEqualTo(Detail.NONE);
+		assertThat(sampler.detailFor(failedHedge, 0)).isEqualTo(Detail.FULL);
+		assertThat(sampler.detailFor(failedHedge, 0.95)).isEqualTo(Detail.FULL);
+	}
+
+	@Test
+	void samplesOneInNSuccessesInFull() {
+		AuditSampler sampler = new AuditSampler(sampling(Detail.NONE, 10));
+
+		int full = 0;
+		for (int i = 0; i < 10_000; i++) {
+			Detail detail = sampler.detailFor(record("SUCCESS", 10), 0);
+			assertThat(detail).isIn(Detail.FULL, Detail.NONE);
+			if (detail == Detail.FULL) {
+				full++;
+			}
+		}
+		assertThat(full).isBetween(800, 1200);
+	}
+
+	@Test
+	void degradesSuccessesAsTheQueueBacksUpAndHonoursStrategyRules() {
+		AuditProperties properties = sampling(Detail.FULL, 0);
+		AuditProperties.Rule quiet = new AuditProperties.Rule();
+		quiet.setSuccess(Detail.NONE);
+		properties.getSampling().getStrategies().put("Quiet", quiet);
+		AuditSampler sampler = new AuditSampler(properties);
+
+		assertThat(sampler.detailFor(record("SUCCESS", 10), 0.6)).isEqualTo(Detail.METADATA);
+		assertThat(sampler.detailFor(record("SUCCESS", 10), 0.95)).isEqualTo(Detail.NONE);
+		assertThat(sampler.detailFor(record("FAILED", 10), 0.95)).isEqualTo(Detail.FULL);
+
+		AuditRecord quietCall = record("SUCCESS", 10);
+		quietCall.setStrategy("Quiet");
+		assertThat(sampler.detailFor(quietCall, 0)).isEqualTo(Detail.NONE);
+	}
+
+	private AuditProperties sampling(Detail success, int fullSampleOneIn) {
+		AuditProperties properties = new AuditProperties();
+		properties.getSampling().setEnabled(true);
+		properties.getSampling().getDefaults().setSuccess(success);
+		properties.getSampling().getDefaults().setFullSampleOneIn(fullSampleOneIn);
+		properties.getSampling().getDefaults().setSlowCallThreshold(Duration.ofSeconds(1));
+		return properties;
+	}
+
+	private AuditRecord record(String status, int durationMs) {
+		AuditRecord record = new AuditRecord();
+		record.setProvider(Provider.PROVIDER_X);
+		record.setStrategy("Accounts");
+		record.setStatus(status);
+		record.setDurationMs(durationMs);
+		return record;
+	}
+}
@@ -0,0 +1,88 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.helper.JsonHelper;
+
+class AuditSanitizerTest {
+
+	private final AuditSanitizer sanitizer = new AuditSanitizer(new JsonHelper(), new AuditProperties());
+
+	@Test
+	void masksSensitiveKeysAtAnyDepth() {
+		Map<String, Object> body = Map.of("user", Map.of("name", "ali", "PASSWORD", "p4ss"),
+				"items", List.of(Map.of("apikey", Map.of("nested", "x"))));
+
+		String json = sanitizer.toJson(body);
+
+		assertThat(json).contains("\"PASSWORD\":\"***\"").contains("\"apikey\":\"***\"").contains("\"name\":\"ali\"")
+				.doesNotContain("p4ss").doesNotContain("nested");
+	}
+
+	@Test
+	void keepsHeaderValuesArrayShaped() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth("abc");
+		headers.add("X-Trace", "1");
+
+		assertThat(sanitizer.toJson(headers)).isEqualTo("{\"Authorization\":[\"***\"],\"X-Trace\":[\"1\"]}");
+	}
+
+	@Test
+	void masksValuePatternsAndCapsOutput() {
+		AuditProperties properties = new AuditProperties();
+		properties.getSanitizer().setValuePatterns(List.of("\\b\\d{16}\\b"));
+		properties.getSanitizer().setMaxChars(40);
+		AuditSanitizer capped = new AuditSanitizer(new JsonHelper(), properties);
+
+		assertThat(capped.sanitizeBody("{\"card\":\"4111111111111111\"}")).isEqualTo("{\"card\":\"***\"}");
+		assertThat(capped.sanitizeBody("{\"list\":[" + "\"aaaaaaaaaa\",".repeat(20) + "\"z\"]}"))
+				.endsWith(AuditSanitizer.TRUNCATED_MARKER)
+				.hasSizeLessThanOrEqualTo(40 + AuditSanitizer.TRUNCATED_MARKER.length());
+	}
+
+	@Test
+	void recordsFullLengthAndHashOfTruncatedBodies() throws Exception {
+		AuditProperties properties = new AuditProperties();
+		properties.getSanitizer().setMaxChars(40);
+		AuditSanitizer capped = new AuditSanitizer(new JsonHelper(), properties);
+		String body = "{\"name\":\"\u00e9\uD83D\uDE00\",\"list\":[" + "\"aaaaaaaaaa\",".repeat(2000) + "\"z\"]}";
+		String full = sanitizer.sanitizeBody(body);
+
+		AuditBody truncated = capped.sanitizeBodyCapped(body);
+
+		assertThat(truncated.isTruncated()).isTrue();
+		assertThat(truncated.getText()).isEqualTo(full.substring(0, 40) + AuditSanitizer.TRUNCATED_MARKER);
+		assertThat(truncated.getOriginalLength()).isEqualTo(full.length());
+		assertThat(truncated.getSha256()).isEqualTo(HexFormat.of()
+				.formatHex(MessageDigest.getInstance("SHA-256").digest(full.getBytes(StandardCharsets.UTF_8))));
+		assertThat(sanitizer.sanitizeBodyCapped("OK").isTruncated()).isFalse();
+	}
+
+	@Test
+	void masksPrefixesCutInsideAValue() {
+		AuditBody cutInSecret = sanitizer.sanitizeBodyPrefix("{\"user\":{\"name\":\"ali\",\"password\":\"p4s", 5000);
+		AuditBody cutInText = sanitizer.sanitizeBodyPrefix("{\"id\":1,\"note\":\"half a sent", 5000);
+
+		assertThat(cutInSecret.getText()).isEqualTo(
+				"{\"user\":{\"name\":\"ali\",\"password\":\"***\"" + AuditSanitizer.TRUNCATED_MARKER);
+		assertThat(cutInSecret.getOriginalLength()).isEqualTo(5000);
+		assertThat(cutInText.getText()).isEqualTo("{\"id\":1,\"note\"" + AuditSanitizer.TRUNCATED_MARKER);
+	}
+
+	@Test
+	void leavesNonJsonBodiesAsText() {
+		assertThat(sanitizer.sanitizeBody("OK")).isEqualTo("OK");
+		assertThat(sanitizer.toJson(null)).isEqualTo("null");
+	}
+}
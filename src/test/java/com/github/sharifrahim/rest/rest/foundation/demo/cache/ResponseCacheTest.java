@@ -0,0 +1,89 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCacheTest {
+
+	private static final Duration TTL = Duration.ofMinutes(1);
+
+	private ResponseCache cache(int maxEntries, long maxBytes) {
+		CacheProperties properties = new CacheProperties();
+		properties.setMaxEntries(maxEntries);
+		properties.setMaxBytes(maxBytes);
+		return new ResponseCache(properties);
+	}
+
+	@Test
+	void dropsExpiredEntriesOnLookup() throws Exception {
+		ResponseCache cache = cache(10, 1024);
+		cache.put("short", "{}", Duration.ofMillis(20));
+		cache.put("long", "{}", TTL);
+
+		assertThat(cache.get("short")).isEqualTo("{}");
+		Thread.sleep(50);
+
+		assertThat(cache.get("short")).isNull();
+		assertThat(cache.get("long")).isEqualTo("{}");
+		assertThat(cache.getExpirationCount()).isEqualTo(1);
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryBeyondTheEntryLimit() {
+		ResponseCache cache = cache(2, 1024);
+		cache.put("a", "1", TTL);
+		cache.put("b", "2", TTL);
+		cache.get("a");
+
+		cache.put("c", "3", TTL);
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isEqualTo("1");
+		assertThat(cache.get("c")).isEqualTo("3");
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsBeyondTheByteLimitAndSkipsBodiesLargerThanIt() {
+		// Each entry is 2 bytes per char of key and body: 2 * (1 + 9) = 20
+		ResponseCache cache = cache(100, 50);
+		cache.put("a", "123456789", TTL);
+		cache.put("b", "123456789", TTL);
+		assertThat(cache.getBytes()).isEqualTo(40);
+
+		cache.put("c", "123456789", TTL);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.getBytes()).isEqualTo(40);
+		assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+		cache.put("d", "x".repeat(30), TTL);
+		assertThat(cache.get("d")).isNull();
+		assertThat(cache.getSize()).isEqualTo(2);
+	}
+
+	@Test
+	void publishesItsCountersAsMeters() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		ResponseCache cache = cache(1, 1024);
+		cache.bindTo(registry);
+		cache.put("a", "1", TTL);
+		cache.put("b", "2", TTL);
+		cache.get("a");
+		cache.get("b");
+
+		assertThat(registry.get("rest.cache.hits").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("rest.cache.misses").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("rest.cache.evictions").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("rest.cache.size").gauge().value()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,151 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.BatchResult;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.BatchResult.ItemResult;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+class BulkExecutorTest {
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final RestHelper restHelper = mock(RestHelper.class);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void capsCallsInFlightAndIsolatesFailures() throws Exception {
+		runOnExecutor();
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		List<Item> items = items(20);
+		IllegalStateException failure = new IllegalStateException("item 5 failed");
+
+		BatchResult<Integer> batch = bulkExecutor(3).executeAll(Provider.PROVIDER_X, items, strategy -> {
+			peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(20);
+				if (((Item) strategy).index == 5) {
+					throw failure;
+				}
+				return ((Item) strategy).index;
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+
+		assertThat(peak.get()).isEqualTo(3);
+		assertThat(batch.getSuccessCount()).isEqualTo(19);
+		assertThat(batch.getItems()).extracting(ItemResult::getStrategy).containsExactlyElementsOf(items);
+		assertThat(batch.getItems().get(5).getError()).isSameAs(failure);
+		assertThat(batch.getItems().get(6).getResponse()).isEqualTo(6);
+	}
+
+	@Test
+	void releasesThePermitOfAnItemThatCannotBeSubmitted() {
+		RejectedExecutionException rejected = new RejectedExecutionException("shutting down");
+		AtomicInteger submitted = new AtomicInteger();
+		when(restHelper.supplyAsync(any())).thenAnswer(invocation -> {
+			if (submitted.getAndIncrement() == 0) {
+				throw rejected;
+			}
+			return run(invocation.getArgument(0));
+		});
+
+		// With a single permit the second item waits forever if the first kept it
+		BatchResult<Integer> batch = assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> bulkExecutor(1).executeAll(Provider.PROVIDER_X, items(2), strategy -> 1));
+
+		assertThat(batch.getItems().get(0).getError()).isSameAs(rejected);
+		assertThat(batch.getItems().get(1).getResponse()).isEqualTo(1);
+	}
+
+	private BulkExecutor bulkExecutor(int bulkConcurrency) {
+		RestClientProperties.ProviderProperties providerProperties = new RestClientProperties.ProviderProperties();
+		providerProperties.setBulkConcurrency(bulkConcurrency);
+		RestClientProperties properties = new RestClientProperties();
+		properties.getProviders().put(Provider.PROVIDER_X, providerProperties);
+		return new BulkExecutor(restHelper, properties);
+	}
+
+	// Stubs supplyAsync to run calls on the test's executor, as RestHelper does
+	private void runOnExecutor() {
+		when(restHelper.supplyAsync(any())).thenAnswer(invocation -> run(invocation.getArgument(0)));
+	}
+
+	private <T> CompletableFuture<T> run(RestHelper.BlockingCall<T> call) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				future.complete(call.call());
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	private static List<Item> items(int count) {
+		List<Item> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			items.add(new Item(i));
+		}
+		return items;
+	}
+
+	static class Item implements RestRequestStrategy<Void, Integer> {
+
+		private final int index;
+
+		Item(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String getUrl() {
+			return "https://provider.test/items/" + index;
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return HttpMethod.GET;
+		}
+
+		@Override
+		public HttpEntity<Void> buildRequestEntity() {
+			return new HttpEntity<>((Void) null);
+		}
+
+		@Override
+		public Class<Integer> getResponseType() {
+			return Integer.class;
+		}
+
+		@Override
+		public void processResult(Integer response) {
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+import lombok.Data;
+
+class EnvelopeCapturingParserTest {
+
+	private final JsonHelper jsonHelper = new JsonHelper();
+
+	@Test
+	void capturesPointedFieldsWhileDeserializing() throws Exception {
+		String json = "{\"data\":{\"items\":[{\"statusCode\":\"NESTED\"}]},"
+				+ "\"header\":{\"statusCode\":\"SUCCESS\",\"statusMessage\":\"OK\"}}";
+		ResponseEnvelope.Fields fields = new ResponseEnvelope.Fields("/header/statusCode", "statusCode",
+				"/header/statusMessage", "statusMessage");
+
+		try (EnvelopeCapturingParser parser = parser(json, fields)) {
+			Response response = jsonHelper.readerFor(Response.class).readValue(parser);
+
+			assertThat(response.getHeader().getStatusCode()).isEqualTo("SUCCESS");
+			assertThat(parser.getEnvelope()).isEqualTo(new ResponseEnvelope("SUCCESS", "OK"));
+		}
+	}
+
+	@Test
+	void fallsBackToTheFirstMatchingKeyInsideSkippedSubtrees() throws Exception {
+		String json = "{\"ignored\":{\"list\":[1,{\"STATUSCODE\":\"FAILED\",\"statusMessage\":null}]},"
+				+ "\"statusCode\":\"SUCCESS\",\"header\":null}";
+		ResponseEnvelope.Fields fields = new ResponseEnvelope.Fields("/missing", "statusCode", null,
+				"statusMessage");
+
+		try (EnvelopeCapturingParser parser = parser(json, fields)) {
+			jsonHelper.readerFor(Response.class).readValue(parser);
+
+			assertThat(parser.getEnvelope()).isEqualTo(new ResponseEnvelope("FAILED", null));
+		}
+	}
+
+	@Test
+	void matchesArrayIndexesInPointers() throws Exception {
+		String json = "{\"data\":{\"items\":[{\"statusCode\":\"A\"},{\"statusCode\":\"B\"}]}}";
+		ResponseEnvelope.Fields fields = new ResponseEnvelope.Fields("/data/items/1/statusCode", null, null, null);
+
+		try (EnvelopeCapturingParser parser = parser(json, fields)) {
+			jsonHelper.readerFor(Response.class).readValue(parser);
+
+			assertThat(parser.getEnvelope()).isEqualTo(new ResponseEnvelope("B", null));
+		}
+	}
+
+	private EnvelopeCapturingParser parser(String json, ResponseEnvelope.Fields fields) throws Exception {
+		return new EnvelopeCapturingParser(jsonHelper.getMapper().createParser(json), fields);
+	}
+
+	@Data
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	static class Response {
+
+		private Header header;
+
+		private Payload data;
+	}
+
+	@Data
+	static class Header {
+
+		private String statusCode;
+
+		private String statusMessage;
+	}
+
+	@Data
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	static class Payload {
+
+		private List<Object> items;
+	}
+}
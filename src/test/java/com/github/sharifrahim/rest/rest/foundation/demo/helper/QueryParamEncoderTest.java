@@ -0,0 +1,112 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+class QueryParamEncoderTest {
+
+	private final QueryParamEncoder encoder = new QueryParamEncoder(new ObjectMapper());
+
+	@Test
+	void writesScalarsWithJacksonNamesAndSkipsNulls() {
+		Account account = new Account("ACC 1/2", null, "secret", Kind.SAVINGS, List.of(), null);
+
+		assertThat(encoder.encode("http://x/accounts", account))
+				.isEqualTo("http://x/accounts?account_no=ACC+1%2F2&kind=SAVINGS");
+		assertThat(encoder.encode("http://x/accounts?v=1", account))
+				.isEqualTo("http://x/accounts?v=1&account_no=ACC+1%2F2&kind=SAVINGS");
+	}
+
+	@Test
+	void flattensCollectionsAndNestedObjects() {
+		Account account = new Account("A", 5, null, null, List.of(1, 2),
+				new Period("2024-01-01", null, UUID.fromString("00000000-0000-0000-0000-000000000001")));
+
+		assertThat(encoder.encode("http://x/a", account)).isEqualTo(
+				"http://x/a?account_no=A&limit=5&ids=1&ids=2&period.from=2024-01-01&period.ref=00000000-0000-0000-0000-000000000001");
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("q", "é");
+		body.put("items", List.of(Map.of("sku", "X")));
+		assertThat(encoder.encode("http://x/a", body)).isEqualTo("http://x/a?q=%C3%A9&items%5B0%5D.sku=X");
+	}
+
+	@Test
+	void fillsPathVariablesAndLeavesThemOutOfTheQuery() {
+		Account account = new Account("A B", 5, null, null, null, null);
+
+		assertThat(encoder.encode("http://x/accounts/{account_no}", account))
+				.isEqualTo("http://x/accounts/A%20B?limit=5");
+		assertThatThrownBy(() -> encoder.encode("http://x/{missing}", account))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void encodesTheBaseUrlWhetherOrNotThereIsABody() {
+		Account account = new Account("A B", 5, null, null, null, null);
+
+		assertThat(encoder.encode("http://x/my accounts/{account_no}?note=a b", account))
+				.isEqualTo("http://x/my%20accounts/A%20B?note=a%20b&limit=5");
+		assertThat(encoder.encode("http://x/my accounts?note=a b", null))
+				.isEqualTo("http://x/my%20accounts?note=a%20b");
+		assertThat(encoder.encode("http://x/é", Map.of("q", "1"))).isEqualTo("http://x/%C3%A9?q=1");
+	}
+
+	@Test
+	void leavesTheUrlAloneWhenThereIsNothingToAdd() {
+		assertThat(encoder.encode("http://x/a", null)).isEqualTo("http://x/a");
+		assertThat(encoder.encode("http://x/a", new Account(null, null, null, null, null, null)))
+				.isEqualTo("http://x/a");
+	}
+
+	enum Kind {
+		SAVINGS
+	}
+
+	@Data
+	@AllArgsConstructor
+	@JsonPropertyOrder({ "account_no", "limit", "kind", "ids", "period" })
+	static class Account {
+
+		@JsonProperty("account_no")
+		private String accountNo;
+
+		private Integer limit;
+
+		@JsonIgnore
+		private String pin;
+
+		private Kind kind;
+
+		private List<Integer> ids;
+
+		private Period period;
+	}
+
+	@Data
+	@AllArgsConstructor
+	@JsonPropertyOrder({ "from", "to", "ref" })
+	static class Period {
+
+		private String from;
+
+		private String to;
+
+		private UUID ref;
+	}
+}
@@ -0,0 +1,290 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditRecord;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RetryProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.factory.TokenManagerFactory;
+import com.github.sharifrahim.rest.rest.foundation.demo.manager.TokenManager;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RetryPolicy;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.TokenBucketRateLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Data;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+class ReactiveRestHelperTest {
+
+	private final ApiAuditTrailWriter auditWriter = mock(ApiAuditTrailWriter.class);
+	private final RestHelper restHelper = mock(RestHelper.class);
+	private final ExecutorService restExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final List<URI> requests = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		restExecutor.shutdownNow();
+	}
+
+	@Test
+	void encodesGetBodiesAndCapturesTheEnvelope() {
+		ReactiveRestHelper helper = helper(request -> respond(HttpStatus.OK,
+				"{\"name\":\"Ali\",\"statusCode\":\"SUCCESS\",\"statusMessage\":\"OK\"}"));
+		Lookup strategy = new Lookup();
+
+		Account account = helper.execute(strategy).block();
+
+		assertThat(account.getName()).isEqualTo("Ali");
+		assertThat(strategy.envelope).isEqualTo(new ResponseEnvelope("SUCCESS", "OK"));
+		assertThat(requests).containsExactly(URI.create("https://provider.test/accounts/A%201?note=a+b"));
+		assertThat(audited().getStatus()).isEqualTo("SUCCESS");
+	}
+
+	@Test
+	void retriesProviderFailuresWithoutBlocking() {
+		AtomicInteger calls = new AtomicInteger();
+		ReactiveRestHelper helper = helper(request -> calls.incrementAndGet() == 1
+				? respond(HttpStatus.SERVICE_UNAVAILABLE, "busy")
+				: respond(HttpStatus.OK, "{\"name\":\"Ali\"}"));
+
+		Account account = helper.execute(new Lookup()).block();
+
+		assertThat(account.getName()).isEqualTo("Ali");
+		assertThat(calls).hasValue(2);
+		ArgumentCaptor<AuditRecord> records = ArgumentCaptor.forClass(AuditRecord.class);
+		verify(auditWriter, times(2)).submit(records.capture(), any());
+		assertThat(records.getAllValues()).extracting(AuditRecord::getStatus).containsExactly("RETRIED", "SUCCESS");
+	}
+
+	@Test
+	void retriesAnUnauthorizedCachedCallWithAFreshToken() throws Exception {
+		Account account = new Account();
+		account.setName("Ali");
+		when(restHelper.executeAsync(any())).thenReturn(
+				CompletableFuture.failedFuture(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED,
+						"Unauthorized", HttpHeaders.EMPTY, null, null)),
+				CompletableFuture.completedFuture(account));
+		TokenManager tokenManager = mock(TokenManager.class);
+
+		// Cached strategies are handed to RestHelper, which reports a 401 its own way
+		assertThat(providerX(tokenManager).execute(new CachedLookup()).getName()).isEqualTo("Ali");
+		verify(tokenManager).invalidate();
+		verify(restHelper, times(2)).executeAsync(any());
+	}
+
+	@Test
+	void rethrowsCheckedFailuresOfReactiveCallsUnwrapped() {
+		IOException failure = new IOException("Connection reset");
+		when(restHelper.executeAsync(any())).thenReturn(CompletableFuture.failedFuture(failure));
+
+		assertThatThrownBy(() -> providerX(mock(TokenManager.class)).execute(new CachedLookup())).isSameAs(failure);
+	}
+
+	@Test
+	void refusesToBlockANonBlockingThread() {
+		ProviderXRestHelper providerX = providerX(mock(TokenManager.class));
+		Scheduler eventLoop = Schedulers.newParallel("event-loop", 1);
+		CompletableFuture<Account> result = new CompletableFuture<>();
+		try {
+			eventLoop.schedule(() -> {
+				try {
+					result.complete(providerX.execute(new CachedLookup()));
+				} catch (Exception e) {
+					result.completeExceptionally(e);
+				}
+			});
+
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).cause()
+					.isInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("event-loop");
+			verify(restHelper, never()).executeAsync(any());
+		} finally {
+			eventLoop.dispose();
+		}
+	}
+
+	@Test
+	void givesThePermitBackWhenCancelledWhileWaitingForIt() {
+		RateLimitProperties properties = new RateLimitProperties();
+		RateLimitProperties.Settings settings = new RateLimitProperties.Settings();
+		settings.setPermitsPerSecond(1);
+		settings.setMaxWait(Duration.ofSeconds(5));
+		properties.getStrategies().put("Lookup", settings);
+		RateLimiterRegistry rateLimiters = new RateLimiterRegistry(properties);
+		List<TokenBucketRateLimiter> limiters = rateLimiters.get(null, "Lookup");
+		ReactiveRestHelper helper = helper(request -> respond(HttpStatus.OK, "{\"name\":\"Ali\"}"),
+				rateLimiters);
+
+		// Take the only permit, so the call waits a second; cancel it meanwhile
+		TokenBucketRateLimiter.reserve(limiters);
+		Disposable waiting = helper.execute(new Lookup()).subscribe();
+		waiting.dispose();
+
+		// Had the cancelled call kept its permit, the next one would be 2 s away
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isLessThanOrEqualTo(Duration.ofSeconds(1).toNanos());
+		assertThat(requests).isEmpty();
+	}
+
+	// Provider X on the reactive engine, its cached calls answered by restHelper
+	private ProviderXRestHelper providerX(TokenManager tokenManager) {
+		TokenManagerFactory tokenManagerFactory = mock(TokenManagerFactory.class);
+		when(tokenManagerFactory.getManager(Provider.PROVIDER_X)).thenReturn(tokenManager);
+		RestClientProperties.ProviderProperties providerProperties = new RestClientProperties.ProviderProperties();
+		providerProperties.setBaseUrl("https://provider.test");
+		providerProperties.setEngine(RestClientProperties.Engine.REACTIVE);
+		RestClientProperties clientProperties = new RestClientProperties();
+		clientProperties.getProviders().put(Provider.PROVIDER_X, providerProperties);
+		return new ProviderXRestHelper(restHelper,
+				helper(request -> Mono.error(new AssertionError("Cached calls go through RestHelper"))),
+				tokenManagerFactory, clientProperties, new JsonHelper(), null);
+	}
+
+	private ReactiveRestHelper helper(ExchangeFunction exchange) {
+		return helper(exchange, new RateLimiterRegistry(new RateLimitProperties()));
+	}
+
+	private ReactiveRestHelper helper(ExchangeFunction exchange, RateLimiterRegistry rateLimiters) {
+		WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+			requests.add(request.url());
+			return exchange.exchange(request);
+		}).build();
+		return new ReactiveRestHelper(webClient, restHelper, auditWriter, new JsonHelper(), restExecutor,
+				new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+				new ConcurrencyLimiterRegistry(new ConcurrencyLimitProperties()),
+				rateLimiters,
+				new RetryPolicy(new RetryProperties()),
+				new RestMetrics(new SimpleMeterRegistry(), new MetricsProperties()));
+	}
+
+	private AuditRecord audited() {
+		ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+		verify(auditWriter).submit(record.capture(), any());
+		return record.getValue();
+	}
+
+	private static Mono<ClientResponse> respond(HttpStatus status, String body) {
+		return Mono.just(ClientResponse.create(status)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body(body)
+				.build());
+	}
+
+	static class Lookup implements RestRequestStrategy<Query, Account> {
+
+		private ResponseEnvelope envelope;
+
+		@Override
+		public String getUrl() {
+			return "https://provider.test/accounts/{accountNo}";
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return HttpMethod.GET;
+		}
+
+		@Override
+		public HttpEntity<Query> buildRequestEntity() {
+			Query query = new Query();
+			query.setAccountNo("A 1");
+			query.setNote("a b");
+			return new HttpEntity<>(query);
+		}
+
+		@Override
+		public Class<Account> getResponseType() {
+			return Account.class;
+		}
+
+		@Override
+		public boolean isIdempotent() {
+			return true;
+		}
+
+		@Override
+		public ResponseEnvelope.Fields getEnvelopeFields() {
+			return new ResponseEnvelope.Fields(null, "statusCode", null, "statusMessage");
+		}
+
+		@Override
+		public void processResult(Account response) {
+		}
+
+		@Override
+		public void processResult(Account response, ResponseEnvelope envelope) {
+			this.envelope = envelope;
+		}
+	}
+
+	static class CachedLookup extends Lookup {
+
+		@Override
+		public Duration getCacheTtl() {
+			return Duration.ofMinutes(2);
+		}
+	}
+
+	@Data
+	static class Query {
+
+		private String accountNo;
+
+		private String note;
+	}
+
+	@Data
+	static class Account {
+
+		private String name;
+
+		private String statusCode;
+
+		private String statusMessage;
+	}
+}
@@ -0,0 +1,124 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTest {
+
+	private static final int CALLERS = 8;
+
+	private static final Duration MAX_WAIT = Duration.ofSeconds(5);
+
+	private final RequestCoalescer coalescer = new RequestCoalescer();
+	private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneExchange() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		coalescer.bindTo(registry);
+		AtomicInteger exchanges = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<RequestCoalescer.Result>> results = submitAll(() -> {
+			exchanges.incrementAndGet();
+			release.await();
+			return ResponseEntity.ok("{\"id\":1}");
+		});
+		awaitFollowers();
+		assertThat(registry.get("rest.coalescing.in.flight").gauge().value()).isEqualTo(1);
+		release.countDown();
+
+		int leaders = 0;
+		for (Future<RequestCoalescer.Result> result : results) {
+			RequestCoalescer.Result shared = result.get(5, TimeUnit.SECONDS);
+			assertThat(shared.getResponse().getBody()).isEqualTo("{\"id\":1}");
+			leaders += shared.isLeader() ? 1 : 0;
+		}
+		assertThat(exchanges).hasValue(1);
+		assertThat(leaders).isEqualTo(1);
+		assertThat(registry.get("rest.coalescing.joined").functionCounter().count()).isEqualTo(CALLERS - 1);
+		assertThat(coalescer.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void leaderFailureReachesTheFollowers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+
+		List<Future<RequestCoalescer.Result>> results = submitAll(() -> {
+			release.await();
+			throw new IllegalStateException("provider down");
+		});
+		awaitFollowers();
+		release.countDown();
+
+		for (Future<RequestCoalescer.Result> result : results) {
+			assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("provider down");
+		}
+		assertThat(coalescer.getInFlightCount()).isZero();
+
+		// The failed exchange is not remembered
+		assertThat(coalescer.execute("key", "next", MAX_WAIT, () -> ResponseEntity.ok("ok")).isLeader()).isTrue();
+	}
+
+	@Test
+	void followersSendTheirOwnRequestWhenTheLeaderHangs() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<RequestCoalescer.Result> leader = callers.submit(() -> coalescer.execute("key", "leader", MAX_WAIT,
+				() -> {
+					release.await();
+					return ResponseEntity.ok("late");
+				}));
+		while (coalescer.getInFlightCount() == 0) {
+			Thread.sleep(5);
+		}
+
+		RequestCoalescer.Result follower = coalescer.execute("key", "follower", Duration.ofMillis(50),
+				() -> ResponseEntity.ok("own"));
+
+		assertThat(follower.isLeader()).isTrue();
+		assertThat(follower.getResponse().getBody()).isEqualTo("own");
+		assertThat(coalescer.getTimedOutCount()).isEqualTo(1);
+		assertThat(leader).isNotDone();
+		release.countDown();
+		assertThat(leader.get(5, TimeUnit.SECONDS).getResponse().getBody()).isEqualTo("late");
+	}
+
+	private List<Future<RequestCoalescer.Result>> submitAll(RequestCoalescer.Exchange exchange) {
+		List<Future<RequestCoalescer.Result>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			String correlationId = "caller-" + i;
+			results.add(callers.submit(() -> coalescer.execute("key", correlationId, MAX_WAIT, exchange)));
+		}
+		return results;
+	}
+
+	// Waits until every caller but the leader has joined the exchange
+	private void awaitFollowers() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (coalescer.getCoalescedCount() < CALLERS - 1 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,345 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.ApiAuditTrailWriter;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditRecord;
+import com.github.sharifrahim.rest.rest.foundation.demo.cache.ResponseCache;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CacheProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CoalescingProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RetryProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+import com.github.sharifrahim.rest.rest.foundation.demo.factory.TokenManagerFactory;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.AdaptiveConcurrencyLimiter;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.CircuitBreakerRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.ConcurrencyLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RateLimiterRegistry;
+import com.github.sharifrahim.rest.rest.foundation.demo.resilience.RetryPolicy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.RestRequestStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Data;
+
+class RestHelperTest {
+
+	private final ApiAuditTrailWriter auditWriter = mock(ApiAuditTrailWriter.class);
+	private final List<URI> sent = new CopyOnWriteArrayList<>();
+	private final List<HttpHeaders> sentHeaders = new CopyOnWriteArrayList<>();
+	// Counted down when a hedged attempt aborts its request
+	private final CountDownLatch requestAborted = new CountDownLatch(1);
+	// A single thread: it deadlocks if hedged attempts are run on it too
+	private final ExecutorService restExecutor = Executors.newSingleThreadExecutor();
+	private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	private final ConcurrencyLimiterRegistry concurrencyLimiters = new ConcurrencyLimiterRegistry(
+			new ConcurrencyLimitProperties());
+
+	// Answers each request; the sending thread is the one calling it
+	private Responder responder = uri -> ok("{\"name\":\"Ali\"}");
+
+	@AfterEach
+	void tearDown() {
+		restExecutor.shutdownNow();
+		hedgeExecutor.shutdownNow();
+	}
+
+	@Test
+	void sendsTheEncodedGetUrlAsItIs() throws Exception {
+		helper().execute(new Lookup());
+
+		assertThat(sent).extracting(URI::toString).containsExactly("https://provider.test/accounts/A%201?note=a+b");
+	}
+
+	@Test
+	void encodesAGetUrlWithoutABody() throws Exception {
+		Lookup strategy = new Lookup() {
+			@Override
+			public String getUrl() {
+				return "https://provider.test/accounts?q=a b";
+			}
+
+			@Override
+			public HttpEntity<Query> buildRequestEntity() {
+				return new HttpEntity<>((Query) null);
+			}
+		};
+
+		assertThat(helper().execute(strategy).getName()).isEqualTo("Ali");
+		assertThat(sent).extracting(URI::toString).containsExactly("https://provider.test/accounts?q=a%20b");
+	}
+
+	@Test
+	void servesIdempotentStrategiesWithACacheTtlFromTheCache() throws Exception {
+		RestHelper helper = helper();
+		Lookup cached = new Lookup() {
+			@Override
+			public Duration getCacheTtl() {
+				return Duration.ofMinutes(2);
+			}
+		};
+
+		assertThat(helper.execute(cached).getName()).isEqualTo("Ali");
+		assertThat(helper.execute(cached).getName()).isEqualTo("Ali");
+
+		assertThat(sent).hasSize(1);
+		ArgumentCaptor<AuditRecord> records = ArgumentCaptor.forClass(AuditRecord.class);
+		verify(auditWriter, timeout(5000).times(2)).submit(records.capture());
+		assertThat(records.getAllValues()).extracting(AuditRecord::getStatus).containsExactly("SUCCESS", "CACHE_HIT");
+	}
+
+	@Test
+	void neverCachesNonIdempotentStrategies() throws Exception {
+		RestHelper helper = helper();
+		Lookup write = new Lookup() {
+			@Override
+			public Duration getCacheTtl() {
+				return Duration.ofMinutes(2);
+			}
+
+			@Override
+			public boolean isIdempotent() {
+				return false;
+			}
+		};
+
+		helper.execute(write);
+		helper.execute(write);
+
+		assertThat(sent).hasSize(2);
+	}
+
+	@Test
+	void executeAsyncCompletesWithTheProcessedResultAndAudits() throws Exception {
+		Lookup strategy = new Lookup();
+
+		Account account = helper().executeAsync(strategy).get(5, TimeUnit.SECONDS);
+
+		assertThat(account.getName()).isEqualTo("Ali");
+		assertThat(strategy.processed).isSameAs(account);
+		ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+		verify(auditWriter, timeout(5000)).submit(record.capture());
+		assertThat(record.getValue().getStatus()).isEqualTo("SUCCESS");
+	}
+
+	@Test
+	void executeAsyncFailsWithTheOriginalException() throws Exception {
+		RestHelper helper = helper();
+		responder = uri -> new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND);
+		IOException unreadable = new IOException("No URL configured");
+		Lookup broken = new Lookup() {
+			@Override
+			public String getUrl() throws IOException {
+				throw unreadable;
+			}
+		};
+
+		assertThat(failureOf(helper.executeAsync(new Lookup()))).isInstanceOf(HttpClientErrorException.NotFound.class);
+		assertThat(failureOf(helper.executeAsync(broken))).isSameAs(unreadable);
+	}
+
+	@Test
+	void providerXExecuteAsyncSendsTheDecoratedCall() throws Exception {
+		TokenManagerFactory tokenManagerFactory = mock(TokenManagerFactory.class);
+		when(tokenManagerFactory.getManager(Provider.PROVIDER_X)).thenReturn(() -> "token-1");
+		RestClientProperties.ProviderProperties providerProperties = new RestClientProperties.ProviderProperties();
+		providerProperties.setBaseUrl("https://provider.test");
+		RestClientProperties clientProperties = new RestClientProperties();
+		clientProperties.getProviders().put(Provider.PROVIDER_X, providerProperties);
+		ProviderXRestHelper providerX = new ProviderXRestHelper(helper(), null, tokenManagerFactory,
+				clientProperties, new JsonHelper(), null);
+		Lookup strategy = new Lookup() {
+			@Override
+			public String getUrl() {
+				return "/accounts/{accountNo}";
+			}
+		};
+
+		responder = uri -> ok("{\"name\":\"Ali\",\"statusCode\":\"SUCCESS\"}");
+
+		Account account = providerX.executeAsync(strategy).get(5, TimeUnit.SECONDS);
+
+		assertThat(account.getName()).isEqualTo("Ali");
+		assertThat(strategy.processed).isSameAs(account);
+		assertThat(sent).extracting(URI::toString).containsExactly("https://provider.test/accounts/A%201?note=a+b");
+		assertThat(sentHeaders.get(0).getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-1");
+	}
+
+	@Test
+	void hedgesOffTheRestExecutorAndCancelsTheLosingAttempt() throws Exception {
+		RestHelper helper = helper();
+		Lookup strategy = new Lookup();
+		helper.execute(strategy);
+
+		AtomicInteger calls = new AtomicInteger();
+		responder = uri -> {
+			if (calls.incrementAndGet() > 1) {
+				return ok("{\"name\":\"Hedge\"}");
+			}
+			// Like a pooled HttpClient request, it ignores the interrupt and
+			// only ends once the request itself is aborted
+			boolean interrupted = false;
+			while (true) {
+				try {
+					if (requestAborted.await(10, TimeUnit.SECONDS)) {
+						break;
+					}
+					return ok("{\"name\":\"Slow\"}");
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IOException("Request aborted");
+		};
+
+		Account account = helper.executeAsync(strategy).get(5, TimeUnit.SECONDS);
+
+		assertThat(account.getName()).isEqualTo("Hedge");
+		assertThat(requestAborted.await(5, TimeUnit.SECONDS)).isTrue();
+		ArgumentCaptor<AuditRecord> records = ArgumentCaptor.forClass(AuditRecord.class);
+		verify(auditWriter, timeout(5000).times(3)).submit(records.capture());
+		AuditRecord loser = records.getAllValues().stream().filter(r -> "HEDGED".equals(r.getStatus())).findFirst()
+				.orElseThrow();
+		assertThat(loser.getErrorMessage()).isNull();
+
+		// The aborted attempt gives its slot back without counting as an overload,
+		// after its result was already completed as cancelled
+		AdaptiveConcurrencyLimiter limiter = concurrencyLimiters.get(Provider.PROVIDER_X);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	private RestHelper helper() {
+		RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+			RequestCancellation.onRequest(requestAborted::countDown);
+			return new MockClientHttpRequest(method, uri) {
+				@Override
+				protected ClientHttpResponse executeInternal() throws IOException {
+					sent.add(uri);
+					sentHeaders.add(getHeaders());
+					return responder.respond(uri);
+				}
+			};
+		});
+		RetryProperties retryProperties = new RetryProperties();
+		retryProperties.getHedge().setMinSamples(1);
+		retryProperties.getHedge().setMinDelay(Duration.ofMillis(50));
+		JsonHelper jsonHelper = new JsonHelper();
+		return new RestHelper(restTemplate, auditWriter, jsonHelper, restExecutor, hedgeExecutor,
+				new ResponseCache(new CacheProperties()), new RequestCoalescer(), new CoalescingProperties(),
+				new CircuitBreakerRegistry(new CircuitBreakerProperties()), concurrencyLimiters,
+				new RateLimiterRegistry(new RateLimitProperties()), new RetryPolicy(retryProperties),
+				new RestMetrics(new SimpleMeterRegistry(), new MetricsProperties()),
+				new StreamingResponseReader(jsonHelper, new RestClientProperties()));
+	}
+
+	// The exception a future completed with, as dependent stages see it
+	private static Throwable failureOf(CompletableFuture<?> future) throws Exception {
+		return future.handle((result, error) -> error).get(5, TimeUnit.SECONDS);
+	}
+
+	private static ClientHttpResponse ok(String body) {
+		MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(), HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		return response;
+	}
+
+	@FunctionalInterface
+	interface Responder {
+		ClientHttpResponse respond(URI uri) throws IOException;
+	}
+
+	static class Lookup implements RestRequestStrategy<Query, Account> {
+
+		private volatile Account processed;
+
+		@Override
+		public String getUrl() throws Exception {
+			return "https://provider.test/accounts/{accountNo}";
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return HttpMethod.GET;
+		}
+
+		@Override
+		public HttpEntity<Query> buildRequestEntity() {
+			Query query = new Query();
+			query.setAccountNo("A 1");
+			query.setNote("a b");
+			return new HttpEntity<>(query);
+		}
+
+		@Override
+		public Class<Account> getResponseType() {
+			return Account.class;
+		}
+
+		@Override
+		public Provider getProvider() {
+			return Provider.PROVIDER_X;
+		}
+
+		@Override
+		public void processResult(Account response) {
+			processed = response;
+		}
+	}
+
+	@Data
+	static class Query {
+
+		private String accountNo;
+
+		private String note;
+	}
+
+	@Data
+	static class Account {
+
+		private String name;
+
+		private String statusCode;
+	}
+}
@@ -0,0 +1,244 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RestClientProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.PhaseTimings;
+import com.github.sharifrahim.rest.rest.foundation.demo.metrics.RestMetrics;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementStreamingStrategy;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ElementSummary;
+import com.github.sharifrahim.rest.rest.foundation.demo.strategy.ResponseEnvelope;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Data;
+
+class StreamingResponseReaderTest {
+
+	private static final ResponseEnvelope.Fields FIELDS = new ResponseEnvelope.Fields("/statusCode", null, null,
+			"statusMessage");
+
+	@TempDir
+	Path spoolDirectory;
+
+	private final PhaseTimings timings = new RestMetrics(new SimpleMeterRegistry(), new MetricsProperties())
+			.start(null, "test", "GET");
+
+	@Test
+	void deserializesFromTheStreamKeepingOnlyAPrefixForTheAudit() throws Exception {
+		StreamingResponseReader reader = reader(DataSize.ofMegabytes(1));
+		String json = body(200);
+
+		StreamedResponse<Response> body = read(reader, json, false);
+
+		assertThat(body.getValue().getItems()).hasSize(200);
+		assertThat(body.getEnvelope()).isEqualTo(new ResponseEnvelope("SUCCESS", "OK"));
+		assertThat(body.getLength()).isEqualTo(json.length());
+		assertThat(body.isTruncated()).isTrue();
+		assertThat(body.getAuditText()).isEqualTo(json.substring(0, 64));
+	}
+
+	@Test
+	void spoolsLargeResponsesToATempFileAndRemovesIt() throws Exception {
+		StreamingResponseReader reader = reader(DataSize.ofBytes(100));
+		String json = body(200);
+
+		StreamedResponse<Response> body = read(reader, json, true);
+
+		assertThat(body.getValue().getItems()).hasSize(200);
+		assertThat(body.getEnvelope().getStatusCode()).isEqualTo("SUCCESS");
+		assertThat(body.getLength()).isEqualTo(json.length());
+		assertThat(body.getAuditText()).isEqualTo(json.substring(0, 64));
+		try (var files = Files.list(spoolDirectory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void reportsMappingErrorsSeparatelyFromIoErrors() {
+		StreamingResponseReader reader = reader(DataSize.ofMegabytes(1));
+
+		assertThatThrownBy(() -> read(reader, "{\"items\":\"not a list\"", false))
+				.isInstanceOf(ResponseDeserializationException.class);
+	}
+
+	@Test
+	void handsElementsOverAsTheyAreReadAndAuditsOnlyASample() throws Exception {
+		StreamingResponseReader reader = reader(DataSize.ofMegabytes(1));
+		ItemCollector collector = new ItemCollector("/items");
+		String json = body(200);
+
+		StreamedResponse<ElementSummary> body = readElements(reader, collector, json, false);
+
+		assertThat(collector.ids).hasSize(200).startsWith(0, 1, 2).endsWith(199);
+		assertThat(body.getValue().getCount()).isEqualTo(200);
+		assertThat(body.getEnvelope()).isEqualTo(new ResponseEnvelope("SUCCESS", "OK"));
+		assertThat(body.getLength()).isEqualTo(json.length());
+		assertThat(body.isTruncated()).isTrue();
+		assertThat(body.getAuditText()).isEqualTo("{\"elementCount\":200,\"sample\":[{\"id\":0},{\"id\":1}]}");
+	}
+
+	@Test
+	void streamsTopLevelArraysFromASpooledFile() throws Exception {
+		StreamingResponseReader reader = reader(DataSize.ofBytes(100));
+		ItemCollector collector = new ItemCollector("");
+		String json = body(50);
+		String array = json.substring(json.indexOf('['), json.indexOf(']') + 1);
+
+		StreamedResponse<ElementSummary> body = readElements(reader, collector, array, true);
+
+		assertThat(collector.ids).hasSize(50);
+		assertThat(body.getValue().getCount()).isEqualTo(50);
+		assertThat(body.getEnvelope()).isEqualTo(ResponseEnvelope.EMPTY);
+		try (var files = Files.list(spoolDirectory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void spoolsResponsesWithoutALengthOnceTheyCrossTheThreshold() throws Exception {
+		StreamingResponseReader reader = reader(DataSize.ofBytes(100));
+		List<Long> spoolFiles = new ArrayList<>();
+		ItemCollector collector = new ItemCollector("/items") {
+			@Override
+			public void onElement(Item element) throws Exception {
+				super.onElement(element);
+				try (var files = Files.list(spoolDirectory)) {
+					spoolFiles.add(files.count());
+				}
+			}
+		};
+
+		// 73 bytes, parsed from memory
+		readElements(reader, collector, body(2), false);
+		assertThat(spoolFiles).containsOnly(0L);
+
+		spoolFiles.clear();
+		String json = body(50);
+		StreamedResponse<ElementSummary> body = readElements(reader, collector, json, false);
+
+		assertThat(spoolFiles).hasSize(50).containsOnly(1L);
+		assertThat(body.getValue().getCount()).isEqualTo(50);
+		assertThat(body.getEnvelope()).isEqualTo(new ResponseEnvelope("SUCCESS", "OK"));
+		assertThat(body.getLength()).isEqualTo(json.length());
+		try (var files = Files.list(spoolDirectory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	private StreamingResponseReader reader(DataSize spoolThreshold) {
+		RestClientProperties properties = new RestClientProperties();
+		properties.getStreaming().setAuditCapture(DataSize.ofBytes(64));
+		properties.getStreaming().setSpoolThreshold(spoolThreshold);
+		properties.getStreaming().setSpoolDirectory(spoolDirectory.toString());
+		properties.getStreaming().setElementSample(2);
+		return new StreamingResponseReader(new JsonHelper(), properties);
+	}
+
+	private StreamedResponse<Response> read(StreamingResponseReader reader, String json, boolean withLength)
+			throws Exception {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		MockClientHttpResponse response = new MockClientHttpResponse(bytes, HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		if (withLength) {
+			response.getHeaders().setContentLength(bytes.length);
+		}
+		ResponseEntity<StreamedResponse<Response>> entity = reader.extractor(Response.class, FIELDS, timings)
+				.extractData(response);
+		return entity.getBody();
+	}
+
+	private StreamedResponse<ElementSummary> readElements(StreamingResponseReader reader, ItemCollector collector,
+			String json, boolean withLength) throws Exception {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		MockClientHttpResponse response = new MockClientHttpResponse(bytes, HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		if (withLength) {
+			response.getHeaders().setContentLength(bytes.length);
+		}
+		return reader.elementExtractor(collector, Item.class, FIELDS, timings).extractData(response).getBody();
+	}
+
+	private static String body(int items) {
+		StringBuilder json = new StringBuilder("{\"items\":[");
+		for (int i = 0; i < items; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+		}
+		return json.append("],\"statusCode\":\"SUCCESS\",\"statusMessage\":\"OK\"}").toString();
+	}
+
+	@Data
+	static class Response {
+
+		private List<Item> items;
+
+		private String statusCode;
+
+		private String statusMessage;
+	}
+
+	@Data
+	static class Item {
+
+		private int id;
+	}
+
+	static class ItemCollector implements ElementStreamingStrategy<Void, Item> {
+
+		private final String pointer;
+
+		private final List<Integer> ids = new ArrayList<>();
+
+		ItemCollector(String pointer) {
+			this.pointer = pointer;
+		}
+
+		@Override
+		public String getUrl() {
+			return "/items";
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return HttpMethod.GET;
+		}
+
+		@Override
+		public HttpEntity<Void> buildRequestEntity() {
+			return new HttpEntity<>(new HttpHeaders());
+		}
+
+		@Override
+		public Class<Item> getElementType() {
+			return Item.class;
+		}
+
+		@Override
+		public String getElementsPointer() {
+			return pointer;
+		}
+
+		@Override
+		public void onElement(Item element) throws Exception {
+			ids.add(element.getId());
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.manager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.TokenProperties;
+
+class CachingTokenManagerTest {
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+	@AfterEach
+	void tearDown() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneFetch() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		TokenManager slow = new TokenManager() {
+			@Override
+			public String getToken() throws Exception {
+				release.await();
+				return "token-" + fetches.incrementAndGet();
+			}
+		};
+		CachingTokenManager manager = new CachingTokenManager(slow, new TokenProperties(), scheduler);
+
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(callers.submit(manager::getToken));
+		}
+		Thread.sleep(100);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertThat(result.get()).isEqualTo("token-1");
+		}
+		assertThat(manager.getToken()).isEqualTo("token-1");
+		assertThat(fetches).hasValue(1);
+		callers.shutdown();
+	}
+
+	@Test
+	void invalidateForcesNewFetch() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenManager delegate = new TokenManager() {
+			@Override
+			public String getToken() {
+				return "token-" + fetches.incrementAndGet();
+			}
+
+			@Override
+			public AccessToken getAccessToken() {
+				return new AccessToken(getToken(), Instant.now().plusSeconds(3600));
+			}
+		};
+		CachingTokenManager manager = new CachingTokenManager(delegate, new TokenProperties(), scheduler);
+
+		assertThat(manager.getToken()).isEqualTo("token-1");
+		assertThat(manager.getToken()).isEqualTo("token-1");
+		manager.invalidate();
+		assertThat(manager.getToken()).isEqualTo("token-2");
+	}
+
+	@Test
+	void asyncCallersShareTheFetchAndThenGetTheCachedToken() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		TokenManager slow = new TokenManager() {
+			@Override
+			public String getToken() throws Exception {
+				release.await();
+				return "token-" + fetches.incrementAndGet();
+			}
+		};
+		CachingTokenManager manager = new CachingTokenManager(slow, new TokenProperties(), scheduler);
+
+		CompletableFuture<AccessToken> first = manager.getAccessTokenAsync();
+		CompletableFuture<AccessToken> second = manager.getAccessTokenAsync();
+		assertThat(first).isNotDone();
+		release.countDown();
+
+		assertThat(first.get().getValue()).isEqualTo("token-1");
+		assertThat(second.get().getValue()).isEqualTo("token-1");
+		assertThat(manager.getAccessTokenAsync()).isCompletedWithValueMatching(t -> "token-1".equals(t.getValue()));
+		assertThat(fetches).hasValue(1);
+	}
+
+	@Test
+	void failedRefreshIsRetriedAfterTheRetryDelayWhileTheTokenIsUsed() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenManager flaky = new TokenManager() {
+			@Override
+			public String getToken() {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public AccessToken getAccessToken() {
+				if (fetches.incrementAndGet() > 1) {
+					throw new IllegalStateException("provider down");
+				}
+				return new AccessToken("token-1", Instant.now().plusSeconds(1));
+			}
+		};
+		TokenProperties properties = new TokenProperties();
+		properties.setRefreshRetryDelay(Duration.ofMillis(200));
+		CachingTokenManager manager = new CachingTokenManager(flaky, properties, scheduler);
+
+		// Half-way through its lifetime the token is refreshed, which fails
+		assertThat(manager.getToken()).isEqualTo("token-1");
+		Thread.sleep(600);
+		assertThat(fetches).hasValue(2);
+
+		// Callers keep the valid token without starting a fetch each time
+		for (int i = 0; i < 10; i++) {
+			assertThat(manager.getToken()).isEqualTo("token-1");
+		}
+		assertThat(fetches).hasValue(2);
+		Thread.sleep(300);
+		assertThat(fetches.get()).isGreaterThanOrEqualTo(3);
+	}
+
+	@Test
+	void expiredTokensAreNotRefreshedInALoop() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenManager stale = new TokenManager() {
+			@Override
+			public String getToken() {
+				return "token-" + fetches.incrementAndGet();
+			}
+
+			@Override
+			public AccessToken getAccessToken() {
+				return new AccessToken(getToken(), Instant.now().minusSeconds(60));
+			}
+		};
+		CachingTokenManager manager = new CachingTokenManager(stale, new TokenProperties(), scheduler);
+
+		assertThat(manager.getToken()).isEqualTo("token-1");
+		Thread.sleep(100);
+		assertThat(fetches).hasValue(1);
+	}
+
+	@Test
+	void callersWithoutATokenGetTheFailureUntilTheRetryDelayPasses() throws Exception {
+		AtomicInteger fetches = new AtomicInteger();
+		TokenManager down = new TokenManager() {
+			@Override
+			public String getToken() {
+				fetches.incrementAndGet();
+				throw new IllegalStateException("provider down");
+			}
+		};
+		TokenProperties properties = new TokenProperties();
+		properties.setRefreshRetryDelay(Duration.ofMillis(300));
+		CachingTokenManager manager = new CachingTokenManager(down, properties, scheduler);
+
+		assertThatThrownBy(manager::getToken).hasMessage("provider down");
+		for (int i = 0; i < 5; i++) {
+			assertThatThrownBy(manager::getToken).hasMessageStartingWith("Token fetch failed")
+					.hasRootCauseMessage("provider down");
+		}
+		assertThat(manager.getAccessTokenAsync()).isCompletedExceptionally();
+		assertThat(fetches).hasValue(1);
+
+		Thread.sleep(400);
+		assertThatThrownBy(manager::getToken).hasMessage("provider down");
+		assertThat(fetches).hasValue(2);
+	}
+
+	@Test
+	void aSlowFetchDoesNotHoldUpOtherManagersOnTheScheduler() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		TokenManager slow = new TokenManager() {
+			@Override
+			public String getToken() throws Exception {
+				release.await();
+				return "slow";
+			}
+		};
+		TokenManager fast = () -> "fast";
+		CachingTokenManager slowManager = new CachingTokenManager(slow, new TokenProperties(), scheduler);
+		CachingTokenManager fastManager = new CachingTokenManager(fast, new TokenProperties(), scheduler);
+
+		CompletableFuture<AccessToken> stuck = slowManager.getAccessTokenAsync();
+		assertThat(fastManager.getAccessTokenAsync().get(1, TimeUnit.SECONDS).getValue()).isEqualTo("fast");
+		assertThat(stuck).isNotDone();
+		release.countDown();
+		assertThat(stuck.get(1, TimeUnit.SECONDS).getValue()).isEqualTo("slow");
+	}
+}
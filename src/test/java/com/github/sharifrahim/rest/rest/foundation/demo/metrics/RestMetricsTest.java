@@ -0,0 +1,51 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.MetricsProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RestMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RestMetrics metrics = new RestMetrics(registry, new MetricsProperties());
+
+	@Test
+	void publishesOnlyPhasesThatRan() {
+		PhaseTimings timings = metrics.start(Provider.PROVIDER_X, "ProviderXCheckAccount", "GET");
+		timings.record(Phase.BUILD, TimeUnit.MILLISECONDS.toNanos(2));
+		timings.record(Phase.DESERIALIZE, TimeUnit.MILLISECONDS.toNanos(3));
+		timings.addBytesReceived(512);
+
+		metrics.finish(timings, "CACHE_HIT");
+
+		Timer build = registry.get("rest.request.phase")
+				.tags("provider", "PROVIDER_X", "strategy", "ProviderXCheckAccount", "method", "GET", "outcome",
+						"CACHE_HIT", "phase", "build")
+				.timer();
+		assertThat(build.count()).isEqualTo(1);
+		assertThat(build.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+		assertThat(registry.get("rest.request.phase").tag("phase", "exchange").timer().count()).isZero();
+		assertThat(registry.get("rest.request").timer().count()).isEqualTo(1);
+		assertThat(registry.get("rest.request.bytes.received").counter().count()).isEqualTo(512);
+	}
+
+	@Test
+	void reusesMetersPerTagCombination() {
+		for (int i = 0; i < 3; i++) {
+			PhaseTimings timings = metrics.start(null, "Ping", "POST");
+			timings.record(Phase.EXCHANGE, 1_000);
+			metrics.finish(timings, "SUCCESS");
+		}
+
+		assertThat(registry.get("rest.request").tag("provider", "none").timer().count()).isEqualTo(3);
+		assertThat(registry.find("rest.request").timers()).hasSize(1);
+	}
+}
@@ -0,0 +1,100 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.ConcurrencyLimitProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+	private static final long SLOW = Duration.ofMillis(100).toNanos();
+
+	private ConcurrencyLimitProperties.Settings settings(Duration maxQueueWait) {
+		ConcurrencyLimitProperties.Settings settings = new ConcurrencyLimitProperties.Settings();
+		settings.setInitialLimit(10);
+		settings.setMinLimit(2);
+		settings.setMaxLimit(50);
+		settings.setMaxQueueWait(maxQueueWait);
+		return settings;
+	}
+
+	// Runs a full limit's worth of calls with the given latency
+	private void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+		int slots = limiter.getLimit();
+		for (int i = 0; i < slots; i++) {
+			assertThat(limiter.acquire()).isTrue();
+		}
+		for (int i = 0; i < slots; i++) {
+			limiter.release(rttNanos, false);
+		}
+	}
+
+	@Test
+	void rejectsBeyondLimitWithoutQueueing() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(Provider.PROVIDER_X,
+				settings(Duration.ZERO));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(limiter.acquire()).isTrue();
+		}
+
+		assertThat(limiter.acquire()).isFalse();
+		assertThat(limiter.getInFlight()).isEqualTo(10);
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void queuedCallTakesFreedSlot() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(Provider.PROVIDER_X,
+				settings(Duration.ofSeconds(5)));
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire();
+		}
+
+		CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(limiter::acquire);
+		while (limiter.getQueued() == 0) {
+			Thread.sleep(1);
+		}
+		limiter.cancel();
+
+		assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(limiter.getRejectedCount()).isZero();
+	}
+
+	@Test
+	void growsWhileLatencyIsStableAndShrinksWhenItClimbs() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(Provider.PROVIDER_X,
+				settings(Duration.ZERO));
+
+		for (int i = 0; i < 20; i++) {
+			saturate(limiter, FAST);
+		}
+		int grown = limiter.getLimit();
+		assertThat(grown).isGreaterThan(10);
+
+		for (int i = 0; i < 5; i++) {
+			saturate(limiter, SLOW);
+		}
+		assertThat(limiter.getLimit()).isLessThan(grown);
+	}
+
+	@Test
+	void backsOffOnOverload() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(Provider.PROVIDER_X,
+				settings(Duration.ZERO));
+
+		for (int i = 0; i < 30; i++) {
+			limiter.acquire();
+			limiter.release(FAST, true);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+}
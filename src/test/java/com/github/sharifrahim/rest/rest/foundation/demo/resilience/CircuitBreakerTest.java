@@ -0,0 +1,83 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.CircuitBreakerProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.constant.Provider;
+
+class CircuitBreakerTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+
+	private CircuitBreakerProperties.Settings settings() {
+		CircuitBreakerProperties.Settings settings = new CircuitBreakerProperties.Settings();
+		settings.setWindowSize(10);
+		settings.setMinimumCalls(10);
+		settings.setFailureRateThreshold(50);
+		settings.setSlowCallDuration(Duration.ofSeconds(1));
+		settings.setOpenDuration(Duration.ofMillis(50));
+		settings.setHalfOpenCalls(2);
+		return settings;
+	}
+
+	@Test
+	void opensOnFailureRateAndFailsFast() {
+		CircuitBreaker breaker = new CircuitBreaker(Provider.PROVIDER_X, settings());
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(breaker.tryAcquirePermission()).isTrue();
+			breaker.onResult(FAST, i % 2 == 0);
+		}
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.getShortCircuitedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void opensOnSlowCalls() {
+		CircuitBreakerProperties.Settings settings = settings();
+		settings.setSlowCallRateThreshold(50);
+		CircuitBreaker breaker = new CircuitBreaker(Provider.PROVIDER_X, settings);
+
+		for (int i = 0; i < 10; i++) {
+			breaker.tryAcquirePermission();
+			breaker.onResult(Duration.ofSeconds(2).toNanos(), false);
+		}
+
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	@Test
+	void halfOpenProbesCloseOrReopen() throws Exception {
+		CircuitBreaker breaker = new CircuitBreaker(Provider.PROVIDER_X, settings());
+		for (int i = 0; i < 10; i++) {
+			breaker.tryAcquirePermission();
+			breaker.onResult(FAST, true);
+		}
+		Thread.sleep(60);
+
+		// Only the configured number of probes are let through
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, false);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		for (int i = 0; i < 10; i++) {
+			breaker.tryAcquirePermission();
+			breaker.onResult(FAST, true);
+		}
+		Thread.sleep(60);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onResult(FAST, true);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+}
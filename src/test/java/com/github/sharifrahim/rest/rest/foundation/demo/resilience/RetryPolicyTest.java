@@ -0,0 +1,63 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RetryProperties;
+
+class RetryPolicyTest {
+
+	private RetryProperties properties() {
+		RetryProperties properties = new RetryProperties();
+		properties.getBudget().setRatio(0.5);
+		properties.getBudget().setCapacity(2);
+		properties.getHedge().setMinSamples(10);
+		properties.getHedge().setMinDelay(Duration.ofMillis(1));
+		return properties;
+	}
+
+	@Test
+	void budgetLimitsRetriesToRatioOfTraffic() {
+		RetryPolicy policy = new RetryPolicy(properties());
+
+		// Starts full, then only earns half a retry per first attempt
+		assertThat(policy.tryRetry()).isTrue();
+		assertThat(policy.tryHedge()).isTrue();
+		assertThat(policy.tryRetry()).isFalse();
+
+		policy.onFirstAttempt();
+		assertThat(policy.tryRetry()).isFalse();
+		policy.onFirstAttempt();
+		assertThat(policy.tryRetry()).isTrue();
+	}
+
+	@Test
+	void backoffStaysWithinJitteredCeiling() {
+		RetryProperties properties = properties();
+		properties.setInitialBackoff(Duration.ofMillis(10));
+		properties.setMaxBackoff(Duration.ofMillis(25));
+		RetryPolicy policy = new RetryPolicy(properties);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(policy.backoffNanos(1)).isBetween(0L, Duration.ofMillis(10).toNanos());
+			assertThat(policy.backoffNanos(5)).isBetween(0L, Duration.ofMillis(25).toNanos());
+		}
+	}
+
+	@Test
+	void hedgeDelayFollowsLatencyPercentile() {
+		RetryPolicy policy = new RetryPolicy(properties());
+		assertThat(policy.hedgeDelay("PROVIDER_X Lookup")).isNull();
+
+		// 1..160 ms; the percentile is refreshed every 32 samples
+		for (int i = 1; i <= 160; i++) {
+			policy.recordLatency("PROVIDER_X Lookup", Duration.ofMillis(i).toNanos());
+		}
+
+		assertThat(policy.hedgeDelay("PROVIDER_X Lookup")).isEqualTo(Duration.ofMillis(152));
+		assertThat(policy.hedgeDelay("PROVIDER_X Export")).isNull();
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.sharifrahim.rest.rest.foundation.demo.config.RateLimitProperties;
+
+class TokenBucketRateLimiterTest {
+
+	private static final long INTERVAL = Duration.ofMillis(100).toNanos();
+
+	private final AtomicLong now = new AtomicLong();
+
+	private TokenBucketRateLimiter limiter(String name, int burst, Duration maxWait) {
+		RateLimitProperties.Settings settings = new RateLimitProperties.Settings();
+		settings.setPermitsPerSecond(10);
+		settings.setBurst(burst);
+		settings.setMaxWait(maxWait);
+		return new TokenBucketRateLimiter(name, settings, now::get);
+	}
+
+	@Test
+	void allowsABurstThenRejectsWithoutWaiting() {
+		TokenBucketRateLimiter limiter = limiter("PROVIDER_X", 3, Duration.ZERO);
+		List<TokenBucketRateLimiter> limiters = List.of(limiter);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(TokenBucketRateLimiter.reserve(limiters)).isZero();
+		}
+		assertThatThrownBy(() -> TokenBucketRateLimiter.reserve(limiters))
+				.isInstanceOf(RateLimitExceededException.class);
+
+		// One interval later exactly one more permit is due
+		now.addAndGet(INTERVAL);
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isZero();
+		assertThat(limiter.tryReserve()).isEqualTo(-1);
+		assertThat(limiter.getGrantedCount()).isEqualTo(4);
+		assertThat(limiter.getWaitedCount()).isZero();
+		assertThat(limiter.getRejectedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void spacesCallsOutWithinTheMaximumWait() {
+		TokenBucketRateLimiter limiter = limiter("PROVIDER_X", 1, Duration.ofMillis(250));
+		List<TokenBucketRateLimiter> limiters = List.of(limiter);
+
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isZero();
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isEqualTo(INTERVAL);
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isEqualTo(2 * INTERVAL);
+		assertThatThrownBy(() -> TokenBucketRateLimiter.reserve(limiters))
+				.isInstanceOf(RateLimitExceededException.class);
+		assertThat(limiter.getGrantedCount()).isEqualTo(3);
+		assertThat(limiter.getWaitedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void givesPermitsBackWhenAnotherLimiterRejects() {
+		TokenBucketRateLimiter provider = limiter("PROVIDER_X", 2, Duration.ZERO);
+		TokenBucketRateLimiter strategy = limiter("ProviderXCheckAccount", 1, Duration.ZERO);
+		List<TokenBucketRateLimiter> limiters = List.of(provider, strategy);
+
+		assertThat(TokenBucketRateLimiter.reserve(limiters)).isZero();
+		assertThatThrownBy(() -> TokenBucketRateLimiter.reserve(limiters))
+				.isInstanceOf(RateLimitExceededException.class)
+				.hasMessageContaining("ProviderXCheckAccount");
+
+		// The provider's second permit was returned, so another strategy still gets it
+		assertThat(TokenBucketRateLimiter.reserve(List.of(provider))).isZero();
+		assertThat(provider.getGrantedCount()).isEqualTo(2);
+		assertThat(strategy.getRejectedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void takesAPermitOnlyIfItIsDueNow() {
+		TokenBucketRateLimiter provider = limiter("PROVIDER_X", 2, Duration.ofSeconds(1));
+		TokenBucketRateLimiter strategy = limiter("ProviderXCheckAccount", 1, Duration.ofSeconds(1));
+		List<TokenBucketRateLimiter> limiters = List.of(provider, strategy);
+
+		assertThat(TokenBucketRateLimiter.tryAcquire(limiters)).isTrue();
+		// The strategy's next permit would need a wait, so none is taken
+		assertThat(TokenBucketRateLimiter.tryAcquire(limiters)).isFalse();
+		assertThat(TokenBucketRateLimiter.reserve(List.of(provider))).isZero();
+		assertThat(provider.getGrantedCount()).isEqualTo(2);
+		assertThat(strategy.getGrantedCount()).isEqualTo(1);
+		assertThat(strategy.getRejectedCount()).isZero();
+	}
+}
@@ -0,0 +1,141 @@
+package com.github.sharifrahim.rest.rest.foundation.demo.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditBody;
+import com.github.sharifrahim.rest.rest.foundation.demo.audit.AuditBodyCodec;
+import com.github.sharifrahim.rest.rest.foundation.demo.config.AuditProperties;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailCursor;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailFilter;
+import com.github.sharifrahim.rest.rest.foundation.demo.dto.AuditTrailPage;
+import com.github.sharifrahim.rest.rest.foundation.demo.entity.ApiAuditTrail;
+import com.github.sharifrahim.rest.rest.foundation.demo.repository.ApiAuditTrailRepository;
+
+@DataJpaTest
+@Import({ ApiAuditTrailServiceImpl.class, AuditBodyCodec.class, JacksonAutoConfiguration.class })
+@EnableConfigurationProperties(AuditProperties.class)
+class ApiAuditTrailServiceImplTest {
+
+	private static final ZonedDateTime T0 = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+
+	@Autowired
+	private ApiAuditTrailService service;
+
+	@Autowired
+	private ApiAuditTrailRepository repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void seed() {
+		List<ApiAuditTrail> rows = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			// Rows 3 and 4 share a timestamp, so the ID has to break the tie
+			rows.add(row("/accounts/" + i, i % 2 == 0 ? "SUCCESS" : "FAILED", T0.plusMinutes(i == 4 ? 3 : i)));
+		}
+		rows.add(row("/cards_1", "SUCCESS", T0.plusMinutes(10)));
+		repository.saveAll(rows);
+	}
+
+	@Test
+	void pagesThroughMatchesNewestFirstWithoutGapsOrDuplicates() {
+		AuditTrailFilter filter = AuditTrailFilter.builder().urlPrefix("/accounts/").build();
+		List<String> urls = new ArrayList<>();
+		AuditTrailCursor cursor = null;
+		int pages = 0;
+		do {
+			AuditTrailPage page = service.findPage(filter, cursor, 3);
+			page.getItems().forEach(row -> urls.add(row.getUrl()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(urls).containsExactly("/accounts/6", "/accounts/5", "/accounts/4", "/accounts/3", "/accounts/2",
+				"/accounts/1", "/accounts/0");
+	}
+
+	@Test
+	void appliesStatusTimeRangeAndLiteralPrefixFilters() {
+		AuditTrailFilter failedInRange = AuditTrailFilter.builder().status("FAILED").from(T0.plusMinutes(1))
+				.to(T0.plusMinutes(5)).build();
+		assertThat(service.findPage(failedInRange, null, 10).getItems()).extracting(ApiAuditTrail::getUrl)
+				.containsExactly("/accounts/3", "/accounts/1");
+
+		// "_" is not a wildcard
+		AuditTrailFilter cards = AuditTrailFilter.builder().urlPrefix("/cardsX").build();
+		assertThat(service.findPage(cards, null, 10).getItems()).isEmpty();
+	}
+
+	@Test
+	void exportsOneJsonObjectPerLine() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = service.exportNdjson(AuditTrailFilter.builder().status("SUCCESS").build(), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(count).isEqualTo(5);
+		assertThat(lines).hasSize(5);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("url").asText()).isEqualTo("/cards_1");
+	}
+
+	@Test
+	void decompressesStoredBodiesOnRead() {
+		AuditProperties properties = new AuditProperties();
+		properties.getStorage().setCompression(AuditProperties.Storage.Compression.DEFLATE);
+		properties.getStorage().setCompressThreshold(16);
+		String body = "{\"items\":[" + "{\"id\":1},".repeat(200) + "{\"id\":2}]}";
+		ApiAuditTrail row = row("/compressed", "SUCCESS", T0);
+		new AuditBodyCodec(properties).encode(row, null, new AuditBody(body, null, null));
+		Long id = repository.save(row).getId();
+
+		ApiAuditTrail read = service.findById(id).orElseThrow();
+
+		assertThat(read.getResponseBody()).isEqualTo(body);
+		assertThat(read.getResponseBodyCompressed()).isNull();
+	}
+
+	@Test
+	void savesOnlyRecordsNotStoredYet() {
+		ApiAuditTrail stored = row("/stored", "SUCCESS", T0);
+		stored.setCorrelationId("c-1");
+		repository.save(stored);
+
+		List<ApiAuditTrail> replayed = new ArrayList<>();
+		for (String id : new String[] { "c-1", "c-2", "c-2" }) {
+			ApiAuditTrail row = row("/replayed", "SUCCESS", T0);
+			row.setCorrelationId(id);
+			replayed.add(row);
+		}
+
+		assertThat(service.saveAllAbsent(replayed)).isEqualTo(1);
+		assertThat(service.findByCorrelationId("c-2")).isPresent();
+	}
+
+	private ApiAuditTrail row(String url, String status, ZonedDateTime timestamp) {
+		ApiAuditTrail row = new ApiAuditTrail();
+		row.setUrl(url);
+		row.setMethod("GET");
+		row.setStatus(status);
+		row.setTimestamp(timestamp);
+		return row;
+	}
+}